@@ -0,0 +1,62 @@
+package wc.prode._6.catalog;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import wc.prode._6.dto.response.MatchResponse;
+import wc.prode._6.event.MatchCatalogChangedEvent;
+import wc.prode._6.event.MatchResultChangedEvent;
+import wc.prode._6.mapper.MatchMapper;
+import wc.prode._6.repository.MatchRepository;
+
+import java.util.List;
+
+/**
+ * Catálogo de partidos en memoria. Las consultas leen siempre una foto inmutable y versionada;
+ * la foto solo se reconstruye (y se reemplaza de forma atómica) cuando cambia un resultado o se siembran partidos,
+ * en lugar de leer y mapear todos los partidos en cada consulta.
+ */
+@Component
+@Slf4j
+public class MatchCatalog {
+
+    private final MatchRepository matchRepository;
+    private final MatchMapper matchMapper;
+    private volatile MatchCatalogSnapshot snapshot;
+
+    public MatchCatalog(MatchRepository matchRepository, MatchMapper matchMapper) {
+        this.matchRepository = matchRepository;
+        this.matchMapper = matchMapper;
+    }
+
+    public MatchCatalogSnapshot current() {
+        MatchCatalogSnapshot current = snapshot;
+        return current != null ? current : rebuild();
+    }
+
+    /**
+     * Reconstruye la foto. Es sincronizado para que una reconstrucción más vieja nunca reemplace a una más nueva.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized MatchCatalogSnapshot rebuild() {
+        List<MatchResponse> matches = matchRepository.findAll().stream()
+                .map(matchMapper::toResponse)
+                .toList();
+        long version = snapshot == null ? 1 : snapshot.version() + 1;
+        snapshot = MatchCatalogSnapshot.of(version, matches);
+        log.info("Match catalog rebuilt: version {}, {} matches", version, matches.size());
+        return snapshot;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMatchResultChanged(MatchResultChangedEvent event) {
+        rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMatchCatalogChanged(MatchCatalogChangedEvent event) {
+        rebuild();
+    }
+}
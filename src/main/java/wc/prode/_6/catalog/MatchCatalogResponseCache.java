@@ -0,0 +1,117 @@
+package wc.prode._6.catalog;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+import wc.prode._6.dto.response.ApiResponse;
+import wc.prode._6.dto.response.MatchResponse;
+import wc.prode._6.entity.Phase;
+import wc.prode._6.exception.ResourceNotFoundException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Respuestas de /matches ya serializadas para la versión actual del catálogo.
+ * Cada respuesta se serializa y comprime una sola vez por versión; al cambiar la versión se descartan todas.
+ * El ETag es un hash del contenido, así que se mantiene entre reinicios mientras los datos no cambien.
+ */
+@Component
+public class MatchCatalogResponseCache {
+
+    private static final String MATCHES_MESSAGE = "Matches retrieved successfully";
+    private static final String MATCH_MESSAGE = "Match retrieved successfully";
+
+    private final MatchCatalog matchCatalog;
+    private final ObjectMapper objectMapper;
+    private volatile VersionedResponses responses = new VersionedResponses(-1, new ConcurrentHashMap<>());
+
+    public MatchCatalogResponseCache(MatchCatalog matchCatalog, ObjectMapper objectMapper) {
+        this.matchCatalog = matchCatalog;
+        this.objectMapper = objectMapper;
+    }
+
+    public EncodedResponse getAll() {
+        MatchCatalogSnapshot snapshot = matchCatalog.current();
+        return get(snapshot, "all", () -> encode(MATCHES_MESSAGE, snapshot.matches()));
+    }
+
+    public EncodedResponse getById(Long id) {
+        MatchCatalogSnapshot snapshot = matchCatalog.current();
+        MatchResponse match = snapshot.byId().get(id);
+        if (match == null) {
+            throw new ResourceNotFoundException("Match not found with id: " + id);
+        }
+        return get(snapshot, "id:" + id, () -> encode(MATCH_MESSAGE, match));
+    }
+
+    public EncodedResponse getByPhase(Phase phase) {
+        MatchCatalogSnapshot snapshot = matchCatalog.current();
+        return get(snapshot, "phase:" + phase, () -> encode(MATCHES_MESSAGE, snapshot.getByPhase(phase)));
+    }
+
+    public EncodedResponse getByGroup(String group) {
+        MatchCatalogSnapshot snapshot = matchCatalog.current();
+        List<MatchResponse> matches = snapshot.getByGroup(group);
+        // Solo se guardan los grupos existentes, para que la caché no crezca con valores arbitrarios de la URL
+        String key = matches.isEmpty() ? "group:" : "group:" + group.toUpperCase();
+        return get(snapshot, key, () -> encode(MATCHES_MESSAGE, matches));
+    }
+
+    private EncodedResponse get(MatchCatalogSnapshot snapshot, String key,
+                                Supplier<EncodedResponse> encoder) {
+        VersionedResponses current = responses;
+        if (current.version() != snapshot.version()) {
+            current = new VersionedResponses(snapshot.version(), new ConcurrentHashMap<>());
+            if (snapshot.version() > responses.version()) {
+                responses = current;
+            }
+        }
+        return current.byKey().computeIfAbsent(key, k -> encoder.get());
+    }
+
+    private EncodedResponse encode(String message, Object data) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(ApiResponse.<Object>builder()
+                    .success(true)
+                    .message(message)
+                    .data(data)
+                    .build());
+            String hash = hash(json);
+            return new EncodedResponse(json, gzip(json), "\"" + hash + "\"", "\"" + hash + "-gzip\"");
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize match catalog response", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(data.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(output)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return output.toByteArray();
+    }
+
+    private static String hash(byte[] data) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(data);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest).substring(0, 22);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record VersionedResponses(long version, Map<String, EncodedResponse> byKey) {
+    }
+}
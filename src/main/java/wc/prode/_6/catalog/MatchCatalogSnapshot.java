@@ -0,0 +1,57 @@
+package wc.prode._6.catalog;
+
+import wc.prode._6.dto.response.MatchResponse;
+import wc.prode._6.entity.Phase;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Foto inmutable del catálogo de partidos en una versión, indexada por id, fase y grupo.
+ * Las respuestas se comparten entre todas las consultas y no deben modificarse.
+ */
+public record MatchCatalogSnapshot(long version,
+                                   List<MatchResponse> matches,
+                                   Map<Long, MatchResponse> byId,
+                                   Map<Phase, List<MatchResponse>> byPhase,
+                                   Map<String, List<MatchResponse>> byGroup) {
+
+    private static final Comparator<MatchResponse> BY_DATE = Comparator
+            .comparing(MatchResponse::getDate)
+            .thenComparing(MatchResponse::getId);
+
+    static MatchCatalogSnapshot of(long version, List<MatchResponse> matches) {
+        Map<Long, MatchResponse> byId = matches.stream()
+                .collect(Collectors.toUnmodifiableMap(MatchResponse::getId, Function.identity()));
+
+        Map<Phase, List<MatchResponse>> byPhase = new EnumMap<>(Phase.class);
+        for (Phase phase : Phase.values()) {
+            byPhase.put(phase, matches.stream()
+                    .filter(match -> phase.name().equals(match.getPhase()))
+                    .sorted(BY_DATE)
+                    .toList());
+        }
+
+        Map<String, List<MatchResponse>> byGroup = matches.stream()
+                .filter(match -> match.getGroup() != null)
+                .sorted(BY_DATE)
+                .collect(Collectors.groupingBy(match -> match.getGroup().toUpperCase(), Collectors.toList()))
+                .entrySet().stream()
+                .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, entry -> List.copyOf(entry.getValue())));
+
+        return new MatchCatalogSnapshot(version, List.copyOf(matches), byId, Collections.unmodifiableMap(byPhase), byGroup);
+    }
+
+    public List<MatchResponse> getByPhase(Phase phase) {
+        return byPhase.get(phase);
+    }
+
+    public List<MatchResponse> getByGroup(String group) {
+        return byGroup.getOrDefault(group.toUpperCase(), List.of());
+    }
+}
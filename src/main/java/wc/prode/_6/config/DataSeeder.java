@@ -1,21 +1,28 @@
 package wc.prode._6.config;
 
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
+import wc.prode._6.config.dto.SeedMatch;
+import wc.prode._6.config.dto.SeedTeam;
 import wc.prode._6.entity.Match;
 import wc.prode._6.entity.Phase;
 import wc.prode._6.entity.ProdeGroup;
+import wc.prode._6.entity.SeedState;
 import wc.prode._6.entity.Team;
+import wc.prode._6.event.MatchCatalogChangedEvent;
 import wc.prode._6.repository.MatchRepository;
 import wc.prode._6.repository.ProdeGroupRepository;
+import wc.prode._6.repository.SeedStateRepository;
 import wc.prode._6.repository.TeamRepository;
+import wc.prode._6.service.PointsService;
 
 import java.io.InputStream;
 import java.time.LocalDateTime;
@@ -27,46 +34,174 @@ import java.util.*;
 @Slf4j
 public class DataSeeder implements CommandLineRunner {
 
+    private static final int BATCH_SIZE = 500;
+    private static final String TOURNAMENT_SEED = "tournament";
+
     private final TeamRepository teamRepository;
     private final MatchRepository matchRepository;
     private final ProdeGroupRepository prodeGroupRepository;
     private final PasswordEncoder passwordEncoder;
     private final ObjectMapper objectMapper;
+    private final PointsService pointsService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
+    private final SeedStateRepository seedStateRepository;
 
     @Override
     @Transactional
     public void run(String... args) {
+        TournamentSnapshot snapshot = loadSnapshot();
+        Optional<SeedState> seedState = seedStateRepository.findById(TOURNAMENT_SEED);
+
+        if (snapshot != null && seedState.map(state -> state.getChecksum().equals(snapshot.checksum())).orElse(false)) {
+            log.info("Tournament data already matches snapshot {}, skipping import", snapshot.checksum());
+        } else {
+            seedState.ifPresent(state -> log.warn("Tournament data was imported from snapshot {} but the current one is {}; " +
+                    "existing data is kept", state.getChecksum(), snapshot != null ? snapshot.checksum() : "unavailable"));
+            seedTournament(snapshot);
+        }
+
+        if (prodeGroupRepository.count() == 0) {
+            log.info("Seeding default group...");
+            seedDefaultGroup();
+        }
+
+        // Completar (una sola vez) el registro de puntos de apuestas puntuadas antes de que existiera
+        int backfilledBets = pointsService.backfillAwardedPoints();
+        if (backfilledBets > 0) {
+            log.info("Backfilled awarded points for {} scored bets", backfilledBets);
+        }
+
+        // Puntuar los resultados que quedaron sin puntuar (trabajos fallidos o perdidos al reiniciar),
+        // antes de que los índices en memoria se armen desde la base
+        pointsService.rescoreStaleMatches();
+
+        log.info("Data seeding completed!");
+    }
+
+    /**
+     * Carga equipos y partidos en las tablas vacías. Si ambas se cargaron desde la foto del torneo, o si ya
+     * tenían datos y coinciden con ella, guarda su checksum para saltear todo el proceso en los próximos arranques.
+     */
+    private void seedTournament(TournamentSnapshot snapshot) {
+        boolean teamsFromSnapshot = false;
+        boolean matchesFromSnapshot = false;
+
+        if (snapshot != null && teamRepository.count() > 0 && matchRepository.count() > 0) {
+            if (matchesExistingData(snapshot)) {
+                log.info("Existing tournament data matches snapshot {}, recording it", snapshot.checksum());
+                seedStateRepository.save(SeedState.builder()
+                        .name(TOURNAMENT_SEED)
+                        .checksum(snapshot.checksum())
+                        .build());
+            }
+            return;
+        }
+
         if (teamRepository.count() == 0) {
             log.info("Seeding teams data...");
-            seedTeams();
+            teamsFromSnapshot = seedTeams(snapshot);
         }
 
         if (matchRepository.count() == 0) {
             log.info("Seeding matches data...");
             // Crear equipo "Por definir" si no existe (para partidos de knockout con equipos pendientes)
             createPlaceholderTeam();
+
+            // Los equipos se resuelven por nombre contra un mapa cargado una sola vez
+            Map<String, Long> teamIds = new HashMap<>();
+            teamRepository.findAll().forEach(team -> teamIds.put(team.getName(), team.getId()));
             
-            // Intentar importar desde matches_2026.json (fase de grupos)
-            int groupMatches = importMatchesFromJson("matches_2026.json");
+            // Fase de grupos (matches_2026.json)
+            int groupMatches = snapshot == null ? 0
+                    : importMatches(snapshot.groupMatches(), TournamentSnapshot.GROUP_MATCHES_FILE, teamIds, false);
             
-            // Intentar importar desde knockout_2026.json (fases eliminatorias)
-            int knockoutMatches = importMatchesFromJson("knockout_2026.json");
+            // Fases eliminatorias (knockout_2026.json): se permiten partidos con "Por definir"
+            int knockoutMatches = snapshot == null ? 0
+                    : importMatches(snapshot.knockoutMatches(), TournamentSnapshot.KNOCKOUT_MATCHES_FILE, teamIds, true);
             
             if (groupMatches > 0 || knockoutMatches > 0) {
                 log.info("Matches imported successfully: {} group matches, {} knockout matches", 
                     groupMatches, knockoutMatches);
+                matchesFromSnapshot = true;
             } else {
                 log.info("JSON files not found or empty, using default seed data");
                 seedMatches();
             }
+            eventPublisher.publishEvent(new MatchCatalogChangedEvent());
         }
 
-        if (prodeGroupRepository.count() == 0) {
-            log.info("Seeding default group...");
-            seedDefaultGroup();
+        if (teamsFromSnapshot && matchesFromSnapshot) {
+            seedStateRepository.save(SeedState.builder()
+                    .name(TOURNAMENT_SEED)
+                    .checksum(snapshot.checksum())
+                    .build());
         }
+    }
 
-        log.info("Data seeding completed!");
+    /**
+     * Compara los datos ya cargados con la foto: están todos sus equipos y el calendario (fase y fecha de cada
+     * partido) es el mismo. Los equipos y resultados de los partidos no se comparan porque cambian durante el torneo.
+     */
+    private boolean matchesExistingData(TournamentSnapshot snapshot) {
+        Map<String, Long> teamIds = new HashMap<>();
+        teamRepository.findAll().forEach(team -> teamIds.put(team.getName(), team.getId()));
+        for (SeedTeam team : snapshot.teams()) {
+            if (team.name() != null && !team.name().isEmpty() && !teamIds.containsKey(team.name())) {
+                log.warn("Existing tournament data does not match snapshot {}: team {} is missing",
+                        snapshot.checksum(), team.name());
+                return false;
+            }
+        }
+
+        DateTimeFormatter formatter = DateTimeFormatter.ISO_DATE_TIME;
+        List<String> expected = new ArrayList<>();
+        for (SeedMatch match : snapshot.groupMatches()) {
+            Object[] row = toMatchRow(match, teamIds, formatter, false);
+            if (row != null) {
+                expected.add(row[3] + " " + row[0]);
+            }
+        }
+        for (SeedMatch match : snapshot.knockoutMatches()) {
+            Object[] row = toMatchRow(match, teamIds, formatter, true);
+            if (row != null) {
+                expected.add(row[3] + " " + row[0]);
+            }
+        }
+        List<String> existing = new ArrayList<>();
+        matchRepository.findAll().forEach(match -> existing.add(match.getPhase().name() + " " + match.getDate()));
+        Collections.sort(expected);
+        Collections.sort(existing);
+        if (!expected.equals(existing)) {
+            log.warn("Existing tournament data does not match snapshot {}: the match calendar differs " +
+                    "({} matches in the database, {} in the snapshot)", snapshot.checksum(), existing.size(), expected.size());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Lee la foto del torneo compilada en el build (una sola lectura, sin parsear JSON).
+     * Sin ella (por ejemplo al correr desde el IDE sin el paso del build) la arma desde los JSON.
+     * @return la foto, o null si no se pudo leer ninguna de las dos
+     */
+    private TournamentSnapshot loadSnapshot() {
+        try {
+            ClassPathResource resource = new ClassPathResource(TournamentSnapshot.RESOURCE);
+            if (resource.exists()) {
+                try (InputStream inputStream = resource.getInputStream()) {
+                    return TournamentSnapshot.decode(inputStream.readAllBytes());
+                }
+            }
+            log.info("{} not found in classpath, reading tournament JSON files", TournamentSnapshot.RESOURCE);
+            return TournamentSnapshot.fromJson(objectMapper, fileName -> {
+                ClassPathResource source = new ClassPathResource(fileName);
+                return source.exists() ? source.getInputStream() : null;
+            });
+        } catch (Exception e) {
+            log.error("Error loading tournament data, using default seed data", e);
+            return null;
+        }
     }
 
     private void seedDefaultGroup() {
@@ -79,60 +214,38 @@ public class DataSeeder implements CommandLineRunner {
         log.info("Default group created: 'Grupo Principal' with password 'prode2026'");
     }
 
-    private void seedTeams() {
-        try {
-            ClassPathResource resource = new ClassPathResource("team.json");
-            if (!resource.exists()) {
-                log.warn("team.json not found in classpath, using default teams");
-                seedDefaultTeams();
-                return;
-            }
-            
-            InputStream inputStream = resource.getInputStream();
-            List<Map<String, Object>> teamsData = objectMapper.readValue(
-                inputStream, 
-                new TypeReference<List<Map<String, Object>>>() {}
-            );
-            
-            if (teamsData == null || teamsData.isEmpty()) {
-                log.warn("team.json is empty, using default teams");
-                seedDefaultTeams();
-                return;
-            }
-            
-            int importedTeams = 0;
-            for (Map<String, Object> teamData : teamsData) {
-                String name = (String) teamData.get("name");
-                String flagUrl = (String) teamData.get("flagUrl");
-                
-                if (name == null || name.isEmpty()) {
-                    continue;
-                }
-                
-                // Verificar si el equipo ya existe
-                if (teamRepository.findByName(name).isEmpty()) {
-                    Team team = Team.builder()
-                            .name(name)
-                            .flagUrl(flagUrl != null ? flagUrl : "https://flagsapi.com/XX/flat/64.png")
-                            .build();
-                    teamRepository.save(team);
-                    importedTeams++;
-                }
-            }
-            
-            log.info("Imported {} teams from team.json", importedTeams);
-            
-        } catch (Exception e) {
-            log.error("Error importing teams from team.json, using default teams", e);
+    /**
+     * @return true si los equipos salieron de la foto del torneo, false si se usaron los de por defecto
+     */
+    private boolean seedTeams(TournamentSnapshot snapshot) {
+        if (snapshot == null || snapshot.teams().isEmpty()) {
+            log.warn("team.json not found or empty, using default teams");
             seedDefaultTeams();
+            return false;
         }
+
+        Set<String> existing = new HashSet<>();
+        teamRepository.findAll().forEach(team -> existing.add(team.getName()));
+
+        List<Object[]> rows = new ArrayList<>();
+        for (SeedTeam team : snapshot.teams()) {
+            if (team.name() == null || team.name().isEmpty() || !existing.add(team.name())) {
+                continue;
+            }
+            rows.add(new Object[]{team.name(),
+                    team.flagUrl() != null ? team.flagUrl() : "https://flagsapi.com/XX/flat/64.png"});
+        }
+
+        batchInsert("INSERT INTO teams (name, flag_url) VALUES (?, ?)", rows);
+        log.info("Imported {} teams from team.json", rows.size());
+        return true;
     }
     
     /**
      * Crea el equipo placeholder "Por definir" para partidos de knockout con equipos pendientes
      */
     private void createPlaceholderTeam() {
-        String placeholderName = "Por definir";
+        String placeholderName = Team.PLACEHOLDER_NAME;
         if (teamRepository.findByName(placeholderName).isEmpty()) {
             Team placeholder = Team.builder()
                     .name(placeholderName)
@@ -246,185 +359,101 @@ public class DataSeeder implements CommandLineRunner {
     }
     
     /**
-     * Importa partidos desde un archivo JSON
-     * @param fileName nombre del archivo JSON (matches_2026.json o knockout_2026.json)
+     * Importa los partidos de un archivo del torneo, escribiéndolos en batches JDBC
+     * @param matches partidos leídos del archivo
+     * @param fileName archivo de origen (matches_2026.json o knockout_2026.json)
+     * @param teamIds ids de los equipos por nombre
+     * @param allowPlaceholders si true, permite equipos "Por definir"
      * @return número de partidos importados
      */
-    private int importMatchesFromJson(String fileName) {
-        try {
-            ClassPathResource resource = new ClassPathResource(fileName);
-            if (!resource.exists()) {
-                log.warn("{} not found in classpath", fileName);
-                return 0;
-            }
-            
-            InputStream inputStream = resource.getInputStream();
-            List<Map<String, Object>> matchesData = objectMapper.readValue(
-                inputStream, 
-                new TypeReference<List<Map<String, Object>>>() {}
-            );
-            
-            if (matchesData == null || matchesData.isEmpty()) {
-                log.warn("{} is empty or has no matches", fileName);
-                return 0;
-            }
-            
-            int importedMatches = 0;
-            int skippedMatches = 0;
-            DateTimeFormatter formatter = DateTimeFormatter.ISO_DATE_TIME;
-            
-            // Para knockout_2026.json, permitir partidos con "Por definir"
-            boolean allowPlaceholders = fileName.equals("knockout_2026.json");
-            
-            for (Map<String, Object> matchData : matchesData) {
-                if (importMatch(matchData, formatter, allowPlaceholders)) {
-                    importedMatches++;
-                } else {
-                    skippedMatches++;
-                }
-            }
-            
-            log.info("Imported {} matches from {} ({} skipped)", importedMatches, fileName, skippedMatches);
-            return importedMatches;
-            
-        } catch (Exception e) {
-            log.error("Error importing matches from {}", fileName, e);
+    private int importMatches(List<SeedMatch> matches, String fileName, Map<String, Long> teamIds,
+                              boolean allowPlaceholders) {
+        if (matches.isEmpty()) {
+            log.warn("{} not found, empty or has no matches", fileName);
             return 0;
         }
+
+        DateTimeFormatter formatter = DateTimeFormatter.ISO_DATE_TIME;
+        List<Object[]> rows = new ArrayList<>();
+        for (SeedMatch match : matches) {
+            Object[] row = toMatchRow(match, teamIds, formatter, allowPlaceholders);
+            if (row != null) {
+                rows.add(row);
+            }
+        }
+
+        batchInsert("INSERT INTO matches (date, city, stadium, phase, group_letter, home_team_id, away_team_id, " +
+                "home_score, away_score) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+        log.info("Imported {} matches from {} ({} skipped)", rows.size(), fileName, matches.size() - rows.size());
+        return rows.size();
+    }
+
+    private void batchInsert(String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(from + BATCH_SIZE, rows.size())));
+        }
     }
     
     /**
-     * Importa un partido individual desde el JSON procesado
-     * @param matchData datos del partido
+     * Convierte un partido del JSON en la fila a insertar
+     * @param match datos del partido
+     * @param teamIds ids de los equipos por nombre
      * @param formatter formateador de fecha
      * @param allowPlaceholders si true, permite equipos "Por definir"
+     * @return los valores de la fila, o null si el partido se saltea
      */
-    private boolean importMatch(Map<String, Object> matchData, DateTimeFormatter formatter, boolean allowPlaceholders) {
+    private Object[] toMatchRow(SeedMatch match, Map<String, Long> teamIds, DateTimeFormatter formatter,
+                                boolean allowPlaceholders) {
+        String homeTeamName = match.homeTeam();
+        String awayTeamName = match.awayTeam();
+
+        // Validar nombres de equipos
+        if (homeTeamName == null || awayTeamName == null || homeTeamName.isEmpty() || awayTeamName.isEmpty()) {
+            return null;
+        }
+
+        // Si no se permiten placeholders, saltar partidos con "Por definir"
+        if (!allowPlaceholders
+                && (Team.PLACEHOLDER_NAME.equals(homeTeamName) || Team.PLACEHOLDER_NAME.equals(awayTeamName))) {
+            return null;
+        }
+
+        Long homeTeamId = teamIds.get(homeTeamName);
+        if (homeTeamId == null) {
+            log.warn("Team not found: {}, skipping match", homeTeamName);
+            return null;
+        }
+        Long awayTeamId = teamIds.get(awayTeamName);
+        if (awayTeamId == null) {
+            log.warn("Team not found: {}, skipping match", awayTeamName);
+            return null;
+        }
+
+        // Parsear fecha
+        if (match.date() == null || match.date().isEmpty()) {
+            log.warn("Match date is missing, skipping match");
+            return null;
+        }
+        LocalDateTime matchDate;
         try {
-            // Obtener nombres de equipos
-            String homeTeamName = (String) matchData.get("homeTeam");
-            String awayTeamName = (String) matchData.get("awayTeam");
-            
-            // Validar nombres de equipos
-            if (homeTeamName == null || awayTeamName == null || homeTeamName.isEmpty() || awayTeamName.isEmpty()) {
-                return false;
-            }
-            
-            // Si no se permiten placeholders, saltar partidos con "Por definir"
-            if (!allowPlaceholders && ("Por definir".equals(homeTeamName) || "Por definir".equals(awayTeamName))) {
-                return false;
-            }
-            
-            // Buscar equipos en la base de datos
-            Team homeTeam = teamRepository.findByName(homeTeamName)
-                .orElse(null);
-            Team awayTeam = teamRepository.findByName(awayTeamName)
-                .orElse(null);
-            
-            // Si no se encuentran los equipos, crear un log de advertencia pero continuar
-            if (homeTeam == null) {
-                if (allowPlaceholders && "Por definir".equals(homeTeamName)) {
-                    // El equipo placeholder debería existir ya (creado en createPlaceholderTeam)
-                    homeTeam = teamRepository.findByName("Por definir").orElse(null);
-                }
-                if (homeTeam == null) {
-                    log.warn("Team not found: {}, skipping match", homeTeamName);
-                    return false;
-                }
-            }
-            
-            if (awayTeam == null) {
-                if (allowPlaceholders && "Por definir".equals(awayTeamName)) {
-                    // El equipo placeholder debería existir ya (creado en createPlaceholderTeam)
-                    awayTeam = teamRepository.findByName("Por definir").orElse(null);
-                }
-                if (awayTeam == null) {
-                    log.warn("Team not found: {}, skipping match", awayTeamName);
-                    return false;
-                }
-            }
-            
-            // Parsear fecha
-            String dateStr = (String) matchData.get("date");
-            if (dateStr == null || dateStr.isEmpty()) {
-                log.warn("Match date is missing, skipping match");
-                return false;
-            }
-            
-            LocalDateTime matchDate;
-            try {
-                matchDate = LocalDateTime.parse(dateStr, formatter);
-            } catch (Exception e) {
-                log.warn("Could not parse date for match: {}", dateStr, e);
-                return false;
-            }
-            
-            // Obtener información del partido
-            String city = (String) matchData.get("city");
-            if (city == null || city.isEmpty()) {
-                city = "Ciudad no especificada";
-            }
-            
-            String stadium = (String) matchData.get("stadium");
-            if (stadium == null || stadium.isEmpty()) {
-                stadium = "Estadio no especificado";
-            }
-            
-            // Obtener fase
-            String phaseStr = (String) matchData.get("phase");
-            Phase phase;
-            try {
-                phase = Phase.valueOf(phaseStr != null ? phaseStr.toUpperCase() : "GROUP");
-            } catch (IllegalArgumentException e) {
-                log.warn("Invalid phase: {}, using GROUP", phaseStr);
-                phase = Phase.GROUP;
-            }
-            
-            // Obtener grupo (opcional)
-            String group = (String) matchData.get("group");
-            
-            // Obtener scores (pueden ser null)
-            Integer homeScore = null;
-            Integer awayScore = null;
-            Object homeScoreObj = matchData.get("homeScore");
-            Object awayScoreObj = matchData.get("awayScore");
-            
-            if (homeScoreObj != null) {
-                if (homeScoreObj instanceof Integer) {
-                    homeScore = (Integer) homeScoreObj;
-                } else if (homeScoreObj instanceof Number) {
-                    homeScore = ((Number) homeScoreObj).intValue();
-                }
-            }
-            
-            if (awayScoreObj != null) {
-                if (awayScoreObj instanceof Integer) {
-                    awayScore = (Integer) awayScoreObj;
-                } else if (awayScoreObj instanceof Number) {
-                    awayScore = ((Number) awayScoreObj).intValue();
-                }
-            }
-            
-            // Crear el partido
-            Match match = Match.builder()
-                .date(matchDate)
-                .city(city)
-                .stadium(stadium)
-                .phase(phase)
-                .group(group)
-                .homeTeam(homeTeam)
-                .awayTeam(awayTeam)
-                .homeScore(homeScore)
-                .awayScore(awayScore)
-                .build();
-            
-            matchRepository.save(match);
-            return true;
-            
+            matchDate = LocalDateTime.parse(match.date(), formatter);
         } catch (Exception e) {
-            log.error("Error importing match: {}", e.getMessage(), e);
-            return false;
+            log.warn("Could not parse date for match: {}", match.date(), e);
+            return null;
         }
+
+        String city = match.city() == null || match.city().isEmpty() ? "Ciudad no especificada" : match.city();
+        String stadium = match.stadium() == null || match.stadium().isEmpty() ? "Estadio no especificado" : match.stadium();
+
+        Phase phase;
+        try {
+            phase = Phase.valueOf(match.phase() != null ? match.phase().toUpperCase() : "GROUP");
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid phase: {}, using GROUP", match.phase());
+            phase = Phase.GROUP;
+        }
+
+        return new Object[]{matchDate, city, stadium, phase.name(), match.group(), homeTeamId, awayTeamId,
+                match.homeScore(), match.awayScore()};
     }
 }
-
@@ -0,0 +1,180 @@
+package wc.prode._6.config;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import wc.prode._6.config.dto.SeedMatch;
+import wc.prode._6.config.dto.SeedTeam;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Datos fijos del torneo (equipos y calendario) tal como salen de team.json, matches_2026.json y knockout_2026.json.
+ * En el build se compilan a un binario compacto (tournament.snapshot) que el seeder lee de una sola vez sin parsear
+ * JSON. El checksum es el SHA-256 de los tres JSON y permite saber si la base ya tiene cargada esta versión.
+ */
+public record TournamentSnapshot(String checksum,
+                                 List<SeedTeam> teams,
+                                 List<SeedMatch> groupMatches,
+                                 List<SeedMatch> knockoutMatches) {
+
+    public static final String RESOURCE = "tournament.snapshot";
+    public static final String TEAMS_FILE = "team.json";
+    public static final String GROUP_MATCHES_FILE = "matches_2026.json";
+    public static final String KNOCKOUT_MATCHES_FILE = "knockout_2026.json";
+
+    private static final int MAGIC = 0x57435331; // "WCS1"
+
+    /**
+     * Abre un archivo fuente por nombre; devuelve null si no existe
+     */
+    @FunctionalInterface
+    public interface SourceOpener {
+        InputStream open(String fileName) throws IOException;
+    }
+
+    /**
+     * Arma la foto desde los JSON, recorriéndolos con el parser de streaming.
+     * Un archivo faltante se toma como lista vacía (y el seeder usa sus datos por defecto).
+     */
+    public static TournamentSnapshot fromJson(ObjectMapper objectMapper, SourceOpener opener) throws IOException {
+        MessageDigest digest = sha256();
+        byte[] teams = readSource(opener, TEAMS_FILE, digest);
+        byte[] groupMatches = readSource(opener, GROUP_MATCHES_FILE, digest);
+        byte[] knockoutMatches = readSource(opener, KNOCKOUT_MATCHES_FILE, digest);
+
+        return new TournamentSnapshot(HexFormat.of().formatHex(digest.digest()),
+                readArray(objectMapper, teams, SeedTeam.class, TEAMS_FILE),
+                readArray(objectMapper, groupMatches, SeedMatch.class, GROUP_MATCHES_FILE),
+                readArray(objectMapper, knockoutMatches, SeedMatch.class, KNOCKOUT_MATCHES_FILE));
+    }
+
+    public byte[] encode() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeUTF(checksum);
+            out.writeInt(teams.size());
+            for (SeedTeam team : teams) {
+                writeNullable(out, team.name());
+                writeNullable(out, team.flagUrl());
+            }
+            writeMatches(out, groupMatches);
+            writeMatches(out, knockoutMatches);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static TournamentSnapshot decode(byte[] data) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a tournament snapshot");
+            }
+            String checksum = in.readUTF();
+            int teamCount = in.readInt();
+            List<SeedTeam> teams = new ArrayList<>(teamCount);
+            for (int i = 0; i < teamCount; i++) {
+                teams.add(new SeedTeam(readNullable(in), readNullable(in)));
+            }
+            return new TournamentSnapshot(checksum, teams, readMatches(in), readMatches(in));
+        }
+    }
+
+    /**
+     * Recorre un array JSON con el parser de streaming, convirtiendo cada elemento al tipo indicado
+     * sin armar el árbol completo del archivo
+     */
+    static <T> List<T> readArray(ObjectMapper objectMapper, byte[] json, Class<T> type, String fileName)
+            throws IOException {
+        List<T> items = new ArrayList<>();
+        if (json == null || json.length == 0) {
+            return items;
+        }
+        try (JsonParser parser = objectMapper.getFactory().createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException(fileName + " must contain a JSON array");
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                items.add(objectMapper.readValue(parser, type));
+            }
+        }
+        return items;
+    }
+
+    private static byte[] readSource(SourceOpener opener, String fileName, MessageDigest digest) throws IOException {
+        try (InputStream inputStream = opener.open(fileName)) {
+            if (inputStream == null) {
+                return null;
+            }
+            byte[] content = inputStream.readAllBytes();
+            digest.update(fileName.getBytes());
+            digest.update(content);
+            return content;
+        }
+    }
+
+    private static void writeMatches(DataOutputStream out, List<SeedMatch> matches) throws IOException {
+        out.writeInt(matches.size());
+        for (SeedMatch match : matches) {
+            writeNullable(out, match.date());
+            writeNullable(out, match.city());
+            writeNullable(out, match.stadium());
+            writeNullable(out, match.phase());
+            writeNullable(out, match.group());
+            writeNullable(out, match.homeTeam());
+            writeNullable(out, match.awayTeam());
+            writeNullable(out, match.homeScore());
+            writeNullable(out, match.awayScore());
+        }
+    }
+
+    private static List<SeedMatch> readMatches(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        List<SeedMatch> matches = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            matches.add(new SeedMatch(readNullable(in), readNullable(in), readNullable(in), readNullable(in),
+                    readNullable(in), readNullable(in), readNullable(in), readNullableInt(in), readNullableInt(in)));
+        }
+        return matches;
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static void writeNullable(DataOutputStream out, Integer value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeInt(value);
+        }
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static Integer readNullableInt(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readInt() : null;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
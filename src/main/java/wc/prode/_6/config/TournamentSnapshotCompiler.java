@@ -0,0 +1,36 @@
+package wc.prode._6.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Paso del build (exec-maven-plugin, fase process-classes): compila los JSON del torneo a tournament.snapshot.
+ * Argumentos: directorio con los JSON y archivo de salida.
+ */
+public final class TournamentSnapshotCompiler {
+
+    private TournamentSnapshotCompiler() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: TournamentSnapshotCompiler <resources-dir> <output-file>");
+        }
+        Path sourceDir = Path.of(args[0]);
+        Path output = Path.of(args[1]);
+
+        TournamentSnapshot snapshot = TournamentSnapshot.fromJson(new ObjectMapper(), fileName -> {
+            Path source = sourceDir.resolve(fileName);
+            return Files.exists(source) ? Files.newInputStream(source) : null;
+        });
+        Files.createDirectories(output.toAbsolutePath().getParent());
+        Files.write(output, snapshot.encode());
+
+        System.out.printf("Tournament snapshot %s: %d teams, %d group matches, %d knockout matches (%s)%n",
+                output.getFileName(), snapshot.teams().size(), snapshot.groupMatches().size(),
+                snapshot.knockoutMatches().size(), snapshot.checksum());
+    }
+}
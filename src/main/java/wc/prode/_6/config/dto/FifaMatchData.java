@@ -114,6 +114,9 @@ public class FifaMatchData {
         @JsonProperty("MatchNumber")
         private Integer matchNumber;
         
+        @JsonProperty("MatchStatus")
+        private Integer matchStatus;
+        
         @JsonProperty("PlaceHolderA")
         private String placeHolderA;
         
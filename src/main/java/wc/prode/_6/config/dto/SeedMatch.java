@@ -0,0 +1,18 @@
+package wc.prode._6.config.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * Partido tal como figura en matches_2026.json y knockout_2026.json
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record SeedMatch(String date,
+                        String city,
+                        String stadium,
+                        String phase,
+                        String group,
+                        String homeTeam,
+                        String awayTeam,
+                        Integer homeScore,
+                        Integer awayScore) {
+}
@@ -0,0 +1,10 @@
+package wc.prode._6.config.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * Equipo tal como figura en team.json
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record SeedTeam(String name, String flagUrl) {
+}
@@ -0,0 +1,13 @@
+package wc.prode._6.consensus;
+
+/**
+ * Cantidad de apuestas de cada resultado sobre un partido
+ */
+public record ConsensusCounts(long homeWin, long draw, long awayWin) {
+
+    public static final ConsensusCounts EMPTY = new ConsensusCounts(0, 0, 0);
+
+    public long total() {
+        return homeWin + draw + awayWin;
+    }
+}
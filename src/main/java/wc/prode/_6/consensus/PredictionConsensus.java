@@ -0,0 +1,185 @@
+package wc.prode._6.consensus;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import wc.prode._6.entity.PredictedResult;
+import wc.prode._6.event.PredictionChangedEvent;
+import wc.prode._6.ranking.GroupRankingIndex;
+import wc.prode._6.repository.UserMatchResultRepository;
+import wc.prode._6.repository.projection.PredictionCountRow;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * Consenso de apuestas por partido dentro de cada grupo (cuántos miembros apostaron cada resultado); el consenso
+ * global sale de los contadores de PredictionMatrix, que ya se mantienen con las mismas apuestas.
+ * Los contadores se mantienen en memoria con cada alta, modificación o baja de una apuesta, en un
+ * AtomicLongArray por grupo y partido, que alcanza para la concurrencia de un grupo. Las consultas no tocan la base.
+ * Al iniciar y cada consensus.reconcile-interval-ms se recalculan con un GROUP BY sobre user_match_results
+ * y se corrige la diferencia sobre los mismos contadores (por ejemplo, apuestas de un usuario que cambió de grupo).
+ * Los contadores nunca se reemplazan, así que ninguna apuesta que llegue durante la conciliación se pierde: los
+ * partidos que cambiaron desde que empezó la consulta (que puede incluir o no esas apuestas) se dejan como están
+ * hasta la próxima conciliación.
+ */
+@Component
+@Slf4j
+public class PredictionConsensus {
+
+    private static final int OUTCOMES = PredictedResult.values().length;
+
+    private final UserMatchResultRepository userMatchResultRepository;
+    private final GroupRankingIndex groupRankingIndex;
+    // Instante (System.nanoTime) del último cambio de cada partido: LongAccumulator de máximo, repartido en celdas
+    private final Map<Long, LongAccumulator> lastChanges = new ConcurrentHashMap<>();
+    private final Map<GroupMatch, AtomicLongArray> groups = new ConcurrentHashMap<>();
+
+    public PredictionConsensus(UserMatchResultRepository userMatchResultRepository,
+                               GroupRankingIndex groupRankingIndex) {
+        this.userMatchResultRepository = userMatchResultRepository;
+        this.groupRankingIndex = groupRankingIndex;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${consensus.reconcile-interval-ms:600000}",
+            initialDelayString = "${consensus.reconcile-interval-ms:600000}")
+    public synchronized void reconcile() {
+        long start = System.currentTimeMillis();
+        // Marca tomada antes de la consulta: un partido con cambios posteriores no se corrige en esta pasada
+        long since = System.nanoTime();
+        Map<Long, Map<GroupMatch, long[]>> expected = new HashMap<>();
+        for (PredictionCountRow row : userMatchResultRepository.countPredictionsByGroupAndMatch()) {
+            if (row.getGroupId() != null) {
+                expected.computeIfAbsent(row.getMatchId(), id -> new HashMap<>())
+                        .computeIfAbsent(new GroupMatch(row.getGroupId(), row.getMatchId()),
+                                key -> new long[OUTCOMES])[row.getPredictedResult().ordinal()] += row.getTotal();
+            }
+        }
+        Map<Long, Set<GroupMatch>> keysByMatch = new HashMap<>();
+        for (GroupMatch key : groups.keySet()) {
+            keysByMatch.computeIfAbsent(key.matchId(), id -> new HashSet<>()).add(key);
+        }
+        expected.forEach((matchId, counts) ->
+                keysByMatch.computeIfAbsent(matchId, id -> new HashSet<>()).addAll(counts.keySet()));
+
+        int corrected = 0;
+        int deferred = 0;
+        for (Map.Entry<Long, Set<GroupMatch>> match : keysByMatch.entrySet()) {
+            int differences = correct(match.getKey(), since,
+                    expected.getOrDefault(match.getKey(), Map.of()), match.getValue());
+            if (differences < 0) {
+                deferred++;
+            } else {
+                corrected += differences;
+            }
+        }
+        if (corrected > 0) {
+            log.info("Prediction consensus reconciled in {} ms: {} counters corrected, {} busy matches deferred",
+                    System.currentTimeMillis() - start, corrected, deferred);
+        } else {
+            log.debug("Prediction consensus reconciled in {} ms: no drift, {} busy matches deferred",
+                    System.currentTimeMillis() - start, deferred);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPredictionChanged(PredictionChangedEvent event) {
+        if (event.predictedResult() == event.previousResult()) {
+            return;
+        }
+        Long groupId = groupRankingIndex.getGroupId(event.userId()).orElse(null);
+        if (groupId == null) {
+            return;
+        }
+        // Primero la marca: si la conciliación ve el cambio en los contadores, también ve la marca
+        touch(event.matchId());
+        AtomicLongArray counts = groups.computeIfAbsent(new GroupMatch(groupId, event.matchId()),
+                key -> new AtomicLongArray(OUTCOMES));
+        if (event.previousResult() != null) {
+            counts.addAndGet(event.previousResult().ordinal(), -1);
+        }
+        if (event.predictedResult() != null) {
+            counts.addAndGet(event.predictedResult().ordinal(), 1);
+        }
+    }
+
+    public ConsensusCounts getGroup(Long groupId, Long matchId) {
+        AtomicLongArray counts = groups.get(new GroupMatch(groupId, matchId));
+        if (counts == null) {
+            return ConsensusCounts.EMPTY;
+        }
+        return new ConsensusCounts(counts.get(PredictedResult.HOME_WIN.ordinal()),
+                counts.get(PredictedResult.DRAW.ordinal()),
+                counts.get(PredictedResult.AWAY_WIN.ordinal()));
+    }
+
+    /**
+     * Lleva los contadores de grupo del partido a los valores esperados sumándoles la diferencia. Si el partido
+     * cambió desde since (antes de corregir o mientras se corregía) deshace la corrección y devuelve -1; si no,
+     * devuelve la cantidad de contadores corregidos.
+     */
+    private int correct(Long matchId, long since, Map<GroupMatch, long[]> expected, Set<GroupMatch> keys) {
+        if (changedSince(matchId, since)) {
+            return -1;
+        }
+        Map<GroupMatch, long[]> diffs = new HashMap<>();
+        int differences = 0;
+        for (GroupMatch key : keys) {
+            AtomicLongArray counts = groups.get(key);
+            long[] diff = new long[OUTCOMES];
+            for (int outcome = 0; outcome < OUTCOMES; outcome++) {
+                diff[outcome] = value(expected.get(key), outcome) - (counts == null ? 0 : counts.get(outcome));
+                differences += diff[outcome] != 0 ? 1 : 0;
+            }
+            diffs.put(key, diff);
+        }
+        if (differences == 0) {
+            return 0;
+        }
+
+        apply(diffs, 1);
+        if (changedSince(matchId, since)) {
+            // Un cambio concurrente pudo quedar dentro de la diferencia: se vuelve atrás y se corrige la próxima vez
+            apply(diffs, -1);
+            return -1;
+        }
+        return differences;
+    }
+
+    private void apply(Map<GroupMatch, long[]> diffs, int sign) {
+        diffs.forEach((key, diff) -> {
+            AtomicLongArray counts = groups.computeIfAbsent(key, k -> new AtomicLongArray(OUTCOMES));
+            for (int outcome = 0; outcome < OUTCOMES; outcome++) {
+                if (diff[outcome] != 0) {
+                    counts.addAndGet(outcome, sign * diff[outcome]);
+                }
+            }
+        });
+    }
+
+    private void touch(Long matchId) {
+        lastChanges.computeIfAbsent(matchId, id -> new LongAccumulator(Math::max, Long.MIN_VALUE))
+                .accumulate(System.nanoTime());
+    }
+
+    private boolean changedSince(Long matchId, long since) {
+        LongAccumulator lastChange = lastChanges.get(matchId);
+        return lastChange != null && lastChange.get() - since >= 0;
+    }
+
+    private static long value(long[] counts, int outcome) {
+        return counts == null ? 0 : counts[outcome];
+    }
+
+    private record GroupMatch(Long groupId, Long matchId) {
+    }
+}
@@ -0,0 +1,44 @@
+package wc.prode._6.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import wc.prode._6.dto.response.ApiResponse;
+import wc.prode._6.dto.response.LeaderboardPositionResponse;
+import wc.prode._6.dto.response.PublicRankingEntryResponse;
+import wc.prode._6.service.LeaderboardService;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/leaderboard")
+@RequiredArgsConstructor
+public class LeaderboardController {
+
+    private final LeaderboardService leaderboardService;
+
+    @GetMapping
+    public ResponseEntity<ApiResponse<List<PublicRankingEntryResponse>>> getTop(
+            @RequestParam(defaultValue = "10") int limit) {
+        List<PublicRankingEntryResponse> top = leaderboardService.getTop(limit);
+        ApiResponse<List<PublicRankingEntryResponse>> response = ApiResponse.<List<PublicRankingEntryResponse>>builder()
+                .success(true)
+                .message("Leaderboard retrieved successfully")
+                .data(top)
+                .build();
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/me")
+    public ResponseEntity<ApiResponse<LeaderboardPositionResponse>> getMyPosition(Authentication authentication) {
+        String userEmail = authentication.getName();
+        LeaderboardPositionResponse position = leaderboardService.getMyPosition(userEmail);
+        ApiResponse<LeaderboardPositionResponse> response = ApiResponse.<LeaderboardPositionResponse>builder()
+                .success(true)
+                .message("Leaderboard position retrieved successfully")
+                .data(position)
+                .build();
+        return ResponseEntity.ok(response);
+    }
+}
@@ -0,0 +1,25 @@
+package wc.prode._6.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import wc.prode._6.service.LiveUpdateService;
+
+@RestController
+@RequestMapping("/live")
+@RequiredArgsConstructor
+public class LiveController {
+
+    private final LiveUpdateService liveUpdateService;
+
+    /**
+     * Server-Sent Events: "match" con cada partido cuyo resultado cambia y "ranking" con los cambios
+     * de posiciones del grupo del usuario
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(Authentication authentication) {
+        return liveUpdateService.subscribe(authentication.getName());
+    }
+}
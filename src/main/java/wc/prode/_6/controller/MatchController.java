@@ -1,16 +1,30 @@
 package wc.prode._6.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import wc.prode._6.catalog.MatchCatalogResponseCache;
+import wc.prode._6.dto.request.FinalizeLiveMatchesRequest;
+import wc.prode._6.dto.request.MatchOddsRequest;
 import wc.prode._6.dto.request.UpdateMatchResultRequest;
 import wc.prode._6.dto.response.ApiResponse;
+import wc.prode._6.dto.response.LiveScoreResponse;
+import wc.prode._6.dto.response.MatchConsensusResponse;
+import wc.prode._6.dto.response.MatchOddsResponse;
+import wc.prode._6.dto.response.MatchPredictionStatsResponse;
 import wc.prode._6.dto.response.MatchResponse;
+import wc.prode._6.dto.response.ScheduleSyncResponse;
 import wc.prode._6.entity.Phase;
 import wc.prode._6.service.MatchService;
+import wc.prode._6.service.ScheduleSyncService;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -19,41 +33,77 @@ import java.util.List;
 public class MatchController {
 
     private final MatchService matchService;
+    private final MatchCatalogResponseCache matchCatalogResponseCache;
+    private final ScheduleSyncService scheduleSyncService;
 
     @GetMapping
-    public ResponseEntity<ApiResponse<List<MatchResponse>>> getAllMatches() {
-        List<MatchResponse> matches = matchService.getAllMatches();
-        ApiResponse<List<MatchResponse>> response = ApiResponse.<List<MatchResponse>>builder()
+    public ResponseEntity<byte[]> getAllMatches(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return matchCatalogResponseCache.getAll().toResponseEntity(ifNoneMatch, acceptEncoding);
+    }
+
+    @GetMapping("/live")
+    public ResponseEntity<ApiResponse<List<LiveScoreResponse>>> getLiveScores() {
+        List<LiveScoreResponse> scores = matchService.getLiveScores();
+        ApiResponse<List<LiveScoreResponse>> response = ApiResponse.<List<LiveScoreResponse>>builder()
                 .success(true)
-                .message("Matches retrieved successfully")
-                .data(matches)
+                .message("Live scores retrieved successfully")
+                .data(scores)
                 .build();
         return ResponseEntity.ok(response);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<MatchResponse>> getMatchById(@PathVariable Long id) {
-        MatchResponse match = matchService.getMatchById(id);
-        ApiResponse<MatchResponse> response = ApiResponse.<MatchResponse>builder()
+    public ResponseEntity<byte[]> getMatchById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return matchCatalogResponseCache.getById(id).toResponseEntity(ifNoneMatch, acceptEncoding);
+    }
+
+    @GetMapping("/{id}/predictions/consensus")
+    public ResponseEntity<ApiResponse<MatchConsensusResponse>> getPredictionConsensus(
+            @PathVariable Long id,
+            Authentication authentication) {
+        String userEmail = authentication != null ? authentication.getName() : null;
+        MatchConsensusResponse consensus = matchService.getPredictionConsensus(id, userEmail);
+        ApiResponse<MatchConsensusResponse> response = ApiResponse.<MatchConsensusResponse>builder()
                 .success(true)
-                .message("Match retrieved successfully")
-                .data(match)
+                .message("Match prediction consensus retrieved successfully")
+                .data(consensus)
                 .build();
         return ResponseEntity.ok(response);
     }
 
-    @GetMapping("/phase/{phase}")
-    public ResponseEntity<ApiResponse<List<MatchResponse>>> getMatchesByPhase(@PathVariable String phase) {
-        Phase phaseEnum = Phase.valueOf(phase.toUpperCase());
-        List<MatchResponse> matches = matchService.getMatchesByPhase(phaseEnum);
-        ApiResponse<List<MatchResponse>> response = ApiResponse.<List<MatchResponse>>builder()
+    @GetMapping("/{id}/predictions/stats")
+    public ResponseEntity<ApiResponse<MatchPredictionStatsResponse>> getPredictionStats(@PathVariable Long id) {
+        MatchPredictionStatsResponse stats = matchService.getPredictionStats(id);
+        ApiResponse<MatchPredictionStatsResponse> response = ApiResponse.<MatchPredictionStatsResponse>builder()
                 .success(true)
-                .message("Matches retrieved successfully")
-                .data(matches)
+                .message("Match prediction stats retrieved successfully")
+                .data(stats)
                 .build();
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/phase/{phase}")
+    public ResponseEntity<byte[]> getMatchesByPhase(
+            @PathVariable String phase,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        Phase phaseEnum = Phase.valueOf(phase.toUpperCase());
+        return matchCatalogResponseCache.getByPhase(phaseEnum).toResponseEntity(ifNoneMatch, acceptEncoding);
+    }
+
+    @GetMapping("/group/{group}")
+    public ResponseEntity<byte[]> getMatchesByGroup(
+            @PathVariable String group,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return matchCatalogResponseCache.getByGroup(group).toResponseEntity(ifNoneMatch, acceptEncoding);
+    }
+
     @PutMapping("/{id}/result")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<ApiResponse<MatchResponse>> updateMatchResult(
@@ -62,10 +112,78 @@ public class MatchController {
         MatchResponse match = matchService.updateMatchResult(id, request);
         ApiResponse<MatchResponse> response = ApiResponse.<MatchResponse>builder()
                 .success(true)
-                .message("Match result updated successfully. Points have been recalculated.")
+                .message("Match result updated successfully. Points recalculation has been queued.")
+                .data(match)
+                .build();
+        return ResponseEntity.ok(response);
+    }
+
+    @DeleteMapping("/{id}/result")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<MatchResponse>> clearMatchResult(@PathVariable Long id) {
+        MatchResponse match = matchService.clearMatchResult(id);
+        ApiResponse<MatchResponse> response = ApiResponse.<MatchResponse>builder()
+                .success(true)
+                .message("Match result cleared successfully. Points recalculation has been queued.")
                 .data(match)
                 .build();
         return ResponseEntity.ok(response);
     }
-}
 
+    @PutMapping("/{id}/live-score")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<LiveScoreResponse>> updateLiveScore(
+            @PathVariable Long id,
+            @Valid @RequestBody UpdateMatchResultRequest request) {
+        LiveScoreResponse score = matchService.updateLiveScore(id, request);
+        ApiResponse<LiveScoreResponse> response = ApiResponse.<LiveScoreResponse>builder()
+                .success(true)
+                .message("Live score updated successfully")
+                .data(score)
+                .build();
+        return ResponseEntity.ok(response);
+    }
+
+    @PutMapping("/{id}/odds")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<MatchOddsResponse>> updateMatchOdds(
+            @PathVariable Long id,
+            @Valid @RequestBody MatchOddsRequest request) {
+        MatchOddsResponse odds = matchService.updateMatchOdds(id, request);
+        ApiResponse<MatchOddsResponse> response = ApiResponse.<MatchOddsResponse>builder()
+                .success(true)
+                .message("Match odds updated successfully")
+                .data(odds)
+                .build();
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/live/finalize")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<List<MatchResponse>>> finalizeLiveMatches(
+            @RequestBody(required = false) FinalizeLiveMatchesRequest request) {
+        List<MatchResponse> matches = matchService.finalizeLiveMatches(request);
+        ApiResponse<List<MatchResponse>> response = ApiResponse.<List<MatchResponse>>builder()
+                .success(true)
+                .message("Live matches finalized successfully. Points recalculation has been queued.")
+                .data(matches)
+                .build();
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Sincroniza el calendario con un archivo del feed de FIFA enviado como cuerpo (se lee en streaming)
+     */
+    @PostMapping(value = "/schedule/sync", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<ScheduleSyncResponse>> syncSchedule(HttpServletRequest request)
+            throws IOException {
+        ScheduleSyncResponse result = scheduleSyncService.syncSchedule(request.getInputStream());
+        ApiResponse<ScheduleSyncResponse> response = ApiResponse.<ScheduleSyncResponse>builder()
+                .success(true)
+                .message("Schedule synchronized successfully")
+                .data(result)
+                .build();
+        return ResponseEntity.ok(response);
+    }
+}
@@ -0,0 +1,58 @@
+package wc.prode._6.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import wc.prode._6.dto.response.ApiResponse;
+import wc.prode._6.dto.response.PointsRecalculationResponse;
+import wc.prode._6.dto.response.PointsRecalculationRunResponse;
+import wc.prode._6.service.PointsService;
+
+@RestController
+@RequestMapping("/points")
+@RequiredArgsConstructor
+public class PointsController {
+
+    private final PointsService pointsService;
+
+    @PostMapping("/recalculate")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<PointsRecalculationResponse>> recalculateAllPoints(
+            @RequestParam(defaultValue = "false") boolean dryRun) {
+        PointsRecalculationResponse result = pointsService.recalculateAllPoints(dryRun);
+        ApiResponse<PointsRecalculationResponse> response = ApiResponse.<PointsRecalculationResponse>builder()
+                .success(true)
+                .message(dryRun ? "Points recalculation simulated successfully" : "Points recalculated successfully")
+                .data(result)
+                .build();
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/recalculate/partitioned")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<PointsRecalculationRunResponse>> startPartitionedRecalculation(
+            @RequestParam(required = false) Integer partitionSize,
+            @RequestParam(defaultValue = "false") boolean resume) {
+        PointsRecalculationRunResponse run = pointsService.startPartitionedRecalculation(partitionSize, resume);
+        ApiResponse<PointsRecalculationRunResponse> response = ApiResponse.<PointsRecalculationRunResponse>builder()
+                .success(true)
+                .message("Points recalculation started")
+                .data(run)
+                .build();
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+
+    @GetMapping("/recalculate/runs/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<PointsRecalculationRunResponse>> getRecalculationRun(@PathVariable Long id) {
+        PointsRecalculationRunResponse run = pointsService.getRecalculationRun(id);
+        ApiResponse<PointsRecalculationRunResponse> response = ApiResponse.<PointsRecalculationRunResponse>builder()
+                .success(true)
+                .message("Points recalculation run retrieved successfully")
+                .data(run)
+                .build();
+        return ResponseEntity.ok(response);
+    }
+}
@@ -6,10 +6,15 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import wc.prode._6.dto.request.JoinGroupRequest;
+import wc.prode._6.dto.request.WhatIfRequest;
 import wc.prode._6.dto.response.ApiResponse;
+import wc.prode._6.dto.response.GroupOddsResponse;
 import wc.prode._6.dto.response.ProdeGroupResponse;
+import wc.prode._6.dto.response.ProvisionalRankingEntryResponse;
 import wc.prode._6.dto.response.RankingEntryResponse;
+import wc.prode._6.dto.response.RankingPageResponse;
 import wc.prode._6.service.ProdeGroupService;
+import wc.prode._6.simulation.OutcomeModel;
 
 import java.util.List;
 
@@ -46,5 +51,104 @@ public class ProdeGroupController {
                 .build();
         return ResponseEntity.ok(apiResponse);
     }
-}
 
+    @GetMapping("/ranking/live")
+    public ResponseEntity<ApiResponse<List<ProvisionalRankingEntryResponse>>> getProvisionalGroupRanking(
+            Authentication authentication) {
+        String userEmail = authentication.getName();
+        List<ProvisionalRankingEntryResponse> ranking = prodeGroupService.getProvisionalGroupRanking(userEmail);
+        ApiResponse<List<ProvisionalRankingEntryResponse>> apiResponse =
+                ApiResponse.<List<ProvisionalRankingEntryResponse>>builder()
+                        .success(true)
+                        .message("Provisional ranking retrieved successfully")
+                        .data(ranking)
+                        .build();
+        return ResponseEntity.ok(apiResponse);
+    }
+
+    @PostMapping("/ranking/what-if")
+    public ResponseEntity<ApiResponse<List<ProvisionalRankingEntryResponse>>> simulateGroupRanking(
+            @Valid @RequestBody WhatIfRequest request,
+            Authentication authentication) {
+        String userEmail = authentication.getName();
+        List<ProvisionalRankingEntryResponse> ranking = prodeGroupService.simulateGroupRanking(userEmail, request);
+        ApiResponse<List<ProvisionalRankingEntryResponse>> apiResponse =
+                ApiResponse.<List<ProvisionalRankingEntryResponse>>builder()
+                        .success(true)
+                        .message("Simulated ranking retrieved successfully")
+                        .data(ranking)
+                        .build();
+        return ResponseEntity.ok(apiResponse);
+    }
+
+    @GetMapping("/ranking/odds")
+    public ResponseEntity<ApiResponse<GroupOddsResponse>> getGroupOdds(
+            @RequestParam(defaultValue = "MARKET") OutcomeModel model,
+            Authentication authentication) {
+        String userEmail = authentication.getName();
+        GroupOddsResponse odds = prodeGroupService.getGroupOdds(userEmail, model);
+        ApiResponse<GroupOddsResponse> apiResponse = ApiResponse.<GroupOddsResponse>builder()
+                .success(true)
+                .message("Group odds retrieved successfully")
+                .data(odds)
+                .build();
+        return ResponseEntity.ok(apiResponse);
+    }
+
+    @GetMapping("/ranking/page")
+    public ResponseEntity<ApiResponse<RankingPageResponse>> getGroupRankingPage(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String before,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(defaultValue = "false") boolean aroundMe,
+            Authentication authentication) {
+        String userEmail = authentication.getName();
+        RankingPageResponse page = prodeGroupService.getGroupRankingPage(userEmail, after, before, size, aroundMe);
+        ApiResponse<RankingPageResponse> apiResponse = ApiResponse.<RankingPageResponse>builder()
+                .success(true)
+                .message("Ranking retrieved successfully")
+                .data(page)
+                .build();
+        return ResponseEntity.ok(apiResponse);
+    }
+
+    @GetMapping("/ranking/top")
+    public ResponseEntity<ApiResponse<List<RankingEntryResponse>>> getGroupRankingTop(
+            @RequestParam(defaultValue = "10") int limit,
+            Authentication authentication) {
+        String userEmail = authentication.getName();
+        List<RankingEntryResponse> ranking = prodeGroupService.getGroupRankingTop(userEmail, limit);
+        ApiResponse<List<RankingEntryResponse>> apiResponse = ApiResponse.<List<RankingEntryResponse>>builder()
+                .success(true)
+                .message("Ranking retrieved successfully")
+                .data(ranking)
+                .build();
+        return ResponseEntity.ok(apiResponse);
+    }
+
+    @GetMapping("/ranking/me")
+    public ResponseEntity<ApiResponse<RankingEntryResponse>> getMyRankingPosition(Authentication authentication) {
+        String userEmail = authentication.getName();
+        RankingEntryResponse position = prodeGroupService.getMyRankingPosition(userEmail);
+        ApiResponse<RankingEntryResponse> apiResponse = ApiResponse.<RankingEntryResponse>builder()
+                .success(true)
+                .message("Ranking position retrieved successfully")
+                .data(position)
+                .build();
+        return ResponseEntity.ok(apiResponse);
+    }
+
+    @GetMapping("/ranking/around-me")
+    public ResponseEntity<ApiResponse<List<RankingEntryResponse>>> getRankingAroundMe(
+            @RequestParam(defaultValue = "5") int radius,
+            Authentication authentication) {
+        String userEmail = authentication.getName();
+        List<RankingEntryResponse> ranking = prodeGroupService.getRankingAroundMe(userEmail, radius);
+        ApiResponse<List<RankingEntryResponse>> apiResponse = ApiResponse.<List<RankingEntryResponse>>builder()
+                .success(true)
+                .message("Ranking retrieved successfully")
+                .data(ranking)
+                .build();
+        return ResponseEntity.ok(apiResponse);
+    }
+}
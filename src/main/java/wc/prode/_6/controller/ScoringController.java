@@ -0,0 +1,43 @@
+package wc.prode._6.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import wc.prode._6.dto.response.ApiResponse;
+import wc.prode._6.dto.response.ScoringJobResponse;
+import wc.prode._6.service.ScoringService;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/scoring/jobs")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class ScoringController {
+
+    private final ScoringService scoringService;
+
+    @GetMapping
+    public ResponseEntity<ApiResponse<List<ScoringJobResponse>>> getRecentJobs(
+            @RequestParam(required = false) Long matchId) {
+        List<ScoringJobResponse> jobs = scoringService.getRecentJobs(matchId);
+        ApiResponse<List<ScoringJobResponse>> response = ApiResponse.<List<ScoringJobResponse>>builder()
+                .success(true)
+                .message("Scoring jobs retrieved successfully")
+                .data(jobs)
+                .build();
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ApiResponse<ScoringJobResponse>> getJob(@PathVariable Long id) {
+        ScoringJobResponse job = scoringService.getJob(id);
+        ApiResponse<ScoringJobResponse> response = ApiResponse.<ScoringJobResponse>builder()
+                .success(true)
+                .message("Scoring job retrieved successfully")
+                .data(job)
+                .build();
+        return ResponseEntity.ok(response);
+    }
+}
@@ -5,8 +5,10 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import wc.prode._6.dto.request.BatchUserMatchResultRequest;
 import wc.prode._6.dto.request.UserMatchResultRequest;
 import wc.prode._6.dto.response.ApiResponse;
+import wc.prode._6.dto.response.BatchPredictionResponse;
 import wc.prode._6.dto.response.UserMatchResultResponse;
 import wc.prode._6.service.UserMatchResultService;
 
@@ -47,6 +49,20 @@ public class UserMatchController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<ApiResponse<BatchPredictionResponse>> saveUserMatchResults(
+            @Valid @RequestBody BatchUserMatchResultRequest request,
+            Authentication authentication) {
+        String userEmail = authentication.getName();
+        BatchPredictionResponse result = userMatchResultService.saveUserMatchResults(userEmail, request.getPredictions());
+        ApiResponse<BatchPredictionResponse> response = ApiResponse.<BatchPredictionResponse>builder()
+                .success(true)
+                .message("User match results saved successfully")
+                .data(result)
+                .build();
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/{matchId}")
     public ResponseEntity<ApiResponse<UserMatchResultResponse>> getUserMatchResultByMatchId(
             @PathVariable Long matchId,
@@ -0,0 +1,31 @@
+package wc.prode._6.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import wc.prode._6.dto.response.ApiResponse;
+import wc.prode._6.dto.response.UserPointsResponse;
+import wc.prode._6.service.PointsService;
+
+@RestController
+@RequestMapping("/user/points")
+@RequiredArgsConstructor
+public class UserPointsController {
+
+    private final PointsService pointsService;
+
+    @GetMapping
+    public ResponseEntity<ApiResponse<UserPointsResponse>> getUserPoints(Authentication authentication) {
+        String userEmail = authentication.getName();
+        UserPointsResponse points = pointsService.getUserPoints(userEmail);
+        ApiResponse<UserPointsResponse> response = ApiResponse.<UserPointsResponse>builder()
+                .success(true)
+                .message("User points retrieved successfully")
+                .data(points)
+                .build();
+        return ResponseEntity.ok(response);
+    }
+}
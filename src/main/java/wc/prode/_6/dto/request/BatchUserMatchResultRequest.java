@@ -0,0 +1,17 @@
+package wc.prode._6.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchUserMatchResultRequest {
+    @NotEmpty(message = "Predictions are required")
+    private List<@Valid UserMatchResultRequest> predictions;
+}
@@ -0,0 +1,14 @@
+package wc.prode._6.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FinalizeLiveMatchesRequest {
+    private List<Long> matchIds; // vacío o null: todos los partidos en juego
+}
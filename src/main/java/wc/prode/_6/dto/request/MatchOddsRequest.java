@@ -0,0 +1,24 @@
+package wc.prode._6.dto.request;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MatchOddsRequest {
+    @NotNull(message = "Home win odds are required")
+    @DecimalMin(value = "1.0", inclusive = false, message = "Odds must be greater than 1")
+    private Double homeWin;
+
+    @NotNull(message = "Draw odds are required")
+    @DecimalMin(value = "1.0", inclusive = false, message = "Odds must be greater than 1")
+    private Double draw;
+
+    @NotNull(message = "Away win odds are required")
+    @DecimalMin(value = "1.0", inclusive = false, message = "Odds must be greater than 1")
+    private Double awayWin;
+}
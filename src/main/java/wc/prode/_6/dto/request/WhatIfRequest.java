@@ -0,0 +1,20 @@
+package wc.prode._6.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Resultados supuestos para partidos sin jugar: cada uno es un partido y el resultado 1X2 con el que terminaría
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WhatIfRequest {
+    @NotEmpty(message = "Hypothetical results are required")
+    private List<@Valid UserMatchResultRequest> results;
+}
@@ -0,0 +1,18 @@
+package wc.prode._6.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import wc.prode._6.entity.PredictedResult;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchPredictionItemResponse {
+    private Long matchId;
+    private PredictedResult predictedResult;
+    private String status; // SAVED, UNCHANGED o REJECTED
+    private String message;
+}
@@ -0,0 +1,20 @@
+package wc.prode._6.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ConsensusResponse {
+    private Long homeWin;
+    private Long draw;
+    private Long awayWin;
+    private Long total;
+    private Double homeWinPercentage;
+    private Double drawPercentage;
+    private Double awayWinPercentage;
+}
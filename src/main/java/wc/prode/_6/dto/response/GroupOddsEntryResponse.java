@@ -0,0 +1,21 @@
+package wc.prode._6.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GroupOddsEntryResponse {
+    private Long userId;
+    private String userName;
+    private String userEmail;
+    private String pictureUrl;
+    private Integer officialPoints;
+    private Integer officialPosition;
+    private Double winProbability;
+    private Double top3Probability;
+}
@@ -0,0 +1,20 @@
+package wc.prode._6.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GroupOddsResponse {
+    private Long groupId;
+    private String model; // UNIFORM o MARKET
+    private Integer iterations;
+    private Integer pendingMatches;
+    private List<GroupOddsEntryResponse> entries; // en el orden del ranking oficial
+}
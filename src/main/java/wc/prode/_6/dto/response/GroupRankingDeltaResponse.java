@@ -0,0 +1,18 @@
+package wc.prode._6.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GroupRankingDeltaResponse {
+    private Long groupId;
+    private Integer groupSize;
+    private List<RankingEntryResponse> entries; // solo los usuarios cuyo puntaje cambió, con su nueva posición
+}
@@ -0,0 +1,18 @@
+package wc.prode._6.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LeaderboardPositionResponse {
+    private Long userId;
+    private String userName;
+    private Integer totalPoints;
+    private Integer position;
+    private Long totalUsers;
+}
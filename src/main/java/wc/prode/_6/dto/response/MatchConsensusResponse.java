@@ -0,0 +1,16 @@
+package wc.prode._6.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MatchConsensusResponse {
+    private Long matchId;
+    private ConsensusResponse global;
+    private ConsensusResponse group; // null si el usuario no está autenticado o no pertenece a un grupo
+}
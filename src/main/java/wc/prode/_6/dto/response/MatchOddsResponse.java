@@ -0,0 +1,20 @@
+package wc.prode._6.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MatchOddsResponse {
+    private Long matchId;
+    private Double homeWin;
+    private Double draw;
+    private Double awayWin;
+    private Double homeWinProbability;
+    private Double drawProbability;
+    private Double awayWinProbability;
+}
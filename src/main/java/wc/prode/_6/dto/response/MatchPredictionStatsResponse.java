@@ -0,0 +1,19 @@
+package wc.prode._6.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MatchPredictionStatsResponse {
+    private Long matchId;
+    private Integer homeWin;
+    private Integer draw;
+    private Integer awayWin;
+    private Integer totalPredictions;
+    private Integer correctPredictions;
+}
@@ -0,0 +1,16 @@
+package wc.prode._6.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PhasePointsResponse {
+    private String phase;
+    private Integer scoredBets;
+    private Integer points;
+}
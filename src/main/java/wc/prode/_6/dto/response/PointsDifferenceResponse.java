@@ -0,0 +1,18 @@
+package wc.prode._6.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PointsDifferenceResponse {
+    private Long userId;
+    private String userName;
+    private Integer storedPoints;
+    private Integer calculatedPoints;
+    private Integer difference;
+}
@@ -0,0 +1,19 @@
+package wc.prode._6.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PointsRecalculationResponse {
+    private boolean dryRun;
+    private Integer usersChanged;
+    private List<PointsDifferenceResponse> differences;
+    private Long durationMs;
+}
@@ -0,0 +1,20 @@
+package wc.prode._6.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ScheduleSyncResponse {
+    private Integer received;
+    private Integer inserted;
+    private Integer updated;
+    private Integer unchanged;
+    private Integer skipped;
+    private Integer resultsChanged;
+    private Integer liveScoresChanged;
+}
@@ -14,5 +14,6 @@ public class UserMatchResultResponse {
     private Long id;
     private MatchResponse match;
     private PredictedResult predictedResult;
+    private Integer awardedPoints;
 }
 
@@ -19,6 +19,10 @@ public class Match {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // IdMatch del feed de FIFA; los partidos sembrados desde los JSON lo reciben en la primera sincronización
+    @Column(name = "external_id", unique = true, length = 32)
+    private String externalId;
+
     @Column(nullable = false)
     private LocalDateTime date;
 
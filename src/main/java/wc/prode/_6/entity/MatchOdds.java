@@ -0,0 +1,49 @@
+package wc.prode._6.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cuotas decimales de mercado (1X2) de un partido, usadas para simular los partidos pendientes
+ */
+@Entity
+@Table(name = "match_odds")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MatchOdds {
+    @Id
+    @Column(name = "match_id")
+    private Long matchId;
+
+    @Column(name = "home_win", nullable = false)
+    private Double homeWin;
+
+    @Column(nullable = false)
+    private Double draw;
+
+    @Column(name = "away_win", nullable = false)
+    private Double awayWin;
+
+    @Column(name = "updated_at", nullable = false)
+    @Builder.Default
+    private LocalDateTime updatedAt = LocalDateTime.now();
+
+    /**
+     * Probabilidades implícitas en el orden de PredictedResult: la inversa de cada cuota, normalizada
+     * para descontar el margen de la casa
+     */
+    public double[] impliedProbabilities() {
+        double home = 1 / homeWin;
+        double tie = 1 / draw;
+        double away = 1 / awayWin;
+        double total = home + tie + away;
+        return new double[]{home / total, tie / total, away / total};
+    }
+}
@@ -0,0 +1,33 @@
+package wc.prode._6.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "points_recalculation_checkpoints", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"run_id", "partition_index"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PointsRecalculationCheckpoint {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "run_id", nullable = false)
+    private Long runId;
+
+    @Column(name = "partition_index", nullable = false)
+    private Integer partitionIndex;
+
+    @Column(name = "completed_at", nullable = false)
+    @Builder.Default
+    private LocalDateTime completedAt = LocalDateTime.now();
+}
@@ -0,0 +1,45 @@
+package wc.prode._6.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "points_recalculation_runs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PointsRecalculationRun {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private RecalculationStatus status;
+
+    @Column(name = "partition_size", nullable = false)
+    private Integer partitionSize;
+
+    // Rango de ids de usuario que cubre la corrida, fijado al crearla
+    @Column(name = "min_user_id", nullable = false)
+    private Long minUserId;
+
+    @Column(name = "max_user_id", nullable = false)
+    private Long maxUserId;
+
+    @Column(name = "total_partitions", nullable = false)
+    private Integer totalPartitions;
+
+    @Column(name = "started_at", nullable = false)
+    @Builder.Default
+    private LocalDateTime startedAt = LocalDateTime.now();
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+}
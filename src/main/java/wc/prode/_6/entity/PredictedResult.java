@@ -3,6 +3,22 @@ package wc.prode._6.entity;
 public enum PredictedResult {
     HOME_WIN,  // Gana el equipo local
     DRAW,      // Empate
-    AWAY_WIN   // Gana el equipo visitante
-}
+    AWAY_WIN;  // Gana el equipo visitante
 
+    /**
+     * Determina el resultado (1X2) a partir del marcador.
+     * Devuelve null si el partido todavía no tiene resultado final.
+     */
+    public static PredictedResult fromScore(Integer homeScore, Integer awayScore) {
+        if (homeScore == null || awayScore == null) {
+            return null;
+        }
+        if (homeScore > awayScore) {
+            return HOME_WIN;
+        }
+        if (homeScore < awayScore) {
+            return AWAY_WIN;
+        }
+        return DRAW;
+    }
+}
@@ -0,0 +1,7 @@
+package wc.prode._6.entity;
+
+public enum RecalculationStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
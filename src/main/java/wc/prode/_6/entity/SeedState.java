@@ -0,0 +1,31 @@
+package wc.prode._6.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Versión de los datos fijos cargados en la base (checksum de la foto del torneo importada)
+ */
+@Entity
+@Table(name = "seed_state")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SeedState {
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    @Column(nullable = false, length = 64)
+    private String checksum;
+
+    @Column(name = "applied_at", nullable = false)
+    @Builder.Default
+    private LocalDateTime appliedAt = LocalDateTime.now();
+}
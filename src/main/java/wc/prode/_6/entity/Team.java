@@ -13,6 +13,11 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @Builder
 public class Team {
+    /**
+     * Equipo que ocupa el lugar de los clasificados todavía no definidos
+     */
+    public static final String PLACEHOLDER_NAME = "Por definir";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -10,7 +10,10 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+    @Index(name = "idx_users_group_points", columnList = "group_id, total_points"),
+    @Index(name = "idx_users_total_points", columnList = "total_points")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -6,6 +6,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
+
 @Entity
 @Table(name = "user_bracket_predictions", uniqueConstraints = {
     @UniqueConstraint(columnNames = {"user_id", "match_id"})
@@ -30,5 +32,15 @@ public class UserBracketPrediction {
     @ManyToOne(fetch = FetchType.EAGER)
     @JoinColumn(name = "predicted_winner_id")
     private Team predictedWinner;
+
+    // Puntos otorgados por este pronóstico: los de la fase si acertó el ganador, 0 si falló o si el equipo elegido
+    // ya quedó eliminado antes de este partido (null si todavía no se puntuó)
+    @Column(name = "awarded_points")
+    private Integer awardedPoints;
+
+    // Última vez que el usuario cargó o cambió el pronóstico (null en pronósticos anteriores a esta columna)
+    @Column(name = "updated_at")
+    @Builder.Default
+    private LocalDateTime updatedAt = LocalDateTime.now();
 }
 
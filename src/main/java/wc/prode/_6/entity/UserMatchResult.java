@@ -6,9 +6,13 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
+
 @Entity
 @Table(name = "user_match_results", uniqueConstraints = {
     @UniqueConstraint(columnNames = {"user_id", "match_id"})
+}, indexes = {
+    @Index(name = "idx_user_match_results_match", columnList = "match_id")
 })
 @Data
 @NoArgsConstructor
@@ -30,5 +34,14 @@ public class UserMatchResult {
     @Enumerated(EnumType.STRING)
     @Column(name = "predicted_result", nullable = false)
     private PredictedResult predictedResult;
+
+    // Puntos otorgados por esta apuesta cuando se puntuó el partido (null si todavía no se puntuó)
+    @Column(name = "awarded_points")
+    private Integer awardedPoints;
+
+    // Última vez que el usuario cargó o cambió la apuesta (null en apuestas anteriores a esta columna)
+    @Column(name = "updated_at")
+    @Builder.Default
+    private LocalDateTime updatedAt = LocalDateTime.now();
 }
 
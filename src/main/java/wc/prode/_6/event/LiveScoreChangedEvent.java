@@ -0,0 +1,8 @@
+package wc.prode._6.event;
+
+/**
+ * Se publica cuando cambia el marcador parcial de un partido en juego (cargado por un admin o por el feed).
+ * No afecta el puntaje oficial hasta que el partido se cierra con su resultado final.
+ */
+public record LiveScoreChangedEvent(Long matchId, Integer homeScore, Integer awayScore) {
+}
@@ -0,0 +1,7 @@
+package wc.prode._6.event;
+
+/**
+ * Se publica cuando cambian los datos de los partidos por fuera de la carga de resultados (por ejemplo, al sembrar la base)
+ */
+public record MatchCatalogChangedEvent() {
+}
@@ -0,0 +1,7 @@
+package wc.prode._6.event;
+
+/**
+ * Se publica cuando se cargan o cambian las cuotas de mercado de un partido
+ */
+public record MatchOddsChangedEvent(Long matchId) {
+}
@@ -0,0 +1,18 @@
+package wc.prode._6.event;
+
+import wc.prode._6.entity.PredictedResult;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Se publica cuando cambia el resultado de uno o más partidos y hay que volver a puntuar sus apuestas.
+ * results tiene el resultado 1X2 del nuevo marcador de cada partido (null si se borró el marcador);
+ * los partidos de un mismo evento se puntúan juntos en una sola pasada.
+ */
+public record MatchResultChangedEvent(Map<Long, PredictedResult> results) {
+
+    public static MatchResultChangedEvent of(Long matchId, PredictedResult result) {
+        return new MatchResultChangedEvent(Collections.singletonMap(matchId, result));
+    }
+}
@@ -0,0 +1,7 @@
+package wc.prode._6.event;
+
+/**
+ * Se publica cuando termina un recálculo completo de puntos y pudo cambiar el puntaje de cualquier usuario
+ */
+public record PointsRecalculatedEvent() {
+}
@@ -0,0 +1,12 @@
+package wc.prode._6.event;
+
+import wc.prode._6.scoring.UserPointsChange;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Se publica cuando se confirmó la puntuación de los partidos indicados, con los usuarios cuyo puntaje cambió
+ */
+public record PointsUpdatedEvent(Collection<Long> matchIds, List<UserPointsChange> changes) {
+}
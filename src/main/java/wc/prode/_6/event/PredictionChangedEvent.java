@@ -0,0 +1,11 @@
+package wc.prode._6.event;
+
+import wc.prode._6.entity.PredictedResult;
+
+/**
+ * Se publica cuando un usuario crea, modifica o elimina su apuesta sobre un partido.
+ * predictedResult es null cuando la apuesta se eliminó; previousResult es null cuando la apuesta es nueva.
+ */
+public record PredictionChangedEvent(Long userId, Long matchId, PredictedResult predictedResult,
+                                     PredictedResult previousResult) {
+}
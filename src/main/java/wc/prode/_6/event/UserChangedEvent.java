@@ -0,0 +1,7 @@
+package wc.prode._6.event;
+
+/**
+ * Se publica cuando cambian los datos de un usuario que se muestran en el ranking (grupo, nombre o foto)
+ */
+public record UserChangedEvent(Long userId) {
+}
@@ -0,0 +1,7 @@
+package wc.prode._6.event;
+
+/**
+ * Se publica cuando se crea un usuario nuevo
+ */
+public record UserRegisteredEvent(Long userId) {
+}
@@ -0,0 +1,29 @@
+package wc.prode._6.ingestion;
+
+import wc.prode._6.entity.Phase;
+
+import java.time.LocalDateTime;
+
+/**
+ * Partido del feed de FIFA ya normalizado al modelo de la aplicación.
+ * homeTeam y awayTeam son null mientras el clasificado no está definido.
+ * Si live es true el partido se está jugando y el marcador es parcial.
+ */
+public record FeedMatch(String externalId,
+                        LocalDateTime date,
+                        String city,
+                        String stadium,
+                        Phase phase,
+                        String group,
+                        TeamRef homeTeam,
+                        TeamRef awayTeam,
+                        Integer homeScore,
+                        Integer awayScore,
+                        boolean live) {
+
+    /**
+     * Equipo tal como viene en el feed: nombre en español y código de país para la bandera
+     */
+    public record TeamRef(String name, String countryCode) {
+    }
+}
@@ -0,0 +1,169 @@
+package wc.prode._6.ingestion;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import wc.prode._6.config.dto.FifaMatchData;
+import wc.prode._6.entity.Phase;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Lee el feed de partidos de FIFA con el parser de streaming y lo normaliza con las mismas reglas que
+ * scripts/process_fifa_json.py y scripts/process_knockout_json.py.
+ * Acepta una fase suelta (como matches.json), un array de fases (como knockout_stages.json) o el documento
+ * de la competencia con KnockoutStages. En un array, cada fase se convierte y se descarta antes de leer la siguiente.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FifaFeedReader {
+
+    private static final Pattern GROUP_LETTER = Pattern.compile("Grupo\\s+([A-L])", Pattern.CASE_INSENSITIVE);
+    private static final String DEFAULT_CITY = "Ciudad no especificada";
+    private static final String DEFAULT_STADIUM = "Estadio no especificado";
+    // MatchStatus del feed para un partido en juego
+    private static final int LIVE_STATUS = 3;
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Entrega cada partido válido del feed al consumer, en el orden del archivo
+     * @return cantidad de partidos entregados
+     */
+    public int read(InputStream feed, Consumer<FeedMatch> consumer) throws IOException {
+        int count = 0;
+        try (JsonParser parser = objectMapper.getFactory().createParser(feed)) {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_ARRAY) {
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    count += readStage(objectMapper.readValue(parser, FifaMatchData.KnockoutStage.class), consumer);
+                }
+            } else if (token == JsonToken.START_OBJECT) {
+                JsonNode root = objectMapper.readTree(parser);
+                if (root.has("KnockoutStages")) {
+                    List<FifaMatchData.KnockoutStage> stages =
+                            objectMapper.treeToValue(root, FifaMatchData.class).getKnockoutStages();
+                    if (stages != null) {
+                        for (FifaMatchData.KnockoutStage stage : stages) {
+                            count += readStage(stage, consumer);
+                        }
+                    }
+                } else {
+                    count += readStage(objectMapper.treeToValue(root, FifaMatchData.KnockoutStage.class), consumer);
+                }
+            } else {
+                throw new IOException("FIFA feed must be a stage, an array of stages or a competition document");
+            }
+        }
+        return count;
+    }
+
+    private int readStage(FifaMatchData.KnockoutStage stage, Consumer<FeedMatch> consumer) {
+        Phase phase = toPhase(stage.getStageName());
+        int count = readMatches(stage.getMatches(), phase, null, consumer);
+        if (stage.getGroups() != null) {
+            for (FifaMatchData.Group group : stage.getGroups()) {
+                count += readMatches(group.getMatches(), phase, toGroupLetter(group.getGroupName()), consumer);
+            }
+        }
+        return count;
+    }
+
+    private int readMatches(List<FifaMatchData.Match> matches, Phase phase, String group,
+                            Consumer<FeedMatch> consumer) {
+        if (matches == null) {
+            return 0;
+        }
+        int count = 0;
+        for (FifaMatchData.Match match : matches) {
+            FeedMatch feedMatch = toFeedMatch(match, phase, group);
+            if (feedMatch != null) {
+                consumer.accept(feedMatch);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private FeedMatch toFeedMatch(FifaMatchData.Match match, Phase phase, String group) {
+        if (match.getIdMatch() == null || match.getIdMatch().isEmpty()) {
+            log.warn("FIFA match without IdMatch, skipping");
+            return null;
+        }
+        LocalDateTime date;
+        try {
+            date = LocalDateTime.parse(match.getDate(), DateTimeFormatter.ISO_DATE_TIME);
+        } catch (NullPointerException | DateTimeParseException e) {
+            log.warn("Could not parse date {} for FIFA match {}, skipping", match.getDate(), match.getIdMatch());
+            return null;
+        }
+
+        FifaMatchData.Stadium stadium = match.getStadium();
+        String city = stadium != null && stadium.getCityName() != null ? stadium.getCityName() : DEFAULT_CITY;
+        String stadiumName = stadium != null && stadium.getStadiumName() != null
+                ? stadium.getStadiumName() : DEFAULT_STADIUM;
+
+        return new FeedMatch(match.getIdMatch(), date, city, stadiumName, phase, phase == Phase.GROUP ? group : null,
+                toTeamRef(match.getHomeTeam()), toTeamRef(match.getAwayTeam()),
+                match.getHomeTeamScore(), match.getAwayTeamScore(),
+                match.getMatchStatus() != null && match.getMatchStatus() == LIVE_STATUS);
+    }
+
+    private FeedMatch.TeamRef toTeamRef(FifaMatchData.TeamInfo team) {
+        if (team == null || team.getTeamName() == null) {
+            return null;
+        }
+        return new FeedMatch.TeamRef(team.getTeamName(), team.getIdCountry());
+    }
+
+    /**
+     * Fase de la aplicación que corresponde al nombre de la fase en el feed; por defecto, fase de grupos
+     */
+    private static Phase toPhase(String stageName) {
+        if (stageName == null) {
+            return Phase.GROUP;
+        }
+        String stage = stageName.toLowerCase(Locale.ROOT);
+        if (stage.contains("dieciseisavo") || stage.contains("treintaidosavo") || stage.contains("round of 32")) {
+            return Phase.ROUND_OF_32;
+        }
+        if (stage.contains("octavo") || stage.contains("round of 16")) {
+            return Phase.ROUND_OF_16;
+        }
+        if (stage.contains("cuarto") || stage.contains("quarter")) {
+            return Phase.QUARTER_FINAL;
+        }
+        if (stage.contains("semi")) {
+            return Phase.SEMI_FINAL;
+        }
+        if (stage.contains("tercer") || stage.contains("third")) {
+            return Phase.THIRD_PLACE;
+        }
+        if (stage.contains("final")) {
+            return Phase.FINAL;
+        }
+        return Phase.GROUP;
+    }
+
+    private static String toGroupLetter(String groupName) {
+        if (groupName == null) {
+            return null;
+        }
+        Matcher matcher = GROUP_LETTER.matcher(groupName);
+        return matcher.find() ? matcher.group(1).toUpperCase(Locale.ROOT) : null;
+    }
+}
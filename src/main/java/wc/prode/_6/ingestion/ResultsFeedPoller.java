@@ -0,0 +1,118 @@
+package wc.prode._6.ingestion;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import wc.prode._6.dto.response.ScheduleSyncResponse;
+import wc.prode._6.exception.BadRequestException;
+import wc.prode._6.service.ScheduleSyncService;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Consulta cada results-feed.poll-interval-ms el feed de resultados (results-feed.location: ruta de un archivo o
+ * URL http/https con el formato de FIFA) y lo aplica con ScheduleSyncService: todos los marcadores que cambiaron
+ * desde la consulta anterior se guardan en una sola transacción y se puntúan juntos en un único trabajo.
+ * El feed solo se vuelve a leer si cambió (fecha de modificación del archivo, o ETag / Last-Modified de la URL).
+ * Sin results-feed.location el poller no se crea.
+ */
+@Component
+@ConditionalOnProperty(name = "results-feed.location")
+@Slf4j
+public class ResultsFeedPoller {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final ScheduleSyncService scheduleSyncService;
+    private final String location;
+    private final HttpClient httpClient;
+
+    // Versión del feed ya aplicada: fecha y tamaño del archivo, o los validadores HTTP de la URL
+    private String lastVersion;
+    private String lastETag;
+    private String lastModified;
+
+    public ResultsFeedPoller(ScheduleSyncService scheduleSyncService,
+                             @Value("${results-feed.location}") String location) {
+        this.scheduleSyncService = scheduleSyncService;
+        this.location = location;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(TIMEOUT)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+        log.info("Polling results feed at {}", location);
+    }
+
+    @Scheduled(fixedDelayString = "${results-feed.poll-interval-ms:60000}",
+            initialDelayString = "${results-feed.poll-interval-ms:60000}")
+    public synchronized void poll() {
+        try {
+            if (location.startsWith("http://") || location.startsWith("https://")) {
+                pollUrl();
+            } else {
+                pollFile();
+            }
+        } catch (BadRequestException e) {
+            log.warn("Results feed {} rejected: {}", location, e.getMessage());
+        } catch (IOException e) {
+            log.warn("Could not read results feed {}: {}", location, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void pollFile() throws IOException {
+        Path path = Path.of(location);
+        String version = Files.getLastModifiedTime(path) + "/" + Files.size(path);
+        if (version.equals(lastVersion)) {
+            log.debug("Results feed {} unchanged since last poll", location);
+            return;
+        }
+        try (InputStream feed = Files.newInputStream(path)) {
+            apply(feed);
+        }
+        lastVersion = version;
+    }
+
+    private void pollUrl() throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(location)).timeout(TIMEOUT).GET();
+        if (lastETag != null) {
+            request.header("If-None-Match", lastETag);
+        }
+        if (lastModified != null) {
+            request.header("If-Modified-Since", lastModified);
+        }
+
+        HttpResponse<InputStream> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+        try (InputStream feed = response.body()) {
+            if (response.statusCode() == 304) {
+                log.debug("Results feed {} unchanged since last poll", location);
+                return;
+            }
+            if (response.statusCode() != 200) {
+                log.warn("Results feed {} answered with status {}", location, response.statusCode());
+                return;
+            }
+            apply(feed);
+        }
+        lastETag = response.headers().firstValue("ETag").orElse(null);
+        lastModified = response.headers().firstValue("Last-Modified").orElse(null);
+    }
+
+    private void apply(InputStream feed) {
+        ScheduleSyncResponse result = scheduleSyncService.syncSchedule(feed);
+        if (result.getResultsChanged() > 0) {
+            log.info("Results feed applied {} new results in a single scoring pass", result.getResultsChanged());
+        }
+    }
+}
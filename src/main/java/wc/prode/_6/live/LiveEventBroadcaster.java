@@ -0,0 +1,139 @@
+package wc.prode._6.live;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Difusión de eventos en vivo por Server-Sent Events.
+ * Cada evento se serializa una sola vez y el mismo frame se encola en el buffer de cada suscriptor
+ * (live.buffer-size eventos); el que no da abasto se desconecta y vuelve a conectarse por su cuenta.
+ * Las conexiones son asíncronas (no ocupan un hilo del servidor) y cada una escribe desde un hilo virtual,
+ * con lo que miles de suscriptores ociosos no consumen hilos de plataforma.
+ */
+@Component
+@Slf4j
+public class LiveEventBroadcaster {
+
+    private final ObjectMapper objectMapper;
+    private final int bufferSize;
+    private final long streamTimeoutMs;
+    private final ThreadFactory writerThreads = Thread.ofVirtual().name("live-writer-", 1).factory();
+    private final AtomicLong eventIds = new AtomicLong();
+
+    private final Set<LiveSubscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Set<LiveSubscriber>> groupSubscribers = new ConcurrentHashMap<>();
+
+    public LiveEventBroadcaster(ObjectMapper objectMapper,
+                                @Value("${live.buffer-size:64}") int bufferSize,
+                                @Value("${live.stream-timeout-ms:1800000}") long streamTimeoutMs) {
+        this.objectMapper = objectMapper;
+        this.bufferSize = bufferSize;
+        this.streamTimeoutMs = streamTimeoutMs;
+    }
+
+    /**
+     * Abre un stream que recibe los eventos generales y, si groupId no es null, los del grupo
+     */
+    public SseEmitter subscribe(Long groupId) {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        LiveSubscriber subscriber = new LiveSubscriber(emitter, groupId, bufferSize);
+        subscribers.add(subscriber);
+        if (groupId != null) {
+            groupSubscribers.compute(groupId, (id, group) -> {
+                Set<LiveSubscriber> members = group != null ? group : ConcurrentHashMap.newKeySet();
+                members.add(subscriber);
+                return members;
+            });
+        }
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(error -> remove(subscriber));
+        subscriber.start(writerThreads, () -> remove(subscriber));
+        return emitter;
+    }
+
+    public void broadcast(String eventName, Object payload) {
+        if (!subscribers.isEmpty()) {
+            deliver(subscribers, frame(eventName, payload));
+        }
+    }
+
+    public void broadcastToGroup(Long groupId, String eventName, Object payload) {
+        Set<LiveSubscriber> group = groupSubscribers.get(groupId);
+        if (group != null) {
+            deliver(group, frame(eventName, payload));
+        }
+    }
+
+    public boolean hasSubscribers() {
+        return !subscribers.isEmpty();
+    }
+
+    public boolean hasGroupSubscribers(Long groupId) {
+        return groupSubscribers.containsKey(groupId);
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Comentario periódico que mantiene abiertas las conexiones ociosas y detecta las que ya se cortaron
+     */
+    @Scheduled(fixedDelayString = "${live.heartbeat-interval-ms:30000}")
+    public void heartbeat() {
+        if (!subscribers.isEmpty()) {
+            deliver(subscribers, Collections.unmodifiableSet(SseEmitter.event().comment("heartbeat").build()));
+        }
+    }
+
+    private void deliver(Collection<LiveSubscriber> targets, Set<DataWithMediaType> frame) {
+        int dropped = 0;
+        for (LiveSubscriber subscriber : targets) {
+            if (!subscriber.offer(frame)) {
+                remove(subscriber);
+                dropped++;
+            }
+        }
+        if (dropped > 0) {
+            log.info("Dropped {} slow live subscribers, {} remaining", dropped, subscribers.size());
+        }
+    }
+
+    private Set<DataWithMediaType> frame(String eventName, Object payload) {
+        try {
+            return Collections.unmodifiableSet(SseEmitter.event()
+                    .id(String.valueOf(eventIds.incrementAndGet()))
+                    .name(eventName)
+                    .data(objectMapper.writeValueAsString(payload))
+                    .build());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize live event " + eventName, e);
+        }
+    }
+
+    private void remove(LiveSubscriber subscriber) {
+        subscriber.close();
+        subscribers.remove(subscriber);
+        if (subscriber.groupId() != null) {
+            groupSubscribers.computeIfPresent(subscriber.groupId(), (id, group) -> {
+                group.remove(subscriber);
+                return group.isEmpty() ? null : group;
+            });
+        }
+    }
+}
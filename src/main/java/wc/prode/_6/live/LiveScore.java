@@ -0,0 +1,15 @@
+package wc.prode._6.live;
+
+import wc.prode._6.entity.PredictedResult;
+
+import java.time.LocalDateTime;
+
+/**
+ * Marcador parcial de un partido en juego
+ */
+public record LiveScore(Long matchId, Integer homeScore, Integer awayScore, LocalDateTime updatedAt) {
+
+    public PredictedResult result() {
+        return PredictedResult.fromScore(homeScore, awayScore);
+    }
+}
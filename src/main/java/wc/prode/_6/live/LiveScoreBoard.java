@@ -0,0 +1,66 @@
+package wc.prode._6.live;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import wc.prode._6.entity.PredictedResult;
+import wc.prode._6.event.LiveScoreChangedEvent;
+import wc.prode._6.event.MatchResultChangedEvent;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Marcadores parciales de los partidos en juego. Vive solo en memoria: no se escribe en matches ni en users,
+ * y un partido sale del tablero cuando se carga su resultado final.
+ * La versión cambia con cada modificación y permite cachear lo que se calcula a partir del tablero.
+ */
+@Component
+public class LiveScoreBoard {
+
+    private final Map<Long, LiveScore> scores = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLiveScoreChanged(LiveScoreChangedEvent event) {
+        scores.put(event.matchId(), new LiveScore(event.matchId(), event.homeScore(), event.awayScore(),
+                LocalDateTime.now()));
+        version.incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMatchResultChanged(MatchResultChangedEvent event) {
+        if (scores.keySet().removeAll(event.results().keySet())) {
+            version.incrementAndGet();
+        }
+    }
+
+    public Optional<LiveScore> get(Long matchId) {
+        return Optional.ofNullable(scores.get(matchId));
+    }
+
+    public List<LiveScore> getAll() {
+        return List.copyOf(scores.values());
+    }
+
+    /**
+     * Resultado 1X2 parcial de cada partido en juego
+     */
+    public Map<Long, PredictedResult> getResults() {
+        Map<Long, PredictedResult> results = new HashMap<>();
+        scores.values().forEach(score -> results.put(score.matchId(), score.result()));
+        return results;
+    }
+
+    public boolean isEmpty() {
+        return scores.isEmpty();
+    }
+
+    public long getVersion() {
+        return version.get();
+    }
+}
@@ -0,0 +1,69 @@
+package wc.prode._6.live;
+
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Conexión SSE abierta: los eventos se encolan en un buffer acotado y un hilo virtual propio los escribe,
+ * así una conexión lenta nunca frena al que publica. Si el buffer se llena, la conexión se descarta.
+ */
+final class LiveSubscriber {
+
+    private final SseEmitter emitter;
+    private final Long groupId;
+    private final BlockingQueue<Set<DataWithMediaType>> buffer;
+    private final AtomicBoolean open = new AtomicBoolean(true);
+    private Thread writer;
+
+    LiveSubscriber(SseEmitter emitter, Long groupId, int bufferSize) {
+        this.emitter = emitter;
+        this.groupId = groupId;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+    }
+
+    Long groupId() {
+        return groupId;
+    }
+
+    /**
+     * Arranca el hilo que escribe el buffer en la conexión; onFailure se llama si la escritura falla
+     */
+    void start(ThreadFactory threads, Runnable onFailure) {
+        writer = threads.newThread(() -> {
+            try {
+                while (open.get()) {
+                    emitter.send(buffer.take());
+                }
+            } catch (InterruptedException e) {
+                // Conexión cerrada mientras esperaba eventos
+            } catch (IOException | IllegalStateException e) {
+                onFailure.run();
+            }
+        });
+        writer.start();
+    }
+
+    /**
+     * Encola un evento ya serializado; false si el buffer está lleno o la conexión cerrada
+     */
+    boolean offer(Set<DataWithMediaType> frame) {
+        return open.get() && buffer.offer(frame);
+    }
+
+    void close() {
+        if (open.compareAndSet(true, false)) {
+            if (writer != null) {
+                writer.interrupt();
+            }
+            buffer.clear();
+            emitter.complete();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package wc.prode._6.live;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import wc.prode._6.dto.response.GroupRankingDeltaResponse;
+import wc.prode._6.dto.response.LiveScoreResponse;
+import wc.prode._6.dto.response.RankingEntryResponse;
+import wc.prode._6.event.LiveScoreChangedEvent;
+import wc.prode._6.event.MatchResultChangedEvent;
+import wc.prode._6.event.PointsUpdatedEvent;
+import wc.prode._6.mapper.MatchMapper;
+import wc.prode._6.ranking.GroupRankingIndex;
+import wc.prode._6.ranking.RankedPosition;
+import wc.prode._6.repository.MatchRepository;
+import wc.prode._6.scoring.UserPointsChange;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Traduce los cambios de resultados y de puntos a eventos en vivo:
+ * "match" con el partido actualizado y "live-score" con los marcadores parciales para todos,
+ * y "ranking" con los cambios de cada grupo solo para sus miembros.
+ * Si no hay nadie conectado no se arma nada.
+ */
+@Component
+@RequiredArgsConstructor
+public class LiveUpdateListener {
+
+    public static final String MATCH_EVENT = "match";
+    public static final String RANKING_EVENT = "ranking";
+    public static final String LIVE_SCORE_EVENT = "live-score";
+
+    private final LiveEventBroadcaster broadcaster;
+    private final MatchRepository matchRepository;
+    private final MatchMapper matchMapper;
+    private final GroupRankingIndex groupRankingIndex;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMatchResultChanged(MatchResultChangedEvent event) {
+        if (!broadcaster.hasSubscribers()) {
+            return;
+        }
+        matchRepository.findAllById(event.results().keySet())
+                .forEach(match -> broadcaster.broadcast(MATCH_EVENT, matchMapper.toResponse(match)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLiveScoreChanged(LiveScoreChangedEvent event) {
+        broadcaster.broadcast(LIVE_SCORE_EVENT, LiveScoreResponse.builder()
+                .matchId(event.matchId())
+                .homeScore(event.homeScore())
+                .awayScore(event.awayScore())
+                .updatedAt(LocalDateTime.now())
+                .build());
+    }
+
+    /**
+     * Se ejecuta después de que el índice de rankings aplicó los cambios, para publicar las posiciones nuevas
+     */
+    @EventListener
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onPointsUpdated(PointsUpdatedEvent event) {
+        if (!broadcaster.hasSubscribers()) {
+            return;
+        }
+        Map<Long, List<RankingEntryResponse>> changesByGroup = new HashMap<>();
+        for (UserPointsChange change : event.changes()) {
+            Optional<RankedPosition> position = groupRankingIndex.getPosition(change.userId());
+            if (position.isPresent() && broadcaster.hasGroupSubscribers(position.get().entry().groupId())) {
+                changesByGroup.computeIfAbsent(position.get().entry().groupId(), id -> new ArrayList<>())
+                        .add(toResponse(position.get()));
+            }
+        }
+        changesByGroup.forEach((groupId, entries) -> broadcaster.broadcastToGroup(groupId, RANKING_EVENT,
+                GroupRankingDeltaResponse.builder()
+                        .groupId(groupId)
+                        .groupSize(groupRankingIndex.getGroupSize(groupId))
+                        .entries(entries)
+                        .build()));
+    }
+
+    private RankingEntryResponse toResponse(RankedPosition rankedPosition) {
+        return RankingEntryResponse.builder()
+                .userId(rankedPosition.entry().userId())
+                .userName(rankedPosition.entry().name())
+                .userEmail(rankedPosition.entry().email())
+                .pictureUrl(rankedPosition.entry().pictureUrl())
+                .totalPoints(rankedPosition.entry().totalPoints())
+                .position(rankedPosition.position())
+                .build();
+    }
+}
@@ -0,0 +1,10 @@
+package wc.prode._6.live;
+
+import wc.prode._6.ranking.RankingEntry;
+
+/**
+ * Entrada del ranking provisional: la entrada oficial con su posición y los puntos y posición si los partidos
+ * pendientes terminaran con el resultado supuesto (el marcador en vivo o el de una simulación)
+ */
+public record ProvisionalPosition(RankingEntry entry, int officialPosition, int provisionalPoints, int position) {
+}
@@ -0,0 +1,41 @@
+package wc.prode._6.live;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import wc.prode._6.simulation.GroupPredictionTable;
+import wc.prode._6.simulation.GroupPredictionTables;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ranking provisional de cada grupo mientras hay partidos en juego: los puntos oficiales del índice de rankings
+ * más los aciertos parciales, simulados sobre la tabla de apuestas del grupo. Se calcula en memoria, sin escribir
+ * en users, y se cachea por grupo hasta que cambia el tablero en vivo o la tabla de apuestas del grupo (que solo
+ * cambia con las apuestas o el ranking oficial de sus miembros, o con un resultado).
+ */
+@Component
+@RequiredArgsConstructor
+public class ProvisionalRanking {
+
+    private final GroupPredictionTables groupPredictionTables;
+    private final LiveScoreBoard liveScoreBoard;
+    private final Map<Long, CachedRanking> cache = new ConcurrentHashMap<>();
+
+    public List<ProvisionalPosition> getGroupRanking(Long groupId) {
+        long boardVersion = liveScoreBoard.getVersion();
+        GroupPredictionTable table = groupPredictionTables.get(groupId);
+        CachedRanking cached = cache.get(groupId);
+        if (cached != null && cached.boardVersion() == boardVersion && cached.table() == table) {
+            return cached.positions();
+        }
+
+        List<ProvisionalPosition> positions = table.simulate(liveScoreBoard.getResults());
+        cache.put(groupId, new CachedRanking(boardVersion, table, positions));
+        return positions;
+    }
+
+    private record CachedRanking(long boardVersion, GroupPredictionTable table, List<ProvisionalPosition> positions) {
+    }
+}
@@ -0,0 +1,289 @@
+package wc.prode._6.ranking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import wc.prode._6.event.PointsRecalculatedEvent;
+import wc.prode._6.event.PointsUpdatedEvent;
+import wc.prode._6.event.UserChangedEvent;
+import wc.prode._6.event.UserRegisteredEvent;
+import wc.prode._6.repository.UserRepository;
+import wc.prode._6.repository.projection.PointsBucket;
+import wc.prode._6.repository.projection.RankedUser;
+import wc.prode._6.scoring.UserPointsChange;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Tabla de posiciones global del torneo.
+ * La posición de cualquier usuario sale de un histograma de puntajes (árbol de Fenwick: cantidad de usuarios
+ * por puntaje), contando cuántos tienen más puntos, sin ordenar ni recorrer la tabla de usuarios.
+ * Las primeras leaderboard.top-size entradas se mantienen en memoria y se actualizan de forma incremental
+ * con cada puntuación; solo se vuelven a leer de la base cuando alguien sale del top.
+ * Las consultas a la base se hacen fuera del lock: bajo el write lock solo se aplica el resultado.
+ */
+@Component
+@Slf4j
+public class GlobalLeaderboard {
+
+    private final UserRepository userRepository;
+    private final int topSize;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // tree[i]: árbol de Fenwick sobre la cantidad de usuarios con puntaje i - 1
+    private long[] tree = new long[128];
+    private long totalUsers;
+    private final TreeSet<RankingEntry> top = new TreeSet<>(RankingEntry.ORDER);
+    private final Map<Long, RankingEntry> topByUser = new HashMap<>();
+    // Cantidad de veces que se modificó el top, para descartar una lectura de la base que quedó vieja
+    private long topVersion;
+
+    public GlobalLeaderboard(UserRepository userRepository,
+                             @Value("${leaderboard.top-size:100}") int topSize) {
+        this.userRepository = userRepository;
+        this.topSize = topSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        List<PointsBucket> buckets = userRepository.countUsersByTotalPoints();
+        lock.writeLock().lock();
+        try {
+            tree = new long[128];
+            totalUsers = 0;
+            for (PointsBucket bucket : buckets) {
+                addUsers(bucket.getPoints(), bucket.getUsers());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        refreshTop(null);
+        log.info("Global leaderboard built in {} ms: {} users", System.currentTimeMillis() - start, totalUsers);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPointsRecalculated(PointsRecalculatedEvent event) {
+        rebuild();
+    }
+
+    /**
+     * Mueve en el histograma a cada usuario cuyo puntaje cambió. El top solo se toca si algún cambio lo afecta.
+     */
+    @EventListener
+    public void onPointsUpdated(PointsUpdatedEvent event) {
+        if (event.changes().isEmpty()) {
+            return;
+        }
+
+        boolean leftTop = false;
+        List<Long> candidates = new ArrayList<>();
+        lock.writeLock().lock();
+        try {
+            RankingEntry last = top.isEmpty() ? null : top.last();
+            for (UserPointsChange change : event.changes()) {
+                addUsers(change.previousPoints(), -1);
+                addUsers(change.newPoints(), 1);
+
+                RankingEntry current = topByUser.get(change.userId());
+                if (current != null) {
+                    leftTop |= change.newPoints() < current.totalPoints();
+                    candidates.add(change.userId());
+                } else if (top.size() < topSize || last == null || change.newPoints() >= last.totalPoints()) {
+                    candidates.add(change.userId());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        if (leftTop) {
+            // Alguien del top bajó: el reemplazo puede ser cualquier usuario, se relee el top desde la base
+            refreshTop(null);
+        } else if (!candidates.isEmpty()) {
+            refreshTop(candidates);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserRegistered(UserRegisteredEvent event) {
+        boolean fitsInTop;
+        lock.writeLock().lock();
+        try {
+            addUsers(0, 1);
+            fitsInTop = top.size() < topSize;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (fitsInTop) {
+            refreshTop(Set.of(event.userId()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        boolean inTop;
+        lock.readLock().lock();
+        try {
+            inTop = topByUser.containsKey(event.userId());
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (inTop) {
+            refreshTop(Set.of(event.userId()));
+        }
+    }
+
+    /**
+     * Las primeras limit entradas (como máximo leaderboard.top-size) con su posición;
+     * los empates comparten posición
+     */
+    public List<RankedPosition> getTop(int limit) {
+        lock.readLock().lock();
+        try {
+            List<RankedPosition> result = new ArrayList<>(Math.min(limit, top.size()));
+            for (RankingEntry entry : top) {
+                if (result.size() >= limit) {
+                    break;
+                }
+                result.add(new RankedPosition(entry, positionFor(entry.totalPoints())));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Posición global que corresponde a un puntaje: 1 + cantidad de usuarios con más puntos
+     */
+    public int getPosition(int points) {
+        lock.readLock().lock();
+        try {
+            return positionFor(points);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getTopSize() {
+        return topSize;
+    }
+
+    public long getTotalUsers() {
+        lock.readLock().lock();
+        try {
+            return totalUsers;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Lee de la base el top completo (userIds null) o los usuarios indicados fuera del lock y los aplica bajo
+     * el write lock. Si otra actualización tocó el top mientras tanto, la lectura puede ser anterior a la suya
+     * y se repite.
+     */
+    private void refreshTop(Collection<Long> userIds) {
+        while (true) {
+            long readVersion;
+            lock.readLock().lock();
+            try {
+                readVersion = topVersion;
+            } finally {
+                lock.readLock().unlock();
+            }
+            List<RankedUser> users = userIds == null
+                    ? userRepository.findTopRankedUsers(PageRequest.of(0, topSize))
+                    : userRepository.findRankedUsersByIds(userIds);
+            lock.writeLock().lock();
+            try {
+                if (topVersion == readVersion) {
+                    if (userIds == null) {
+                        top.clear();
+                        topByUser.clear();
+                    }
+                    users.forEach(this::placeInTop);
+                    topVersion++;
+                    return;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    // Las operaciones siguientes requieren tener tomado el write lock (o el read lock si solo leen)
+
+    private void placeInTop(RankedUser user) {
+        RankingEntry updated = new RankingEntry(user.getId(), user.getName(), user.getEmail(), user.getPictureUrl(),
+                user.getGroupId(), user.getTotalPoints());
+        RankingEntry previous = topByUser.remove(user.getId());
+        if (previous != null) {
+            top.remove(previous);
+        }
+        top.add(updated);
+        topByUser.put(updated.userId(), updated);
+        if (top.size() > topSize) {
+            RankingEntry removed = top.pollLast();
+            topByUser.remove(removed.userId());
+        }
+    }
+
+    private int positionFor(int points) {
+        return (int) (totalUsers - prefixCount(points) + 1);
+    }
+
+    private void addUsers(int points, long users) {
+        if (points + 1 >= tree.length) {
+            grow(points + 2);
+        }
+        for (int i = points + 1; i < tree.length; i += i & -i) {
+            tree[i] += users;
+        }
+        totalUsers += users;
+    }
+
+    /**
+     * Cantidad de usuarios con puntaje menor o igual a points
+     */
+    private long prefixCount(int points) {
+        long count = 0;
+        for (int i = Math.min(points + 1, tree.length - 1); i > 0; i -= i & -i) {
+            count += tree[i];
+        }
+        return count;
+    }
+
+    private void grow(int minLength) {
+        int length = tree.length;
+        while (length < minLength) {
+            length *= 2;
+        }
+        // Un árbol de Fenwick no se puede extender copiando: se reconstruye desde las cantidades por puntaje
+        long[] counts = new long[tree.length];
+        for (int i = 1; i < tree.length; i++) {
+            counts[i] = prefixCount(i - 1) - prefixCount(i - 2);
+        }
+        long users = totalUsers;
+        tree = new long[length];
+        totalUsers = 0;
+        for (int i = 1; i < counts.length; i++) {
+            if (counts[i] != 0) {
+                addUsers(i - 1, counts[i]);
+            }
+        }
+        totalUsers = users;
+    }
+}
@@ -0,0 +1,301 @@
+package wc.prode._6.ranking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import wc.prode._6.event.PointsRecalculatedEvent;
+import wc.prode._6.event.PointsUpdatedEvent;
+import wc.prode._6.event.UserChangedEvent;
+import wc.prode._6.repository.UserRepository;
+import wc.prode._6.repository.projection.RankedUser;
+import wc.prode._6.scoring.UserPointsChange;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Índice en memoria del ranking de cada grupo: un árbol de orden estadístico por grupo ordenado por puntos,
+ * nombre e id. Responde el top K, la posición de un usuario y las entradas alrededor de él en O(log n)
+ * (más k entradas devueltas) en lugar de cargar y ordenar el grupo completo en cada consulta.
+ * Se construye al iniciar y se actualiza de forma incremental solo para los usuarios cuyo puntaje o datos cambiaron.
+ */
+@Component
+@Slf4j
+public class GroupRankingIndex {
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, OrderStatisticTree<RankingEntry>> groups = new HashMap<>();
+    private final Map<Long, RankingEntry> entries = new HashMap<>();
+    // Versión del índice en la que cambió cada entrada, para no pisarla con una lectura de la base anterior
+    private final Map<Long, Long> entryVersions = new HashMap<>();
+    // Versión del índice en la que cambió por última vez cada grupo (alta, baja o cambio de alguno de sus miembros)
+    private final Map<Long, Long> groupVersions = new HashMap<>();
+    // Versión del último rebuild: ningún grupo tiene una versión menor
+    private long rebuildVersion;
+    // Contador de modificaciones del índice: da la versión de cada entrada y de cada grupo
+    private final AtomicLong version = new AtomicLong();
+
+    public GroupRankingIndex(UserRepository userRepository, PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            groups.clear();
+            entries.clear();
+            entryVersions.clear();
+            groupVersions.clear();
+            rebuildVersion = version.incrementAndGet();
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<RankedUser> users = userRepository.streamRankedUsers()) {
+                    users.forEach(this::upsert);
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Group ranking index built in {} ms: {} users in {} groups",
+                System.currentTimeMillis() - start, entries.size(), groups.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPointsRecalculated(PointsRecalculatedEvent event) {
+        rebuild();
+    }
+
+    /**
+     * Reubica a los usuarios cuyo puntaje cambió con el puntaje que trae el evento, sin consultar la base.
+     * Un cambio solo se aplica si el puntaje anterior coincide con el del índice: si dos puntuaciones
+     * concurrentes llegan en otro orden, o si el índice quedó atrasado, esos usuarios se releen de la base
+     * fuera del lock y se aplican salvo que otro cambio los haya actualizado mientras tanto.
+     * Corre antes que los demás listeners (las notificaciones en vivo leen las posiciones nuevas).
+     */
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onPointsUpdated(PointsUpdatedEvent event) {
+        if (event.changes().isEmpty()) {
+            return;
+        }
+        List<Long> stale = new ArrayList<>();
+        long readVersion;
+        lock.writeLock().lock();
+        try {
+            for (UserPointsChange change : event.changes()) {
+                RankingEntry entry = entries.get(change.userId());
+                if (entry == null) {
+                    // Usuario sin grupo: no está en el índice
+                    continue;
+                }
+                if (entry.totalPoints() == change.previousPoints()) {
+                    put(change.userId(), entry.withTotalPoints(change.newPoints()));
+                } else if (entry.totalPoints() != change.newPoints()) {
+                    stale.add(change.userId());
+                }
+            }
+            readVersion = version.get();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (stale.isEmpty()) {
+            return;
+        }
+
+        List<RankedUser> users = transactionTemplate.execute(status -> userRepository.findRankedUsersByIds(stale));
+        lock.writeLock().lock();
+        try {
+            for (RankedUser user : users) {
+                Long updatedAt = entryVersions.get(user.getId());
+                if (updatedAt == null || updatedAt <= readVersion) {
+                    upsert(user);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.debug("Reloaded {} ranking entries out of sync with scoring changes", stale.size());
+    }
+
+    /**
+     * Relee al usuario fuera del lock y lo aplica bajo el write lock. Si un cambio de puntaje lo actualizó
+     * mientras tanto, se conserva ese puntaje y se toman de la base solo los datos del usuario y su grupo.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        long readVersion = version.get();
+        List<RankedUser> users = transactionTemplate.execute(
+                status -> userRepository.findRankedUsersByIds(Set.of(event.userId())));
+        lock.writeLock().lock();
+        try {
+            for (RankedUser user : users) {
+                RankingEntry current = entries.get(user.getId());
+                RankingEntry updated = toEntry(user);
+                if (current != null && updated != null && entryVersions.get(user.getId()) > readVersion) {
+                    updated = updated.withTotalPoints(current.totalPoints());
+                }
+                put(user.getId(), updated);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Las primeras limit entradas del grupo
+     */
+    public List<RankedPosition> getTop(Long groupId, int limit) {
+        return getRange(groupId, 0, limit);
+    }
+
+    /**
+     * Posición del usuario en su grupo, si pertenece a uno
+     */
+    public Optional<RankedPosition> getPosition(Long userId) {
+        lock.readLock().lock();
+        try {
+            RankingEntry entry = entries.get(userId);
+            if (entry == null) {
+                return Optional.empty();
+            }
+            int index = groups.get(entry.groupId()).indexOf(entry);
+            return Optional.of(new RankedPosition(entry, index + 1));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Grupo al que pertenece el usuario según el índice, sin consultar la base
+     */
+    public Optional<Long> getGroupId(Long userId) {
+        lock.readLock().lock();
+        try {
+            RankingEntry entry = entries.get(userId);
+            return entry == null ? Optional.empty() : Optional.of(entry.groupId());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Entradas del grupo del usuario desde radius posiciones antes hasta radius posiciones después de él
+     */
+    public List<RankedPosition> getAround(Long userId, int radius) {
+        lock.readLock().lock();
+        try {
+            RankingEntry entry = entries.get(userId);
+            if (entry == null) {
+                return List.of();
+            }
+            int index = groups.get(entry.groupId()).indexOf(entry);
+            return getRange(entry.groupId(), index - radius, index + radius + 1);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ranking completo del grupo, en orden
+     */
+    public List<RankedPosition> getAll(Long groupId) {
+        return getRange(groupId, 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Versión del grupo: cambia solo cuando cambia alguno de sus miembros, así que lo que se cachea por grupo
+     * no se invalida por cambios en otros grupos
+     */
+    public long getGroupVersion(Long groupId) {
+        lock.readLock().lock();
+        try {
+            return Math.max(groupVersions.getOrDefault(groupId, 0L), rebuildVersion);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getGroupSize(Long groupId) {
+        lock.readLock().lock();
+        try {
+            OrderStatisticTree<RankingEntry> tree = groups.get(groupId);
+            return tree == null ? 0 : tree.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<RankedPosition> getRange(Long groupId, int from, int to) {
+        lock.readLock().lock();
+        try {
+            OrderStatisticTree<RankingEntry> tree = groups.get(groupId);
+            if (tree == null) {
+                return List.of();
+            }
+            int start = Math.max(from, 0);
+            List<RankingEntry> range = tree.range(start, to);
+            return IntStream.range(0, range.size())
+                    .mapToObj(i -> new RankedPosition(range.get(i), start + i + 1))
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Requiere tener tomado el write lock
+    private void upsert(RankedUser user) {
+        put(user.getId(), toEntry(user));
+    }
+
+    // null si el usuario no tiene grupo
+    private static RankingEntry toEntry(RankedUser user) {
+        return user.getGroupId() == null ? null : new RankingEntry(user.getId(), user.getName(),
+                user.getEmail(), user.getPictureUrl(), user.getGroupId(), user.getTotalPoints());
+    }
+
+    // Requiere tener tomado el write lock; updated null saca al usuario del índice
+    private void put(Long userId, RankingEntry updated) {
+        RankingEntry previous = updated == null ? entries.remove(userId) : entries.put(userId, updated);
+        if (updated != null && updated.equals(previous)) {
+            return;
+        }
+        long current = version.incrementAndGet();
+        if (updated == null) {
+            entryVersions.remove(userId);
+        } else {
+            entryVersions.put(userId, current);
+        }
+        if (previous != null) {
+            groupVersions.put(previous.groupId(), current);
+            OrderStatisticTree<RankingEntry> tree = groups.get(previous.groupId());
+            tree.remove(previous);
+            if (tree.size() == 0) {
+                groups.remove(previous.groupId());
+            }
+        }
+        if (updated != null) {
+            groupVersions.put(updated.groupId(), current);
+            groups.computeIfAbsent(updated.groupId(), id -> new OrderStatisticTree<>(RankingEntry.ORDER)).insert(updated);
+        }
+    }
+}
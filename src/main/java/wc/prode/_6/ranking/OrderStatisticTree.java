@@ -0,0 +1,176 @@
+package wc.prode._6.ranking;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Árbol de orden estadístico (treap con tamaño de subárbol en cada nodo).
+ * Inserta, elimina, obtiene la posición de un elemento y el elemento de una posición en O(log n) esperado,
+ * y recorre un rango de k posiciones en O(log n + k).
+ * No es thread-safe: el llamador debe sincronizar el acceso.
+ */
+class OrderStatisticTree<T> {
+
+    private final Comparator<? super T> comparator;
+    private Node<T> root;
+
+    OrderStatisticTree(Comparator<? super T> comparator) {
+        this.comparator = comparator;
+    }
+
+    int size() {
+        return size(root);
+    }
+
+    void insert(T value) {
+        root = insert(root, new Node<>(value, ThreadLocalRandom.current().nextInt()));
+    }
+
+    void remove(T value) {
+        root = remove(root, value);
+    }
+
+    /**
+     * Posición (desde 0) del elemento, o -1 si no está en el árbol
+     */
+    int indexOf(T value) {
+        int index = 0;
+        Node<T> node = root;
+        while (node != null) {
+            int cmp = comparator.compare(value, node.value);
+            if (cmp < 0) {
+                node = node.left;
+            } else {
+                index += size(node.left);
+                if (cmp == 0) {
+                    return index;
+                }
+                index++;
+                node = node.right;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Elementos entre las posiciones from (inclusive) y to (exclusive), en orden
+     */
+    List<T> range(int from, int to) {
+        int start = Math.max(from, 0);
+        int end = Math.min(to, size());
+        List<T> result = new ArrayList<>(Math.max(end - start, 0));
+        if (start < end) {
+            collect(root, start, end, 0, result);
+        }
+        return result;
+    }
+
+    private void collect(Node<T> node, int from, int to, int offset, List<T> result) {
+        if (node == null) {
+            return;
+        }
+        int nodeIndex = offset + size(node.left);
+        if (from < nodeIndex) {
+            collect(node.left, from, to, offset, result);
+        }
+        if (from <= nodeIndex && nodeIndex < to) {
+            result.add(node.value);
+        }
+        if (nodeIndex + 1 < to) {
+            collect(node.right, from, to, nodeIndex + 1, result);
+        }
+    }
+
+    private Node<T> insert(Node<T> node, Node<T> newNode) {
+        if (node == null) {
+            return newNode;
+        }
+        if (comparator.compare(newNode.value, node.value) < 0) {
+            node.left = insert(node.left, newNode);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, newNode);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        node.update();
+        return node;
+    }
+
+    private Node<T> remove(Node<T> node, T value) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = comparator.compare(value, node.value);
+        if (cmp < 0) {
+            node.left = remove(node.left, value);
+        } else if (cmp > 0) {
+            node.right = remove(node.right, value);
+        } else {
+            return merge(node.left, node.right);
+        }
+        node.update();
+        return node;
+    }
+
+    private Node<T> merge(Node<T> left, Node<T> right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    private Node<T> rotateRight(Node<T> node) {
+        Node<T> left = node.left;
+        node.left = left.right;
+        left.right = node;
+        node.update();
+        left.update();
+        return left;
+    }
+
+    private Node<T> rotateLeft(Node<T> node) {
+        Node<T> right = node.right;
+        node.right = right.left;
+        right.left = node;
+        node.update();
+        right.update();
+        return right;
+    }
+
+    private static int size(Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static final class Node<T> {
+        private final T value;
+        private final int priority;
+        private Node<T> left;
+        private Node<T> right;
+        private int size = 1;
+
+        private Node(T value, int priority) {
+            this.value = value;
+            this.priority = priority;
+        }
+
+        private void update() {
+            size = 1 + OrderStatisticTree.size(left) + OrderStatisticTree.size(right);
+        }
+    }
+}
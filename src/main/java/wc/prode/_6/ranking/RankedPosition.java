@@ -0,0 +1,7 @@
+package wc.prode._6.ranking;
+
+/**
+ * Entrada del ranking junto con su posición (desde 1)
+ */
+public record RankedPosition(RankingEntry entry, int position) {
+}
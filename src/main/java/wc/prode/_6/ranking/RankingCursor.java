@@ -0,0 +1,28 @@
+package wc.prode._6.ranking;
+
+import wc.prode._6.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Cursor de paginación del ranking: la clave de orden (puntos, nombre, id) de una entrada, codificada en Base64 URL.
+ * Al no depender de un offset, las páginas no se desplazan cuando cambian los puntajes entre una consulta y otra.
+ */
+public record RankingCursor(int points, String name, Long userId) {
+
+    public String encode() {
+        String raw = points + ":" + userId + ":" + name;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static RankingCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", 3);
+            return new RankingCursor(Integer.parseInt(parts[0]), parts[2], Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new BadRequestException("Invalid ranking cursor");
+        }
+    }
+}
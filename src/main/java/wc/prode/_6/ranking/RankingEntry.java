@@ -0,0 +1,21 @@
+package wc.prode._6.ranking;
+
+import java.util.Comparator;
+
+/**
+ * Entrada del índice de ranking: datos del usuario necesarios para ordenar y responder sin consultar la base
+ */
+public record RankingEntry(Long userId, String name, String email, String pictureUrl, Long groupId, int totalPoints) {
+
+    /**
+     * Orden del ranking: más puntos primero, luego por nombre y por id para que el orden sea total
+     */
+    public static final Comparator<RankingEntry> ORDER = Comparator
+            .comparingInt(RankingEntry::totalPoints).reversed()
+            .thenComparing(RankingEntry::name)
+            .thenComparing(RankingEntry::userId);
+
+    public RankingEntry withTotalPoints(int points) {
+        return new RankingEntry(userId, name, email, pictureUrl, groupId, points);
+    }
+}
@@ -0,0 +1,62 @@
+package wc.prode._6.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import wc.prode._6.entity.Phase;
+import wc.prode._6.repository.projection.MatchScheduleRow;
+
+import java.util.List;
+
+/**
+ * Lectura y escritura del calendario por JDBC para la sincronización con el feed de FIFA:
+ * las filas nuevas y las modificadas viajan cada una en un único batch.
+ * Se ejecuta dentro de la transacción JPA que esté activa.
+ */
+@Repository
+@RequiredArgsConstructor
+public class MatchJdbcRepository {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<MatchScheduleRow> findScheduleRows() {
+        return jdbcTemplate.query("SELECT id, external_id, date, city, stadium, phase, group_letter, home_team_id, " +
+                        "away_team_id, home_score, away_score FROM matches",
+                (rs, rowNum) -> new MatchScheduleRow(
+                        rs.getLong("id"),
+                        rs.getString("external_id"),
+                        rs.getTimestamp("date").toLocalDateTime(),
+                        rs.getString("city"),
+                        rs.getString("stadium"),
+                        Phase.valueOf(rs.getString("phase")),
+                        rs.getString("group_letter"),
+                        rs.getLong("home_team_id"),
+                        rs.getLong("away_team_id"),
+                        rs.getObject("home_score", Integer.class),
+                        rs.getObject("away_score", Integer.class)));
+    }
+
+    public void insertRows(List<MatchScheduleRow> rows) {
+        batchUpdate("INSERT INTO matches (external_id, date, city, stadium, phase, group_letter, home_team_id, " +
+                        "away_team_id, home_score, away_score) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                rows.stream().map(row -> new Object[]{row.externalId(), row.date(), row.city(), row.stadium(),
+                        row.phase().name(), row.group(), row.homeTeamId(), row.awayTeamId(), row.homeScore(),
+                        row.awayScore()}).toList());
+    }
+
+    public void updateRows(List<MatchScheduleRow> rows) {
+        batchUpdate("UPDATE matches SET external_id = ?, date = ?, city = ?, stadium = ?, phase = ?, group_letter = ?, " +
+                        "home_team_id = ?, away_team_id = ?, home_score = ?, away_score = ? WHERE id = ?",
+                rows.stream().map(row -> new Object[]{row.externalId(), row.date(), row.city(), row.stadium(),
+                        row.phase().name(), row.group(), row.homeTeamId(), row.awayTeamId(), row.homeScore(),
+                        row.awayScore(), row.id()}).toList());
+    }
+
+    private void batchUpdate(String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(from + BATCH_SIZE, rows.size())));
+        }
+    }
+}
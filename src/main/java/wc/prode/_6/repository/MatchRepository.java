@@ -1,15 +1,28 @@
 package wc.prode._6.repository;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import wc.prode._6.entity.Match;
 import wc.prode._6.entity.Phase;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface MatchRepository extends JpaRepository<Match, Long> {
     List<Match> findByPhase(Phase phase);
     List<Match> findByPhaseOrderByDateAsc(Phase phase);
+    List<Match> findByPhaseNot(Phase phase);
+
+    /**
+     * Bloquea las filas de los partidos, en orden de id, hasta el fin de la transacción
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT m FROM Match m WHERE m.id IN :matchIds ORDER BY m.id")
+    List<Match> lockByIds(@Param("matchIds") Collection<Long> matchIds);
 }
 
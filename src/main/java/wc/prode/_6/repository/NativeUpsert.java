@@ -0,0 +1,134 @@
+package wc.prode._6.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Upsert nativo sobre una tabla con id IDENTITY y una clave única: una sola sentencia que inserta o actualiza,
+ * sin ventana entre la lectura y la escritura en la que dos requests concurrentes choquen con la clave única.
+ * Los parámetros van en el orden de las columnas: primero las de la clave y después las de valor.
+ * Opcionalmente devuelve el valor que tenía una columna de valor antes de actualizarla, leído por la misma
+ * sentencia; la columna solo puede tomar los valores indicados (o null).
+ */
+final class NativeUpsert {
+
+    // Marca del valor que MySQL devuelve como clave generada cuando la sentencia actualizó: los ids reales
+    // nunca llegan a 2^62, así que un valor con la marca lleva el id y el valor anterior codificados
+    static final long UPDATED_FLAG = 1L << 62;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UpsertDialect dialect;
+    private final int keyCount;
+    private final List<String> trackedValues;
+    private final String upsertSql;
+    private final String batchSql;
+    private final String idSql;
+
+    NativeUpsert(JdbcTemplate jdbcTemplate, UpsertDialect dialect, String table,
+                 List<String> keyColumns, List<String> valueColumns) {
+        this(jdbcTemplate, dialect, table, keyColumns, valueColumns, null, List.of());
+    }
+
+    /**
+     * @param trackedColumn columna de valor cuyo valor anterior se devuelve en UpsertResult.previous (null: ninguna)
+     * @param trackedValues valores posibles de esa columna
+     */
+    NativeUpsert(JdbcTemplate jdbcTemplate, UpsertDialect dialect, String table,
+                 List<String> keyColumns, List<String> valueColumns,
+                 String trackedColumn, List<String> trackedValues) {
+        if (trackedColumn != null && !valueColumns.contains(trackedColumn)) {
+            throw new IllegalArgumentException("Tracked column must be a value column: " + trackedColumn);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.dialect = dialect;
+        this.keyCount = keyColumns.size();
+        this.trackedValues = List.copyOf(trackedValues);
+
+        String columns = Stream.concat(keyColumns.stream(), valueColumns.stream()).collect(Collectors.joining(", "));
+        String placeholders = String.join(", ", Collections.nCopies(keyColumns.size() + valueColumns.size(), "?"));
+        if (dialect == UpsertDialect.MYSQL) {
+            String insert = "INSERT INTO " + table + " (" + columns + ") VALUES (" + placeholders + ") " +
+                    "ON DUPLICATE KEY UPDATE ";
+            // Al actualizar, LAST_INSERT_ID(marca + id * n + código del valor anterior) hace que MySQL devuelva
+            // como clave generada el id y el valor previo, leído en la asignación de la propia columna
+            String reported = trackedColumn != null ? trackedColumn : valueColumns.get(0);
+            String previousCode = trackedColumn == null ? "0" : "FIELD(" + trackedColumn + ", " + this.trackedValues
+                    .stream().map(value -> "'" + value.replace("'", "''") + "'").collect(Collectors.joining(", ")) + ")";
+            this.upsertSql = insert + valueColumns.stream()
+                    .map(column -> column.equals(reported)
+                            ? column + " = IF(LAST_INSERT_ID(" + UPDATED_FLAG + " + id * " + codes() + " + "
+                            + previousCode + ") IS NULL, NULL, VALUES(" + column + "))"
+                            : column + " = VALUES(" + column + ")")
+                    .collect(Collectors.joining(", "));
+            this.batchSql = insert + valueColumns.stream()
+                    .map(column -> column + " = VALUES(" + column + ")")
+                    .collect(Collectors.joining(", "));
+        } else {
+            String merge = "MERGE INTO " + table + " (" + columns + ") KEY (" + String.join(", ", keyColumns) + ") " +
+                    "VALUES (" + placeholders + ")";
+            // OLD TABLE devuelve la fila previa: vacía si el MERGE insertó
+            this.upsertSql = "SELECT id, " + (trackedColumn != null ? trackedColumn : "NULL") + " AS previous " +
+                    "FROM OLD TABLE (" + merge + ")";
+            this.batchSql = merge;
+        }
+        this.idSql = "SELECT id FROM " + table + " WHERE " + keyColumns.stream()
+                .map(column -> column + " = ?")
+                .collect(Collectors.joining(" AND "));
+    }
+
+    /**
+     * Inserta o actualiza una fila en un viaje a la base (dos en H2 cuando inserta, para leer el id)
+     */
+    UpsertResult upsert(Object... values) {
+        if (dialect == UpsertDialect.MYSQL) {
+            KeyHolder keyHolder = new GeneratedKeyHolder();
+            jdbcTemplate.update(connection -> {
+                PreparedStatement statement = connection.prepareStatement(upsertSql, Statement.RETURN_GENERATED_KEYS);
+                for (int i = 0; i < values.length; i++) {
+                    statement.setObject(i + 1, values[i]);
+                }
+                return statement;
+            }, keyHolder);
+            long key = keyHolder.getKey().longValue();
+            if (key < UPDATED_FLAG) {
+                return new UpsertResult(key, true);
+            }
+            long encoded = key - UPDATED_FLAG;
+            int code = (int) (encoded % codes());
+            return new UpsertResult(encoded / codes(), false, code == 0 ? null : trackedValues.get(code - 1));
+        }
+
+        List<Map<String, Object>> previous = jdbcTemplate.queryForList(upsertSql, values);
+        if (!previous.isEmpty()) {
+            Object value = previous.get(0).get("previous");
+            return new UpsertResult(((Number) previous.get(0).get("id")).longValue(), false,
+                    value == null ? null : value.toString());
+        }
+        Long id = jdbcTemplate.queryForObject(idSql, Long.class, Arrays.copyOf(values, keyCount));
+        return new UpsertResult(id, true);
+    }
+
+    /**
+     * Inserta o actualiza todas las filas en un único batch JDBC
+     */
+    void batchUpsert(List<Object[]> rows) {
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(batchSql, rows);
+        }
+    }
+
+    // Códigos del valor anterior: 0 para null (o sin columna seguida) y 1..n para cada valor posible
+    private int codes() {
+        return trackedValues.size() + 1;
+    }
+}
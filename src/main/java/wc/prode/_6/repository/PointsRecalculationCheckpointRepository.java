@@ -0,0 +1,17 @@
+package wc.prode._6.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import wc.prode._6.entity.PointsRecalculationCheckpoint;
+
+import java.util.Set;
+
+@Repository
+public interface PointsRecalculationCheckpointRepository extends JpaRepository<PointsRecalculationCheckpoint, Long> {
+    long countByRunId(Long runId);
+
+    @Query("SELECT c.partitionIndex FROM PointsRecalculationCheckpoint c WHERE c.runId = :runId")
+    Set<Integer> findCompletedPartitions(@Param("runId") Long runId);
+}
@@ -0,0 +1,13 @@
+package wc.prode._6.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import wc.prode._6.entity.PointsRecalculationRun;
+import wc.prode._6.entity.RecalculationStatus;
+
+import java.util.Optional;
+
+@Repository
+public interface PointsRecalculationRunRepository extends JpaRepository<PointsRecalculationRun, Long> {
+    Optional<PointsRecalculationRun> findFirstByStatusNotOrderByIdDesc(RecalculationStatus status);
+}
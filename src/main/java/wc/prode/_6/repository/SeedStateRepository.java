@@ -0,0 +1,9 @@
+package wc.prode._6.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import wc.prode._6.entity.SeedState;
+
+@Repository
+public interface SeedStateRepository extends JpaRepository<SeedState, String> {
+}
@@ -0,0 +1,25 @@
+package wc.prode._6.repository;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Variante de upsert nativo según la base: INSERT ... ON DUPLICATE KEY UPDATE en MySQL/MariaDB
+ * y MERGE ... KEY en H2 (desarrollo y tests)
+ */
+public enum UpsertDialect {
+    MYSQL,
+    H2;
+
+    public static UpsertDialect detect(JdbcTemplate jdbcTemplate) {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        if ("MySQL".equalsIgnoreCase(product) || "MariaDB".equalsIgnoreCase(product)) {
+            return MYSQL;
+        }
+        if ("H2".equalsIgnoreCase(product)) {
+            return H2;
+        }
+        throw new IllegalStateException("Unsupported database for native upserts: " + product);
+    }
+}
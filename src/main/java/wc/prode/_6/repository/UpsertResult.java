@@ -0,0 +1,12 @@
+package wc.prode._6.repository;
+
+/**
+ * Resultado de un upsert nativo: id de la fila, si se insertó (true) o se actualizó una existente (false)
+ * y, si el upsert sigue una columna, el valor que tenía antes de actualizarla (null si insertó o era null)
+ */
+public record UpsertResult(Long id, boolean inserted, String previous) {
+
+    public UpsertResult(Long id, boolean inserted) {
+        this(id, inserted, null);
+    }
+}
@@ -0,0 +1,26 @@
+package wc.prode._6.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Escritura nativa de pronósticos de llaves: upsert de una fila en una sola sentencia.
+ * Cambiar el ganador elegido borra los puntos registrados del pronóstico, que se vuelven a calcular al puntuar.
+ */
+@Repository
+public class UserBracketPredictionJdbcRepository {
+
+    private final NativeUpsert upsert;
+
+    public UserBracketPredictionJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.upsert = new NativeUpsert(jdbcTemplate, UpsertDialect.detect(jdbcTemplate), "user_bracket_predictions",
+                List.of("user_id", "match_id"), List.of("predicted_winner_id", "updated_at", "awarded_points"));
+    }
+
+    public UpsertResult upsertPrediction(Long userId, Long matchId, Long predictedWinnerId) {
+        return upsert.upsert(userId, matchId, predictedWinnerId, LocalDateTime.now(), null);
+    }
+}
@@ -1,19 +1,108 @@
 package wc.prode._6.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import wc.prode._6.entity.Phase;
 import wc.prode._6.entity.User;
 import wc.prode._6.entity.UserBracketPrediction;
+import wc.prode._6.repository.projection.PhasePoints;
+import wc.prode._6.repository.projection.UserPointsDelta;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserBracketPredictionRepository extends JpaRepository<UserBracketPrediction, Long> {
+
+    /**
+     * Puntos de un pronóstico de llaves (alias b): :points si eligió al ganador :winnerId, 0 si no
+     */
+    String BRACKET_POINTS = "CASE WHEN b.predictedWinner.id = :winnerId THEN :points ELSE 0 END";
+
+    /**
+     * Partido (alias m) con ganador: tiene marcador y no terminó empatado
+     */
+    String DECIDED = "(m.homeScore IS NOT NULL AND m.awayScore IS NOT NULL AND m.homeScore <> m.awayScore)";
+
+    /**
+     * Ganador de un partido definido (alias m)
+     */
+    String WINNER = "(CASE WHEN m.homeScore > m.awayScore THEN m.homeTeam.id ELSE m.awayTeam.id END)";
+
     List<UserBracketPrediction> findByUser(User user);
     Optional<UserBracketPrediction> findByUserAndMatchId(User user, Long matchId);
     List<UserBracketPrediction> findByUserAndMatchPhase(User user, Phase phase);
-}
 
+    /**
+     * Diferencia entre los puntos que corresponden al ganador indicado y los ya registrados por los pronósticos
+     * del partido, solo para los usuarios cuyo puntaje cambia. Debe ejecutarse antes de scoreMatch.
+     */
+    @Query("SELECT b.user.id AS userId, SUM(" + BRACKET_POINTS + " - COALESCE(b.awardedPoints, 0)) AS delta " +
+            "FROM UserBracketPrediction b WHERE b.match.id = :matchId " +
+            "GROUP BY b.user.id HAVING SUM(" + BRACKET_POINTS + " - COALESCE(b.awardedPoints, 0)) <> 0")
+    List<UserPointsDelta> findAwardedPointsDeltas(@Param("matchId") Long matchId,
+                                                  @Param("winnerId") Long winnerId,
+                                                  @Param("points") int points);
+
+    /**
+     * Registra los puntos de los pronósticos de un partido ya definido; solo escribe las filas que cambian
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE UserBracketPrediction b SET b.awardedPoints = " + BRACKET_POINTS + " " +
+            "WHERE b.match.id = :matchId AND b.predictedWinner IS NOT NULL " +
+            "AND (b.awardedPoints IS NULL OR b.awardedPoints <> " + BRACKET_POINTS + ")")
+    int scoreMatch(@Param("matchId") Long matchId, @Param("winnerId") Long winnerId, @Param("points") int points);
+
+    /**
+     * Marca con 0 los pronósticos de partidos sin definir que eligieron a alguno de los equipos eliminados indicados
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE UserBracketPrediction b SET b.awardedPoints = 0 " +
+            "WHERE b.match.id IN :matchIds AND b.predictedWinner.id IN :teamIds " +
+            "AND (b.awardedPoints IS NULL OR b.awardedPoints <> 0)")
+    int markEliminated(@Param("matchIds") Collection<Long> matchIds, @Param("teamIds") Collection<Long> teamIds);
+
+    /**
+     * Borra los puntos registrados de los pronósticos de partidos sin definir que eligieron a alguno de los
+     * equipos indicados, salvo que el equipo esté entre los eliminados para ese partido
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE UserBracketPrediction b SET b.awardedPoints = NULL " +
+            "WHERE b.match.id IN :matchIds AND b.predictedWinner.id IN :teamIds " +
+            "AND b.predictedWinner.id NOT IN :eliminatedTeamIds AND b.awardedPoints IS NOT NULL")
+    int clearAwardedPoints(@Param("matchIds") Collection<Long> matchIds,
+                           @Param("teamIds") Collection<Long> teamIds,
+                           @Param("eliminatedTeamIds") Collection<Long> eliminatedTeamIds);
+
+    /**
+     * Borra los puntos registrados de todos los pronósticos de partidos sin definir,
+     * salvo los que eligieron a un equipo eliminado para ese partido
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE UserBracketPrediction b SET b.awardedPoints = NULL " +
+            "WHERE b.match.id IN :matchIds AND b.predictedWinner.id NOT IN :eliminatedTeamIds " +
+            "AND b.awardedPoints IS NOT NULL")
+    int clearAllAwardedPoints(@Param("matchIds") Collection<Long> matchIds,
+                              @Param("eliminatedTeamIds") Collection<Long> eliminatedTeamIds);
+
+    /**
+     * Partidos de eliminación con algún pronóstico cuyo registro no coincide con el ganador actual: definidos sin
+     * registro o con el ganador cambiado, o sin definir con puntos registrados
+     */
+    @Query("SELECT DISTINCT m.id FROM UserBracketPrediction b JOIN b.match m " +
+            "WHERE b.predictedWinner IS NOT NULL AND ((" + DECIDED + " AND (b.awardedPoints IS NULL " +
+            "OR (b.awardedPoints > 0 AND b.predictedWinner.id <> " + WINNER + ") " +
+            "OR (b.awardedPoints = 0 AND b.predictedWinner.id = " + WINNER + "))) " +
+            "OR (NOT " + DECIDED + " AND b.awardedPoints > 0))")
+    List<Long> findMatchIdsWithStaleAwardedPoints();
+
+    @Query("SELECT b.match.phase AS phase, COUNT(b) AS scoredBets, SUM(b.awardedPoints) AS points " +
+            "FROM UserBracketPrediction b WHERE b.user.id = :userId AND b.awardedPoints IS NOT NULL " +
+            "GROUP BY b.match.phase")
+    List<PhasePoints> sumAwardedPointsByUserIdGroupByPhase(@Param("userId") Long userId);
+}
@@ -0,0 +1,37 @@
+package wc.prode._6.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Escritura de puntajes por JDBC: cada pasada de puntuación suma en un único batch la diferencia de todos los
+ * usuarios afectados (1X2 y llaves juntos), una sola fila por usuario.
+ * Se ejecuta dentro de la transacción JPA que esté activa.
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserJdbcRepository {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Suma a cada usuario su diferencia de puntos. Las filas se escriben en orden de id para que dos pasadas
+     * concurrentes bloqueen los usuarios en el mismo orden.
+     */
+    public void addTotalPoints(Map<Long, Long> deltas) {
+        List<Object[]> rows = deltas.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(delta -> new Object[]{delta.getValue(), delta.getKey()})
+                .toList();
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate("UPDATE users SET total_points = total_points + ? WHERE id = ?",
+                    rows.subList(from, Math.min(from + BATCH_SIZE, rows.size())));
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package wc.prode._6.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import wc.prode._6.entity.PredictedResult;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Escritura nativa de apuestas: upsert de una fila en una sola sentencia y upserts por lotes con JDBC.
+ * Las entidades usan ids IDENTITY, con lo que Hibernate no agrupa los INSERT; acá cada lote viaja en un único
+ * batch (una sola sentencia multi-fila en MySQL con rewriteBatchedStatements=true).
+ * Se ejecuta dentro de la transacción JPA que esté activa.
+ */
+@Repository
+public class UserMatchResultJdbcRepository {
+
+    private final NativeUpsert upsert;
+
+    public UserMatchResultJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.upsert = new NativeUpsert(jdbcTemplate, UpsertDialect.detect(jdbcTemplate), "user_match_results",
+                List.of("user_id", "match_id"), List.of("predicted_result", "updated_at"), "predicted_result",
+                Arrays.stream(PredictedResult.values()).map(Enum::name).toList());
+    }
+
+    /**
+     * Upsert de una apuesta; el resultado trae la apuesta anterior leída por la misma sentencia
+     */
+    public UpsertResult upsertPrediction(Long userId, Long matchId, PredictedResult predictedResult) {
+        return upsert.upsert(userId, matchId, predictedResult.name(), LocalDateTime.now());
+    }
+
+    public void upsertPredictions(Long userId, List<Map.Entry<Long, PredictedResult>> predictions) {
+        LocalDateTime now = LocalDateTime.now();
+        upsert.batchUpsert(predictions.stream()
+                .map(prediction -> new Object[]{userId, prediction.getKey(), prediction.getValue().name(), now})
+                .toList());
+    }
+}
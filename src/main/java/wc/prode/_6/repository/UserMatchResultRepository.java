@@ -1,19 +1,125 @@
 package wc.prode._6.repository;
 
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import wc.prode._6.entity.User;
 import wc.prode._6.entity.UserMatchResult;
+import wc.prode._6.repository.projection.PhasePoints;
+import wc.prode._6.repository.projection.PredictionCountRow;
+import wc.prode._6.repository.projection.PredictionRow;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface UserMatchResultRepository extends JpaRepository<UserMatchResult, Long> {
+
+    /**
+     * Puntos de una apuesta (alias r) sobre un partido (alias m): :points si acertó el resultado 1X2, 0 si no
+     * o si el partido todavía no tiene resultado
+     */
+    String BET_POINTS = "CASE WHEN (m.homeScore > m.awayScore AND r.predictedResult = wc.prode._6.entity.PredictedResult.HOME_WIN) " +
+            "OR (m.homeScore = m.awayScore AND r.predictedResult = wc.prode._6.entity.PredictedResult.DRAW) " +
+            "OR (m.homeScore < m.awayScore AND r.predictedResult = wc.prode._6.entity.PredictedResult.AWAY_WIN) " +
+            "THEN :points ELSE 0 END";
+
     List<UserMatchResult> findByUser(User user);
     Optional<UserMatchResult> findByUserAndMatchId(User user, Long matchId);
     boolean existsByUserAndMatchId(User user, Long matchId);
     List<UserMatchResult> findByMatchId(Long matchId);
     List<UserMatchResult> findByUserId(Long userId);
-}
 
+    /**
+     * Registra los puntos otorgados a cada apuesta de los partidos indicados según su resultado actual
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE UserMatchResult r SET r.awardedPoints = " +
+            "(SELECT CASE WHEN m.homeScore IS NULL OR m.awayScore IS NULL THEN NULL ELSE " + BET_POINTS + " END " +
+            "FROM Match m WHERE m.id = r.match.id) " +
+            "WHERE r.match.id IN :matchIds")
+    int updateAwardedPoints(@Param("matchIds") Collection<Long> matchIds, @Param("points") int points);
+
+    /**
+     * Registra los puntos otorgados a todas las apuestas según el resultado actual de cada partido
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE UserMatchResult r SET r.awardedPoints = " +
+            "(SELECT CASE WHEN m.homeScore IS NULL OR m.awayScore IS NULL THEN NULL ELSE " + BET_POINTS + " END " +
+            "FROM Match m WHERE m.id = r.match.id)")
+    int updateAllAwardedPoints(@Param("points") int points);
+
+    /**
+     * Registra los puntos otorgados a las apuestas de los usuarios de un rango de ids según el resultado de cada partido
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE UserMatchResult r SET r.awardedPoints = " +
+            "(SELECT CASE WHEN m.homeScore IS NULL OR m.awayScore IS NULL THEN NULL ELSE " + BET_POINTS + " END " +
+            "FROM Match m WHERE m.id = r.match.id) " +
+            "WHERE r.user.id BETWEEN :fromUserId AND :toUserId")
+    int updateAwardedPointsForUserRange(@Param("fromUserId") Long fromUserId,
+                                        @Param("toUserId") Long toUserId,
+                                        @Param("points") int points);
+
+    /**
+     * Completa el registro de las apuestas sobre partidos con resultado que todavía no tienen puntos registrados
+     * (por ejemplo, apuestas puntuadas antes de que existiera el registro). No modifica el puntaje de los usuarios,
+     * así que solo es válido una vez, al migrar: usar PointsService.backfillAwardedPoints.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE UserMatchResult r SET r.awardedPoints = " +
+            "(SELECT " + BET_POINTS + " FROM Match m WHERE m.id = r.match.id) " +
+            "WHERE r.awardedPoints IS NULL AND r.match.id IN " +
+            "(SELECT m.id FROM Match m WHERE m.homeScore IS NOT NULL AND m.awayScore IS NOT NULL)")
+    int backfillAwardedPoints(@Param("points") int points);
+
+    /**
+     * Partidos con alguna apuesta cuyo registro de puntos no coincide con el resultado actual: puntuados sin
+     * registro, con registro sin resultado o con un resultado editado que no se llegó a puntuar
+     */
+    @Query("SELECT DISTINCT m.id FROM UserMatchResult r JOIN r.match m " +
+            "WHERE CASE WHEN m.homeScore IS NULL OR m.awayScore IS NULL THEN -1 ELSE " + BET_POINTS + " END " +
+            "<> COALESCE(r.awardedPoints, -1)")
+    List<Long> findMatchIdsWithStaleAwardedPoints(@Param("points") int points);
+
+    @Query("SELECT COALESCE(SUM(r.awardedPoints), 0) FROM UserMatchResult r WHERE r.user.id = :userId")
+    long sumAwardedPointsByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT r.match.phase AS phase, COUNT(r) AS scoredBets, SUM(r.awardedPoints) AS points " +
+            "FROM UserMatchResult r WHERE r.user.id = :userId AND r.awardedPoints IS NOT NULL " +
+            "GROUP BY r.match.phase")
+    List<PhasePoints> sumAwardedPointsByUserIdGroupByPhase(@Param("userId") Long userId);
+
+    /**
+     * Recorre todas las apuestas como filas (usuario, partido, resultado) sin cargar entidades.
+     * Debe consumirse dentro de una transacción.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT r.user.id AS userId, r.match.id AS matchId, r.predictedResult AS predictedResult " +
+            "FROM UserMatchResult r")
+    Stream<PredictionRow> streamAllPredictions();
+
+    /**
+     * Apuestas ya cargadas por el usuario sobre los partidos indicados
+     */
+    @Query("SELECT r.user.id AS userId, r.match.id AS matchId, r.predictedResult AS predictedResult " +
+            "FROM UserMatchResult r WHERE r.user.id = :userId AND r.match.id IN :matchIds")
+    List<PredictionRow> findPredictionsByUserIdAndMatchIds(@Param("userId") Long userId,
+                                                           @Param("matchIds") Collection<Long> matchIds);
+
+    /**
+     * Cantidad de apuestas por grupo, partido y resultado. Solo para la conciliación periódica del consenso.
+     */
+    @Query("SELECT g.id AS groupId, r.match.id AS matchId, r.predictedResult AS predictedResult, COUNT(r) AS total " +
+            "FROM UserMatchResult r JOIN r.user u LEFT JOIN u.group g " +
+            "GROUP BY g.id, r.match.id, r.predictedResult")
+    List<PredictionCountRow> countPredictionsByGroupAndMatch();
+}
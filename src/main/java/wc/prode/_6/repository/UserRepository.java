@@ -1,16 +1,190 @@
 package wc.prode._6.repository;
 
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import wc.prode._6.entity.User;
+import wc.prode._6.repository.projection.PointsBucket;
+import wc.prode._6.repository.projection.RankedUser;
+import wc.prode._6.repository.projection.RankingRow;
+import wc.prode._6.repository.projection.UserPointsDelta;
+import wc.prode._6.repository.projection.UserPointsDiff;
+import wc.prode._6.repository.projection.UserTotalPoints;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+import static wc.prode._6.repository.UserMatchResultRepository.BET_POINTS;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+    /**
+     * Registro de puntos de un usuario (alias u) por pronósticos de llaves
+     */
+    String BRACKET_AWARDED_POINTS = "COALESCE((SELECT SUM(b.awardedPoints) FROM UserBracketPrediction b " +
+            "WHERE b.user.id = u.id), 0)";
+
+    /**
+     * Puntaje de un usuario (alias u) sumado desde el registro de puntos por apuesta y por pronóstico de llaves
+     */
+    String AWARDED_POINTS = "COALESCE((SELECT SUM(r.awardedPoints) FROM UserMatchResult r " +
+            "WHERE r.user.id = u.id), 0) + " + BRACKET_AWARDED_POINTS;
+
+    /**
+     * Usuarios (alias u) con una apuesta o un pronóstico de llaves en alguno de los partidos :matchIds
+     */
+    String PREDICTED_MATCHES = "(u.id IN (SELECT r.user.id FROM UserMatchResult r WHERE r.match.id IN :matchIds) " +
+            "OR u.id IN (SELECT b.user.id FROM UserBracketPrediction b WHERE b.match.id IN :matchIds))";
+
     Optional<User> findByEmail(String email);
+
+    @Query("SELECT u.id FROM User u WHERE u.email = :email")
+    Optional<Long> findIdByEmail(@Param("email") String email);
+
+    @Query("SELECT u.totalPoints FROM User u WHERE u.id = :userId")
+    Optional<Integer> findTotalPointsById(@Param("userId") Long userId);
+
     boolean existsByEmail(String email);
     List<User> findByGroupId(Long groupId);
-}
 
+    /**
+     * Diferencia entre los puntos que corresponden a las apuestas sobre los partidos indicados y los que ya figuran
+     * en el registro de puntos por apuesta, solo para los usuarios cuyo puntaje cambia.
+     * Debe ejecutarse antes de actualizar el registro (UserMatchResultRepository.updateAwardedPoints).
+     */
+    @Query("SELECT r.user.id AS userId, SUM(" + BET_POINTS + " - COALESCE(r.awardedPoints, 0)) AS delta " +
+            "FROM UserMatchResult r JOIN r.match m WHERE m.id IN :matchIds " +
+            "GROUP BY r.user.id HAVING SUM(" + BET_POINTS + " - COALESCE(r.awardedPoints, 0)) <> 0")
+    List<UserPointsDelta> findAwardedPointsDeltas(@Param("matchIds") Collection<Long> matchIds,
+                                                  @Param("points") int points);
+
+    /**
+     * Puntaje de los usuarios que apostaron o pronosticaron llaves en alguno de los partidos indicados
+     */
+    @Query("SELECT u.id AS userId, u.totalPoints AS totalPoints FROM User u WHERE " + PREDICTED_MATCHES)
+    List<UserTotalPoints> findTotalPointsByMatchIds(@Param("matchIds") Collection<Long> matchIds);
+
+    /**
+     * Histograma de puntajes: cantidad de usuarios por puntaje (se resuelve sobre el índice de total_points)
+     */
+    @Query("SELECT u.totalPoints AS points, COUNT(u) AS users FROM User u GROUP BY u.totalPoints")
+    List<PointsBucket> countUsersByTotalPoints();
+
+    @Query(RANKED_USER_SELECT + "ORDER BY u.totalPoints DESC, u.name, u.id")
+    List<RankedUser> findTopRankedUsers(Pageable pageable);
+
+    /**
+     * Recalcula el puntaje de los usuarios que apostaron o pronosticaron llaves en los partidos indicados
+     * sumando su registro de puntos
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE User u SET u.totalPoints = " + AWARDED_POINTS + " WHERE " + PREDICTED_MATCHES)
+    int recalculateTotalPointsForMatches(@Param("matchIds") Collection<Long> matchIds);
+
+    /**
+     * Recalcula el puntaje de todos los usuarios en una sola sentencia sumando su registro de puntos
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE User u SET u.totalPoints = " + AWARDED_POINTS)
+    int recalculateAllTotalPoints();
+
+    /**
+     * Recalcula el puntaje de los usuarios de un rango de ids sumando su registro de puntos
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE User u SET u.totalPoints = " + AWARDED_POINTS + " WHERE u.id BETWEEN :fromUserId AND :toUserId")
+    int recalculateTotalPointsForUserRange(@Param("fromUserId") Long fromUserId, @Param("toUserId") Long toUserId);
+
+    @Query("SELECT MIN(u.id) FROM User u")
+    Long findMinId();
+
+    @Query("SELECT MAX(u.id) FROM User u")
+    Long findMaxId();
+
+    /**
+     * Usuarios cuyo puntaje guardado no coincide con el que surge de sus apuestas (los puntos de llaves se toman
+     * del registro, que debe estar al día)
+     */
+    @Query("SELECT u.id AS userId, u.name AS userName, u.totalPoints AS storedPoints, " +
+            "COALESCE(SUM(" + BET_POINTS + "), 0) + " + BRACKET_AWARDED_POINTS + " AS calculatedPoints " +
+            "FROM User u LEFT JOIN UserMatchResult r ON r.user.id = u.id LEFT JOIN r.match m " +
+            "GROUP BY u.id, u.name, u.totalPoints " +
+            "HAVING COALESCE(SUM(" + BET_POINTS + "), 0) + " + BRACKET_AWARDED_POINTS + " <> u.totalPoints " +
+            "ORDER BY u.id")
+    List<UserPointsDiff> findPointsDifferences(@Param("points") int points);
+
+    String RANKED_USER_SELECT = "SELECT u.id AS id, u.name AS name, u.email AS email, u.pictureUrl AS pictureUrl, " +
+            "g.id AS groupId, u.totalPoints AS totalPoints FROM User u LEFT JOIN u.group g ";
+
+    /**
+     * Recorre los usuarios que pertenecen a un grupo con los datos del ranking. Debe consumirse dentro de una transacción.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query(RANKED_USER_SELECT + "WHERE g.id IS NOT NULL")
+    Stream<RankedUser> streamRankedUsers();
+
+    @Query(RANKED_USER_SELECT + "WHERE u.id IN :userIds")
+    List<RankedUser> findRankedUsersByIds(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * Miembros de un grupo en el orden del ranking (puntos, nombre, id), paginados por clave: cada página se busca
+     * desde la clave del cursor sobre el índice (group_id, total_points) sin recorrer ni ordenar el grupo completo.
+     * La posición no se calcula con funciones de ventana: sale de contar los miembros con más puntos.
+     */
+    String GROUP_MEMBER_ROW = "SELECT u.id AS userId, u.name AS userName, u.picture_url AS pictureUrl, " +
+            "u.total_points AS totalPoints FROM users u WHERE u.group_id = :groupId ";
+
+    String RANKING_AFTER_KEY = "AND (u.total_points < :points OR (u.total_points = :points AND " +
+            "(u.name > :name OR (u.name = :name AND u.id > :userId)))) ";
+
+    String RANKING_BEFORE_KEY = "AND (u.total_points > :points OR (u.total_points = :points AND " +
+            "(u.name < :name OR (u.name = :name AND u.id < :userId)))) ";
+
+    long countByGroupId(Long groupId);
+
+    /**
+     * Miembros del grupo con más puntos que points: la posición (con empates) de quien tiene points es este valor + 1
+     */
+    long countByGroupIdAndTotalPointsGreaterThan(Long groupId, Integer points);
+
+    @Query(value = GROUP_MEMBER_ROW + "ORDER BY u.total_points DESC, u.name, u.id LIMIT :size", nativeQuery = true)
+    List<RankingRow> findRankingFirstPage(@Param("groupId") Long groupId, @Param("size") int size);
+
+    /**
+     * Página siguiente a la clave (puntos, nombre, id) del cursor
+     */
+    @Query(value = GROUP_MEMBER_ROW + RANKING_AFTER_KEY + "ORDER BY u.total_points DESC, u.name, u.id LIMIT :size",
+            nativeQuery = true)
+    List<RankingRow> findRankingPageAfter(@Param("groupId") Long groupId, @Param("points") int points,
+                                          @Param("name") String name, @Param("userId") Long userId,
+                                          @Param("size") int size);
+
+    /**
+     * Página anterior a la clave (puntos, nombre, id) del cursor, en orden inverso
+     */
+    @Query(value = GROUP_MEMBER_ROW + RANKING_BEFORE_KEY +
+            "ORDER BY u.total_points, u.name DESC, u.id DESC LIMIT :size", nativeQuery = true)
+    List<RankingRow> findRankingPageBefore(@Param("groupId") Long groupId, @Param("points") int points,
+                                           @Param("name") String name, @Param("userId") Long userId,
+                                           @Param("size") int size);
+
+    /**
+     * Cantidad de miembros del grupo ubicados antes de la clave (puntos, nombre, id) en el ranking
+     */
+    @Query(value = "SELECT COUNT(*) FROM users u WHERE u.group_id = :groupId " + RANKING_BEFORE_KEY,
+            nativeQuery = true)
+    long countRankingRowsBefore(@Param("groupId") Long groupId, @Param("points") int points,
+                                @Param("name") String name, @Param("userId") Long userId);
+
+    @Query(value = GROUP_MEMBER_ROW + "AND u.id = :userId", nativeQuery = true)
+    Optional<RankingRow> findRankingRow(@Param("groupId") Long groupId, @Param("userId") Long userId);
+}
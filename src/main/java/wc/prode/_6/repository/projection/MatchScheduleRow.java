@@ -0,0 +1,27 @@
+package wc.prode._6.repository.projection;
+
+import wc.prode._6.entity.Phase;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Fila de la tabla matches con los datos que trae el feed de FIFA, leída sin cargar los equipos
+ */
+public record MatchScheduleRow(Long id,
+                               String externalId,
+                               LocalDateTime date,
+                               String city,
+                               String stadium,
+                               Phase phase,
+                               String group,
+                               Long homeTeamId,
+                               Long awayTeamId,
+                               Integer homeScore,
+                               Integer awayScore) {
+
+    public boolean sameResult(MatchScheduleRow other) {
+        return Objects.equals(homeScore, other.homeScore)
+                && Objects.equals(awayScore, other.awayScore);
+    }
+}
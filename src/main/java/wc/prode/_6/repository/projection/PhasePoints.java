@@ -0,0 +1,12 @@
+package wc.prode._6.repository.projection;
+
+import wc.prode._6.entity.Phase;
+
+/**
+ * Puntos obtenidos por un usuario en una fase, sumados desde el registro de puntos por apuesta
+ */
+public interface PhasePoints {
+    Phase getPhase();
+    Long getScoredBets();
+    Long getPoints();
+}
@@ -0,0 +1,9 @@
+package wc.prode._6.repository.projection;
+
+/**
+ * Cantidad de usuarios con un mismo puntaje
+ */
+public interface PointsBucket {
+    Integer getPoints();
+    Long getUsers();
+}
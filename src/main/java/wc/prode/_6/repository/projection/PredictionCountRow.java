@@ -0,0 +1,13 @@
+package wc.prode._6.repository.projection;
+
+import wc.prode._6.entity.PredictedResult;
+
+/**
+ * Cantidad de apuestas de un resultado sobre un partido entre los usuarios de un grupo (groupId null: sin grupo)
+ */
+public interface PredictionCountRow {
+    Long getGroupId();
+    Long getMatchId();
+    PredictedResult getPredictedResult();
+    Long getTotal();
+}
@@ -0,0 +1,12 @@
+package wc.prode._6.repository.projection;
+
+import wc.prode._6.entity.PredictedResult;
+
+/**
+ * Apuesta 1X2 de un usuario sobre un partido, sin cargar las entidades relacionadas
+ */
+public interface PredictionRow {
+    Long getUserId();
+    Long getMatchId();
+    PredictedResult getPredictedResult();
+}
@@ -0,0 +1,13 @@
+package wc.prode._6.repository.projection;
+
+/**
+ * Datos de un usuario necesarios para ubicarlo en el ranking, sin cargar la entidad
+ */
+public interface RankedUser {
+    Long getId();
+    String getName();
+    String getEmail();
+    String getPictureUrl();
+    Long getGroupId();
+    Integer getTotalPoints();
+}
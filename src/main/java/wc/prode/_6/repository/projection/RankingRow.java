@@ -0,0 +1,11 @@
+package wc.prode._6.repository.projection;
+
+/**
+ * Fila del ranking de un grupo; la posición se calcula aparte, contando sobre el índice de puntos
+ */
+public interface RankingRow {
+    Long getUserId();
+    String getUserName();
+    String getPictureUrl();
+    Integer getTotalPoints();
+}
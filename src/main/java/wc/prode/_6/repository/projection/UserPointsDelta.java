@@ -0,0 +1,9 @@
+package wc.prode._6.repository.projection;
+
+/**
+ * Diferencia de puntos que le corresponde a un usuario por las apuestas sobre un conjunto de partidos
+ */
+public interface UserPointsDelta {
+    Long getUserId();
+    Long getDelta();
+}
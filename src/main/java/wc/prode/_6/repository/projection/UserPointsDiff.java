@@ -0,0 +1,11 @@
+package wc.prode._6.repository.projection;
+
+/**
+ * Diferencia entre el puntaje guardado de un usuario y el que surge de recalcular todas sus apuestas
+ */
+public interface UserPointsDiff {
+    Long getUserId();
+    String getUserName();
+    Integer getStoredPoints();
+    Long getCalculatedPoints();
+}
@@ -0,0 +1,6 @@
+package wc.prode._6.repository.projection;
+
+public interface UserTotalPoints {
+    Long getUserId();
+    Integer getTotalPoints();
+}
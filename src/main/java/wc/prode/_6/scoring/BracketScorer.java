@@ -0,0 +1,166 @@
+package wc.prode._6.scoring;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import wc.prode._6.entity.Match;
+import wc.prode._6.entity.Phase;
+import wc.prode._6.repository.MatchRepository;
+import wc.prode._6.repository.UserBracketPredictionRepository;
+import wc.prode._6.repository.projection.UserPointsDelta;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Puntuación de los pronósticos de llaves (ganador de cada partido de eliminación), con puntos configurables
+ * por fase. Igual que el 1X2 es incremental: por cada partido que se define o cambia solo se calculan las
+ * diferencias de sus pronósticos, y el registro de puntos de los pronósticos que eligieron a un equipo ya
+ * eliminado se actualiza solo para los equipos de esos partidos.
+ * Debe ejecutarse dentro de una transacción.
+ */
+@Component
+@Slf4j
+public class BracketScorer {
+
+    // Id que no corresponde a ningún equipo: ganador de un partido sin definir y relleno de listas IN vacías
+    private static final Long NO_TEAM = -1L;
+
+    private final MatchRepository matchRepository;
+    private final UserBracketPredictionRepository bracketPredictionRepository;
+    private final Map<Phase, Integer> points = new EnumMap<>(Phase.class);
+
+    public BracketScorer(MatchRepository matchRepository,
+                         UserBracketPredictionRepository bracketPredictionRepository,
+                         @Value("${bracket.points.round-of-32:1}") int roundOf32,
+                         @Value("${bracket.points.round-of-16:2}") int roundOf16,
+                         @Value("${bracket.points.quarter-final:3}") int quarterFinal,
+                         @Value("${bracket.points.semi-final:4}") int semiFinal,
+                         @Value("${bracket.points.third-place:3}") int thirdPlace,
+                         @Value("${bracket.points.final:5}") int finalMatch) {
+        this.matchRepository = matchRepository;
+        this.bracketPredictionRepository = bracketPredictionRepository;
+        points.put(Phase.GROUP, 0);
+        points.put(Phase.ROUND_OF_32, roundOf32);
+        points.put(Phase.ROUND_OF_16, roundOf16);
+        points.put(Phase.QUARTER_FINAL, quarterFinal);
+        points.put(Phase.SEMI_FINAL, semiFinal);
+        points.put(Phase.THIRD_PLACE, thirdPlace);
+        points.put(Phase.FINAL, finalMatch);
+    }
+
+    public int getPoints(Phase phase) {
+        return points.get(phase);
+    }
+
+    /**
+     * Foto actual de las llaves, leída una vez por pasada de puntuación
+     */
+    public KnockoutBracket loadBracket() {
+        return KnockoutBracket.of(matchRepository.findByPhaseNot(Phase.GROUP));
+    }
+
+    /**
+     * Diferencia de puntos de llaves de cada usuario por los partidos indicados (los de fase de grupos se ignoran),
+     * solo para los usuarios cuyo puntaje cambia. Debe ejecutarse antes de updateLedger.
+     */
+    public Map<Long, Long> findDeltas(KnockoutBracket bracket, Collection<Long> matchIds) {
+        Map<Long, Long> deltas = new HashMap<>();
+        for (Long matchId : matchIds) {
+            if (!bracket.contains(matchId)) {
+                continue;
+            }
+            Long winner = bracket.getWinner(matchId);
+            int matchPoints = winner != null ? getPoints(bracket.getMatch(matchId).getPhase()) : 0;
+            for (UserPointsDelta delta : bracketPredictionRepository.findAwardedPointsDeltas(
+                    matchId, winner != null ? winner : NO_TEAM, matchPoints)) {
+                deltas.merge(delta.getUserId(), delta.getDelta(), Long::sum);
+            }
+        }
+        return deltas;
+    }
+
+    /**
+     * Actualiza el registro de puntos de los pronósticos de los partidos indicados y, en los partidos todavía
+     * sin definir, el de los pronósticos que eligieron a alguno de sus equipos según hayan quedado eliminados o no
+     */
+    public void updateLedger(KnockoutBracket bracket, Collection<Long> matchIds) {
+        Set<Long> teams = new HashSet<>();
+        for (Long matchId : matchIds) {
+            if (!bracket.contains(matchId)) {
+                continue;
+            }
+            Match match = bracket.getMatch(matchId);
+            if (match.getHomeTeam() != null) {
+                teams.add(match.getHomeTeam().getId());
+            }
+            if (match.getAwayTeam() != null) {
+                teams.add(match.getAwayTeam().getId());
+            }
+            if (bracket.getWinner(matchId) != null) {
+                bracketPredictionRepository.scoreMatch(matchId, bracket.getWinner(matchId),
+                        getPoints(match.getPhase()));
+            } else {
+                // Partido que dejó de estar definido: vuelve a quedar pendiente salvo para los equipos eliminados
+                Set<Long> eliminated = bracket.getEliminated(match.getPhase());
+                bracketPredictionRepository.clearAllAwardedPoints(List.of(matchId), orNoTeam(eliminated));
+                bracketPredictionRepository.markEliminated(List.of(matchId), orNoTeam(eliminated));
+            }
+        }
+        if (teams.isEmpty()) {
+            return;
+        }
+
+        for (Phase phase : Phase.values()) {
+            List<Long> undecided = bracket.getUndecidedMatchIds(phase);
+            if (undecided.isEmpty()) {
+                continue;
+            }
+            Set<Long> eliminated = new HashSet<>();
+            for (Long team : teams) {
+                if (bracket.isEliminated(team, phase)) {
+                    eliminated.add(team);
+                }
+            }
+            bracketPredictionRepository.clearAwardedPoints(undecided, teams, orNoTeam(eliminated));
+            if (!eliminated.isEmpty()) {
+                bracketPredictionRepository.markEliminated(undecided, eliminated);
+            }
+        }
+    }
+
+    /**
+     * Rearma el registro de puntos de todos los pronósticos de llaves (recálculos completos).
+     * No modifica el puntaje de los usuarios.
+     */
+    public void rescoreAll() {
+        KnockoutBracket bracket = loadBracket();
+        for (Long matchId : bracket.getMatchIds()) {
+            Long winner = bracket.getWinner(matchId);
+            if (winner != null) {
+                bracketPredictionRepository.scoreMatch(matchId, winner, getPoints(bracket.getMatch(matchId).getPhase()));
+            }
+        }
+        for (Phase phase : Phase.values()) {
+            List<Long> undecided = bracket.getUndecidedMatchIds(phase);
+            if (undecided.isEmpty()) {
+                continue;
+            }
+            Set<Long> eliminated = bracket.getEliminated(phase);
+            bracketPredictionRepository.clearAllAwardedPoints(undecided, orNoTeam(eliminated));
+            if (!eliminated.isEmpty()) {
+                bracketPredictionRepository.markEliminated(undecided, eliminated);
+            }
+        }
+        log.debug("Bracket ledger rescored for {} knockout matches", bracket.getMatchIds().size());
+    }
+
+    private static Collection<Long> orNoTeam(Set<Long> teamIds) {
+        return teamIds.isEmpty() ? List.of(NO_TEAM) : teamIds;
+    }
+}
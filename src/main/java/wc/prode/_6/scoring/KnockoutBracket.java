@@ -0,0 +1,103 @@
+package wc.prode._6.scoring;
+
+import wc.prode._6.entity.Match;
+import wc.prode._6.entity.Phase;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Foto de las llaves para puntuar pronósticos: ganador de cada partido de eliminación ya definido y, por fase,
+ * el conjunto precalculado de equipos que ya no pueden jugarla, de modo que saber si el equipo elegido en un
+ * pronóstico quedó eliminado antes es una consulta O(1).
+ * Un partido está definido cuando tiene marcador y no terminó empatado (los penales no se registran).
+ */
+public final class KnockoutBracket {
+
+    private final Map<Long, Match> matches = new HashMap<>();
+    private final Map<Long, Long> winners = new HashMap<>();
+    private final Map<Phase, Set<Long>> eliminated = new EnumMap<>(Phase.class);
+    private final Map<Phase, List<Long>> undecided = new EnumMap<>(Phase.class);
+
+    private KnockoutBracket(Collection<Match> knockoutMatches) {
+        for (Phase phase : Phase.values()) {
+            eliminated.put(phase, new HashSet<>());
+            undecided.put(phase, new ArrayList<>());
+        }
+        for (Match match : knockoutMatches) {
+            matches.put(match.getId(), match);
+            Long winner = winnerOf(match);
+            if (winner == null) {
+                undecided.get(match.getPhase()).add(match.getId());
+                continue;
+            }
+            winners.put(match.getId(), winner);
+            Long loser = winner.equals(match.getHomeTeam().getId())
+                    ? match.getAwayTeam().getId() : match.getHomeTeam().getId();
+            for (Phase phase : Phase.values()) {
+                // El perdedor de una semifinal todavía juega el tercer puesto; el ganador ya no
+                if (phase.compareTo(match.getPhase()) > 0
+                        && !(match.getPhase() == Phase.SEMI_FINAL && phase == Phase.THIRD_PLACE)) {
+                    eliminated.get(phase).add(loser);
+                }
+            }
+            if (match.getPhase() == Phase.SEMI_FINAL) {
+                eliminated.get(Phase.THIRD_PLACE).add(winner);
+            }
+        }
+    }
+
+    public static KnockoutBracket of(Collection<Match> knockoutMatches) {
+        return new KnockoutBracket(knockoutMatches);
+    }
+
+    public boolean contains(Long matchId) {
+        return matches.containsKey(matchId);
+    }
+
+    public Match getMatch(Long matchId) {
+        return matches.get(matchId);
+    }
+
+    public Collection<Long> getMatchIds() {
+        return matches.keySet();
+    }
+
+    /**
+     * Ganador del partido, o null si todavía no está definido
+     */
+    public Long getWinner(Long matchId) {
+        return winners.get(matchId);
+    }
+
+    public boolean isEliminated(Long teamId, Phase phase) {
+        return eliminated.get(phase).contains(teamId);
+    }
+
+    /**
+     * Equipos que ya no pueden jugar un partido de la fase
+     */
+    public Set<Long> getEliminated(Phase phase) {
+        return eliminated.get(phase);
+    }
+
+    public List<Long> getUndecidedMatchIds(Phase phase) {
+        return undecided.get(phase);
+    }
+
+    private static Long winnerOf(Match match) {
+        if (match.getHomeScore() == null || match.getAwayScore() == null
+                || match.getHomeScore().equals(match.getAwayScore())
+                || match.getHomeTeam() == null || match.getAwayTeam() == null) {
+            return null;
+        }
+        return match.getHomeScore() > match.getAwayScore()
+                ? match.getHomeTeam().getId() : match.getAwayTeam().getId();
+    }
+}
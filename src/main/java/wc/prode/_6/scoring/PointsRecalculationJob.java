@@ -0,0 +1,204 @@
+package wc.prode._6.scoring;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import wc.prode._6.entity.PointsRecalculationCheckpoint;
+import wc.prode._6.entity.PointsRecalculationRun;
+import wc.prode._6.entity.RecalculationStatus;
+import wc.prode._6.event.PointsRecalculatedEvent;
+import wc.prode._6.exception.BadRequestException;
+import wc.prode._6.repository.PointsRecalculationCheckpointRepository;
+import wc.prode._6.repository.PointsRecalculationRunRepository;
+import wc.prode._6.repository.UserMatchResultRepository;
+import wc.prode._6.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static wc.prode._6.scoring.ScoringRules.POINTS_CORRECT_RESULT;
+
+/**
+ * Recálculo completo de puntos dividido en particiones por rango de ids de usuario.
+ * Las particiones se procesan en paralelo sobre un pool acotado, cada una en su propia transacción corta
+ * con sentencias agregadas (no se cargan entidades, por lo que el uso de memoria no depende de la cantidad de usuarios).
+ * Cada partición terminada deja un checkpoint, de modo que una corrida interrumpida puede retomarse
+ * procesando solo las particiones pendientes. El registro de puntos de las llaves se rearma una vez al iniciar
+ * (son pocos partidos), antes de que las particiones sumen los puntajes.
+ */
+@Component
+@Slf4j
+public class PointsRecalculationJob {
+
+    private final UserRepository userRepository;
+    private final UserMatchResultRepository userMatchResultRepository;
+    private final BracketScorer bracketScorer;
+    private final PointsRecalculationRunRepository runRepository;
+    private final PointsRecalculationCheckpointRepository checkpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService executor;
+    private final int defaultPartitionSize;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    public PointsRecalculationJob(UserRepository userRepository,
+                                  UserMatchResultRepository userMatchResultRepository,
+                                  BracketScorer bracketScorer,
+                                  PointsRecalculationRunRepository runRepository,
+                                  PointsRecalculationCheckpointRepository checkpointRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  ApplicationEventPublisher eventPublisher,
+                                  @Value("${points.recalculation.parallelism:4}") int parallelism,
+                                  @Value("${points.recalculation.partition-size:5000}") int defaultPartitionSize) {
+        this.userRepository = userRepository;
+        this.userMatchResultRepository = userMatchResultRepository;
+        this.bracketScorer = bracketScorer;
+        this.runRepository = runRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.defaultPartitionSize = defaultPartitionSize;
+        this.eventPublisher = eventPublisher;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "points-recalculation-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Inicia (o retoma, si resume es true y hay una corrida sin completar) un recálculo particionado.
+     * Devuelve la corrida de inmediato; las particiones se procesan en segundo plano.
+     */
+    public PointsRecalculationRun start(Integer partitionSize, boolean resume) {
+        if (!running.compareAndSet(false, true)) {
+            throw new BadRequestException("A points recalculation is already running");
+        }
+
+        try {
+            PointsRecalculationRun run = resume
+                    ? runRepository.findFirstByStatusNotOrderByIdDesc(RecalculationStatus.COMPLETED).orElse(null)
+                    : null;
+
+            if (run == null) {
+                run = runRepository.save(createRun(partitionSize != null ? partitionSize : defaultPartitionSize));
+            } else {
+                log.info("Resuming points recalculation run {}", run.getId());
+                run.setStatus(RecalculationStatus.RUNNING);
+                run.setFinishedAt(null);
+                run = runRepository.save(run);
+            }
+
+            transactionTemplate.executeWithoutResult(status -> bracketScorer.rescoreAll());
+            submitPendingPartitions(run);
+            return run;
+        } catch (RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+    }
+
+    public long countCompletedPartitions(Long runId) {
+        return checkpointRepository.countByRunId(runId);
+    }
+
+    private PointsRecalculationRun createRun(int partitionSize) {
+        if (partitionSize <= 0) {
+            throw new BadRequestException("Partition size must be greater than zero");
+        }
+
+        Long minUserId = userRepository.findMinId();
+        Long maxUserId = userRepository.findMaxId();
+        int totalPartitions = 0;
+        if (minUserId == null || maxUserId == null) {
+            minUserId = 0L;
+            maxUserId = 0L;
+        } else {
+            totalPartitions = (int) ((maxUserId - minUserId) / partitionSize) + 1;
+        }
+
+        return PointsRecalculationRun.builder()
+                .status(RecalculationStatus.RUNNING)
+                .partitionSize(partitionSize)
+                .minUserId(minUserId)
+                .maxUserId(maxUserId)
+                .totalPartitions(totalPartitions)
+                .build();
+    }
+
+    private void submitPendingPartitions(PointsRecalculationRun run) {
+        Set<Integer> completedPartitions = checkpointRepository.findCompletedPartitions(run.getId());
+        List<CompletableFuture<Boolean>> partitions = new ArrayList<>();
+
+        for (int partition = 0; partition < run.getTotalPartitions(); partition++) {
+            if (completedPartitions.contains(partition)) {
+                continue;
+            }
+            long fromUserId = run.getMinUserId() + (long) partition * run.getPartitionSize();
+            long toUserId = Math.min(fromUserId + run.getPartitionSize() - 1, run.getMaxUserId());
+            int partitionIndex = partition;
+            partitions.add(CompletableFuture.supplyAsync(
+                    () -> recalculatePartition(run.getId(), partitionIndex, fromUserId, toUserId), executor));
+        }
+
+        log.info("Points recalculation run {}: {} of {} partitions pending",
+                run.getId(), partitions.size(), run.getTotalPartitions());
+
+        CompletableFuture.allOf(partitions.toArray(CompletableFuture[]::new))
+                .whenComplete((ignored, error) -> finish(run.getId(),
+                        partitions.stream().filter(partition -> !partition.join()).count()));
+    }
+
+    /**
+     * Recalcula una partición en una transacción propia y registra su checkpoint en la misma transacción
+     * @return true si la partición terminó correctamente
+     */
+    private boolean recalculatePartition(Long runId, int partitionIndex, long fromUserId, long toUserId) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                userMatchResultRepository.updateAwardedPointsForUserRange(fromUserId, toUserId, POINTS_CORRECT_RESULT);
+                userRepository.recalculateTotalPointsForUserRange(fromUserId, toUserId);
+                checkpointRepository.save(PointsRecalculationCheckpoint.builder()
+                        .runId(runId)
+                        .partitionIndex(partitionIndex)
+                        .build());
+            });
+            return true;
+        } catch (RuntimeException e) {
+            log.error("Points recalculation run {} failed on partition {} (users {}-{}): {}",
+                    runId, partitionIndex, fromUserId, toUserId, e.getMessage(), e);
+            return false;
+        }
+    }
+
+    private void finish(Long runId, long failedPartitions) {
+        try {
+            runRepository.findById(runId).ifPresent(run -> {
+                run.setStatus(failedPartitions == 0 ? RecalculationStatus.COMPLETED : RecalculationStatus.FAILED);
+                run.setFinishedAt(LocalDateTime.now());
+                runRepository.save(run);
+                log.info("Points recalculation run {} finished with status {} ({} failed partitions)",
+                        runId, run.getStatus(), failedPartitions);
+            });
+            eventPublisher.publishEvent(new PointsRecalculatedEvent());
+        } finally {
+            running.set(false);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,316 @@
+package wc.prode._6.scoring;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import wc.prode._6.entity.Match;
+import wc.prode._6.entity.PredictedResult;
+import wc.prode._6.event.MatchResultChangedEvent;
+import wc.prode._6.event.PredictionChangedEvent;
+import wc.prode._6.repository.MatchRepository;
+import wc.prode._6.repository.UserMatchResultRepository;
+import wc.prode._6.repository.projection.PredictionRow;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Matriz en memoria de las apuestas 1X2 de todos los usuarios: índice para estadísticas y simulaciones,
+ * no para puntuar (los puntos salen del registro awarded_points en la base).
+ * Cada usuario ocupa una posición (slot) y cada par (partido, resultado) es un vector de bits sobre esos slots,
+ * así que cuántos apostaron cada resultado o acertaron un partido se cuenta palabra por palabra
+ * (64 usuarios por operación) sin leer la base.
+ * Ocupa 3 bits por partido y usuario: unos 40 MB para un millón de usuarios.
+ * Se construye al iniciar desde user_match_results y se mantiene con los eventos de apuestas y resultados.
+ */
+@Component
+@Slf4j
+public class PredictionMatrix {
+
+    public static final byte NO_PREDICTION = -1;
+
+    private static final int OUTCOMES = PredictedResult.values().length;
+    private static final int INITIAL_SLOTS = 1024;
+
+    private final MatchRepository matchRepository;
+    private final UserMatchResultRepository userMatchResultRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Integer> userSlots = new HashMap<>();
+    private final Map<Long, Integer> matchColumns = new HashMap<>();
+    // bits[columna * OUTCOMES + resultado][palabra]: usuarios que apostaron ese resultado en ese partido
+    private long[][] bits = new long[0][];
+    // Resultado final de cada columna, o null si el partido todavía no tiene resultado
+    private PredictedResult[] results = new PredictedResult[0];
+    private int capacity = INITIAL_SLOTS;
+    // Contador de apuestas y resultados aplicados: da la versión de cada slot y la de los resultados
+    private final AtomicLong version = new AtomicLong();
+    // Versión en la que cambió por última vez alguna apuesta de cada slot
+    private long[] slotVersions = new long[INITIAL_SLOTS];
+    // Versión del último rebuild o resultado aplicado: afecta a todos los usuarios
+    private long resultsVersion;
+
+    public PredictionMatrix(MatchRepository matchRepository,
+                            UserMatchResultRepository userMatchResultRepository,
+                            PlatformTransactionManager transactionManager) {
+        this.matchRepository = matchRepository;
+        this.userMatchResultRepository = userMatchResultRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Construye la matriz recorriendo las apuestas como filas, sin cargar entidades
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            userSlots.clear();
+            matchColumns.clear();
+            bits = new long[0][];
+            results = new PredictedResult[0];
+            capacity = INITIAL_SLOTS;
+            slotVersions = new long[capacity];
+            resultsVersion = version.incrementAndGet();
+
+            for (Match match : matchRepository.findAll()) {
+                int column = column(match.getId());
+                results[column] = PredictedResult.fromScore(match.getHomeScore(), match.getAwayScore());
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<PredictionRow> rows = userMatchResultRepository.streamAllPredictions()) {
+                    rows.forEach(row -> setPrediction(row.getUserId(), row.getMatchId(), row.getPredictedResult()));
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Prediction matrix built in {} ms: {} users, {} matches",
+                System.currentTimeMillis() - start, userSlots.size(), matchColumns.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPredictionChanged(PredictionChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            setPrediction(event.userId(), event.matchId(), event.predictedResult());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMatchResultChanged(MatchResultChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            event.results().forEach(this::applyResult);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Cantidad de usuarios que apostaron cada resultado en el partido, indexada por ordinal del resultado
+     */
+    public int[] countPredictions(Long matchId) {
+        lock.readLock().lock();
+        try {
+            int[] counts = new int[OUTCOMES];
+            Integer column = matchColumns.get(matchId);
+            if (column != null) {
+                for (int outcome = 0; outcome < OUTCOMES; outcome++) {
+                    counts[outcome] = popCount(bits[column * OUTCOMES + outcome]);
+                }
+            }
+            return counts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Cantidad de usuarios que acertaron el partido, o 0 si todavía no tiene resultado
+     */
+    public int countCorrect(Long matchId) {
+        lock.readLock().lock();
+        try {
+            Integer column = matchColumns.get(matchId);
+            if (column == null || results[column] == null) {
+                return 0;
+            }
+            return popCount(bits[column * OUTCOMES + results[column].ordinal()]);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Apuesta de cada usuario en cada partido sin resultado, en el mismo orden que userIds:
+     * el ordinal del resultado apostado o NO_PREDICTION. La matriz no se modifica.
+     */
+    public Map<Long, byte[]> getPendingPredictions(List<Long> userIds) {
+        lock.readLock().lock();
+        try {
+            int[] slots = new int[userIds.size()];
+            for (int i = 0; i < slots.length; i++) {
+                slots[i] = userSlots.getOrDefault(userIds.get(i), -1);
+            }
+            Map<Long, byte[]> pending = new HashMap<>();
+            matchColumns.forEach((matchId, column) -> {
+                if (results[column] != null) {
+                    return;
+                }
+                byte[] predictions = new byte[slots.length];
+                Arrays.fill(predictions, NO_PREDICTION);
+                for (PredictedResult outcome : PredictedResult.values()) {
+                    long[] vector = bits[column * OUTCOMES + outcome.ordinal()];
+                    for (int i = 0; i < slots.length; i++) {
+                        if (slots[i] >= 0 && isSet(vector, slots[i])) {
+                            predictions[i] = (byte) outcome.ordinal();
+                        }
+                    }
+                }
+                pending.put(matchId, predictions);
+            });
+            return pending;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Versión de la matriz vista por los usuarios indicados: cambia solo con sus apuestas o con los resultados,
+     * así que lo que se cachea para un grupo no se invalida por apuestas de otros grupos
+     */
+    public long getVersion(List<Long> userIds) {
+        lock.readLock().lock();
+        try {
+            long latest = resultsVersion;
+            for (Long userId : userIds) {
+                Integer slot = userSlots.get(userId);
+                if (slot != null) {
+                    latest = Math.max(latest, slotVersions[slot]);
+                }
+            }
+            return latest;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Las operaciones siguientes requieren tener tomado el write lock
+
+    private void setPrediction(Long userId, Long matchId, PredictedResult prediction) {
+        int slot = slot(userId);
+        int column = column(matchId);
+        PredictedResult previous = predictionOf(column, slot);
+        if (previous == prediction) {
+            return;
+        }
+
+        int base = column * OUTCOMES;
+        if (previous != null) {
+            clear(bits[base + previous.ordinal()], slot);
+        }
+        if (prediction != null) {
+            set(bits[base + prediction.ordinal()], slot);
+        }
+
+        slotVersions[slot] = version.incrementAndGet();
+    }
+
+    /**
+     * Registra el resultado (o su corrección) de un partido; los acertantes son el vector de ese resultado
+     */
+    private void applyResult(Long matchId, PredictedResult result) {
+        int column = column(matchId);
+        PredictedResult previous = results[column];
+        if (previous == result) {
+            return;
+        }
+        results[column] = result;
+        resultsVersion = version.incrementAndGet();
+    }
+
+    private PredictedResult predictionOf(int column, int slot) {
+        int base = column * OUTCOMES;
+        for (PredictedResult outcome : PredictedResult.values()) {
+            if (isSet(bits[base + outcome.ordinal()], slot)) {
+                return outcome;
+            }
+        }
+        return null;
+    }
+
+    private int slot(Long userId) {
+        Integer slot = userSlots.get(userId);
+        if (slot != null) {
+            return slot;
+        }
+        int newSlot = userSlots.size();
+        if (newSlot >= capacity) {
+            grow(capacity * 2);
+        }
+        userSlots.put(userId, newSlot);
+        return newSlot;
+    }
+
+    private int column(Long matchId) {
+        Integer column = matchColumns.get(matchId);
+        if (column != null) {
+            return column;
+        }
+        int newColumn = matchColumns.size();
+        matchColumns.put(matchId, newColumn);
+        bits = Arrays.copyOf(bits, (newColumn + 1) * OUTCOMES);
+        for (int i = newColumn * OUTCOMES; i < bits.length; i++) {
+            bits[i] = new long[words(capacity)];
+        }
+        results = Arrays.copyOf(results, newColumn + 1);
+        return newColumn;
+    }
+
+    private void grow(int newCapacity) {
+        for (int i = 0; i < bits.length; i++) {
+            bits[i] = Arrays.copyOf(bits[i], words(newCapacity));
+        }
+        slotVersions = Arrays.copyOf(slotVersions, newCapacity);
+        capacity = newCapacity;
+    }
+
+    private static int words(int slots) {
+        return (slots + 63) >>> 6;
+    }
+
+    private static boolean isSet(long[] vector, int slot) {
+        return (vector[slot >>> 6] & (1L << slot)) != 0;
+    }
+
+    private static void set(long[] vector, int slot) {
+        vector[slot >>> 6] |= 1L << slot;
+    }
+
+    private static void clear(long[] vector, int slot) {
+        vector[slot >>> 6] &= ~(1L << slot);
+    }
+
+    private static int popCount(long[] vector) {
+        int count = 0;
+        for (long word : vector) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+}
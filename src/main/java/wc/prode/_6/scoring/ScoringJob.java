@@ -0,0 +1,77 @@
+package wc.prode._6.scoring;
+
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Trabajo de puntuación encolado. Mientras está en cola acumula los partidos de los eventos que llegan,
+ * de modo que varias ediciones del mismo partido (o de varios partidos) se puntúan en una sola pasada.
+ */
+@Getter
+public class ScoringJob {
+
+    private final Long id;
+    private final Set<Long> matchIds = new TreeSet<>();
+    private final LocalDateTime queuedAt = LocalDateTime.now();
+    private volatile ScoringJobStatus status = ScoringJobStatus.QUEUED;
+    private volatile int coalescedEvents;
+    private volatile int usersUpdated;
+    private volatile int attempts;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile Long durationMs;
+    private volatile String error;
+
+    ScoringJob(Long id) {
+        this.id = id;
+    }
+
+    synchronized void add(Collection<Long> newMatchIds) {
+        matchIds.addAll(newMatchIds);
+        coalescedEvents++;
+    }
+
+    synchronized List<Long> start() {
+        attempts++;
+        status = ScoringJobStatus.RUNNING;
+        startedAt = LocalDateTime.now();
+        return List.copyOf(matchIds);
+    }
+
+    void complete(int usersUpdated, long durationMs) {
+        this.usersUpdated = usersUpdated;
+        finish(ScoringJobStatus.COMPLETED, durationMs);
+    }
+
+    /**
+     * Vuelve a dejar el trabajo en cola después de un intento fallido; conserva el error del último intento
+     */
+    void retry(String error) {
+        this.error = error;
+        this.status = ScoringJobStatus.QUEUED;
+    }
+
+    void fail(String error, long durationMs) {
+        this.error = error;
+        finish(ScoringJobStatus.FAILED, durationMs);
+    }
+
+    private void finish(ScoringJobStatus finalStatus, long durationMs) {
+        this.durationMs = durationMs;
+        this.finishedAt = LocalDateTime.now();
+        this.status = finalStatus;
+    }
+
+    public synchronized List<Long> getMatchIds() {
+        return List.copyOf(matchIds);
+    }
+
+    public boolean isFinished() {
+        return status == ScoringJobStatus.COMPLETED || status == ScoringJobStatus.FAILED;
+    }
+}
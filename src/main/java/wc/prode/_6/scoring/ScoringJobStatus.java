@@ -0,0 +1,8 @@
+package wc.prode._6.scoring;
+
+public enum ScoringJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,168 @@
+package wc.prode._6.scoring;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import wc.prode._6.event.MatchResultChangedEvent;
+import wc.prode._6.event.PointsUpdatedEvent;
+import wc.prode._6.service.PointsService;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Cola de puntuación desacoplada de la carga de resultados.
+ * Los cambios de resultado se encolan recién cuando se confirma la transacción que los guardó y se
+ * puntúan en segundo plano sobre un pool propio (scoring.worker-threads). Mientras un trabajo espera en cola
+ * absorbe los eventos siguientes, así varias ediciones seguidas se puntúan en una sola pasada.
+ * Un mismo partido nunca se puntúa en dos trabajos a la vez: los locks por partido lo evitan dentro del proceso
+ * y el bloqueo de la fila del partido en la base (PointsService.applyMatchResultsDelta) entre instancias.
+ * Un trabajo que falla se reintenta hasta scoring.max-attempts veces, esperando entre intentos desde
+ * scoring.retry-backoff-ms, con el doble en cada intento. Volver a puntuar es seguro porque se aplica
+ * la diferencia contra el registro de puntos. Si se agotan los intentos, o si el proceso termina con
+ * trabajos pendientes, los partidos se vuelven a puntuar al arrancar (PointsService.rescoreStaleMatches).
+ */
+@Component
+@Slf4j
+public class ScoringQueue {
+
+    private static final int MAX_TRACKED_JOBS = 500;
+    private static final long MAX_RETRY_BACKOFF_MS = 60_000;
+
+    private final PointsService pointsService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ExecutorService executor;
+    private final ScheduledExecutorService retryScheduler;
+    private final int maxAttempts;
+    private final long retryBackoffMs;
+    private final AtomicLong jobIds = new AtomicLong();
+    private final Map<Long, ReentrantLock> matchLocks = new ConcurrentHashMap<>();
+    private final Map<Long, ScoringJob> jobs = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, ScoringJob> eldest) {
+            return size() > MAX_TRACKED_JOBS && eldest.getValue().isFinished();
+        }
+    };
+    private ScoringJob pendingJob;
+
+    public ScoringQueue(PointsService pointsService,
+                        ApplicationEventPublisher eventPublisher,
+                        @Value("${scoring.worker-threads:2}") int workerThreads,
+                        @Value("${scoring.max-attempts:5}") int maxAttempts,
+                        @Value("${scoring.retry-backoff-ms:1000}") long retryBackoffMs) {
+        this.pointsService = pointsService;
+        this.eventPublisher = eventPublisher;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMs = retryBackoffMs;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(workerThreads, runnable -> {
+            Thread thread = new Thread(runnable, "scoring-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "scoring-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMatchResultChanged(MatchResultChangedEvent event) {
+        enqueue(event.results().keySet());
+    }
+
+    /**
+     * Encola la puntuación de los partidos indicados, sumándolos al trabajo que esté esperando en cola si lo hay
+     */
+    public ScoringJob enqueue(Collection<Long> matchIds) {
+        synchronized (jobs) {
+            ScoringJob job = pendingJob;
+            if (job == null) {
+                job = new ScoringJob(jobIds.incrementAndGet());
+                pendingJob = job;
+                jobs.put(job.getId(), job);
+                ScoringJob submitted = job;
+                executor.execute(() -> run(submitted));
+            }
+            job.add(matchIds);
+            return job;
+        }
+    }
+
+    public Optional<ScoringJob> getJob(Long jobId) {
+        synchronized (jobs) {
+            return Optional.ofNullable(jobs.get(jobId));
+        }
+    }
+
+    public List<ScoringJob> getRecentJobs(Long matchId) {
+        synchronized (jobs) {
+            return jobs.values().stream()
+                    .filter(job -> matchId == null || job.getMatchIds().contains(matchId))
+                    .sorted(Comparator.comparing(ScoringJob::getId).reversed())
+                    .toList();
+        }
+    }
+
+    private void run(ScoringJob job) {
+        List<Long> matchIds;
+        synchronized (jobs) {
+            if (pendingJob == job) {
+                pendingJob = null;
+            }
+            matchIds = job.start();
+        }
+
+        // Bloquear los partidos en orden para no puntuar el mismo partido en paralelo ni generar interbloqueos
+        List<ReentrantLock> locks = matchIds.stream()
+                .map(matchId -> matchLocks.computeIfAbsent(matchId, id -> new ReentrantLock()))
+                .toList();
+        locks.forEach(ReentrantLock::lock);
+
+        long start = System.currentTimeMillis();
+        try {
+            List<UserPointsChange> changes = pointsService.applyMatchResultsDelta(matchIds);
+            // Los índices en memoria (rankings) se actualizan antes de dar el trabajo por terminado
+            eventPublisher.publishEvent(new PointsUpdatedEvent(matchIds, changes));
+            job.complete(changes.size(), System.currentTimeMillis() - start);
+            log.info("Scoring job {} finished in {} ms: matches {}, {} users updated",
+                    job.getId(), job.getDurationMs(), matchIds, changes.size());
+        } catch (RuntimeException e) {
+            if (job.getAttempts() < maxAttempts) {
+                long backoffMs = Math.min(retryBackoffMs << Math.min(job.getAttempts() - 1, 20), MAX_RETRY_BACKOFF_MS);
+                job.retry(e.getMessage());
+                log.warn("Scoring job {} failed for matches {} (attempt {} of {}), retrying in {} ms: {}",
+                        job.getId(), matchIds, job.getAttempts(), maxAttempts, backoffMs, e.getMessage());
+                retryScheduler.schedule(() -> executor.execute(() -> run(job)), backoffMs, TimeUnit.MILLISECONDS);
+            } else {
+                job.fail(e.getMessage(), System.currentTimeMillis() - start);
+                log.error("Scoring job {} failed for matches {} after {} attempts, they will be rescored on the " +
+                        "next startup: {}", job.getId(), matchIds, job.getAttempts(), e.getMessage(), e);
+            }
+        } finally {
+            locks.forEach(ReentrantLock::unlock);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        retryScheduler.shutdownNow();
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,15 @@
+package wc.prode._6.scoring;
+
+/**
+ * Reglas de puntuación compartidas por el puntaje incremental, los recálculos y los procesos en memoria
+ */
+public final class ScoringRules {
+
+    /**
+     * Puntos otorgados por acertar el resultado (1X2) de un partido
+     */
+    public static final int POINTS_CORRECT_RESULT = 1;
+
+    private ScoringRules() {
+    }
+}
@@ -0,0 +1,7 @@
+package wc.prode._6.scoring;
+
+/**
+ * Cambio de puntaje de un usuario producido por una puntuación
+ */
+public record UserPointsChange(Long userId, int previousPoints, int newPoints) {
+}
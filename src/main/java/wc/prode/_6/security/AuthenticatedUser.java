@@ -0,0 +1,22 @@
+package wc.prode._6.security;
+
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+/**
+ * Usuario autenticado por JWT. Además del email y el rol lleva el id del usuario tomado del token,
+ * para que los servicios no tengan que buscarlo por email en cada request (null en tokens viejos sin uid).
+ */
+@Getter
+public class AuthenticatedUser extends User {
+
+    private final Long userId;
+
+    public AuthenticatedUser(Long userId, String email, Collection<? extends GrantedAuthority> authorities) {
+        super(email, "", authorities);
+        this.userId = userId;
+    }
+}
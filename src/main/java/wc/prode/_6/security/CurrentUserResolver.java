@@ -0,0 +1,64 @@
+package wc.prode._6.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import wc.prode._6.entity.User;
+import wc.prode._6.exception.ResourceNotFoundException;
+import wc.prode._6.repository.UserRepository;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resuelve el id del usuario de la request sin consultar la base: sale del claim uid del token autenticado.
+ * Para tokens viejos sin uid (o llamadas fuera de una request) usa una caché acotada email → id;
+ * es segura porque ni el email ni el id de un usuario cambian y los usuarios no se borran.
+ */
+@Component
+@Slf4j
+public class CurrentUserResolver {
+
+    private final UserRepository userRepository;
+    private final int maxSize;
+    private final Map<String, Long> idsByEmail = new ConcurrentHashMap<>();
+
+    public CurrentUserResolver(UserRepository userRepository,
+                               @Value("${security.user-id-cache-size:50000}") int maxSize) {
+        this.userRepository = userRepository;
+        this.maxSize = maxSize;
+    }
+
+    public Long resolveUserId(String email) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null
+                && authentication.getPrincipal() instanceof AuthenticatedUser user
+                && user.getUserId() != null
+                && user.getUsername().equals(email)) {
+            return user.getUserId();
+        }
+
+        Long cached = idsByEmail.get(email);
+        if (cached != null) {
+            return cached;
+        }
+        Long userId = userRepository.findIdByEmail(email)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with email: " + email));
+        if (idsByEmail.size() >= maxSize) {
+            // Sin orden de uso que respetar: al llenarse se vacía y se vuelve a poblar con los usuarios activos
+            log.debug("User id cache full ({} entries), clearing", idsByEmail.size());
+            idsByEmail.clear();
+        }
+        idsByEmail.put(email, userId);
+        return userId;
+    }
+
+    /**
+     * Referencia (proxy sin inicializar) al usuario, suficiente para filtrar o asociar sin leer la fila
+     */
+    public User getReference(String email) {
+        return userRepository.getReferenceById(resolveUserId(email));
+    }
+}
@@ -20,7 +20,6 @@ import java.util.List;
 @Slf4j
 public class CustomUserDetailsService implements UserDetailsService {
 
-    private final JwtUtil jwtUtil;
     private final UserRepository userRepository;
 
     @Override
@@ -44,37 +43,24 @@ public class CustomUserDetailsService implements UserDetailsService {
     }
 
     /**
-     * Carga un usuario desde un token JWT válido
-     * Extrae el rol y otra información del token
+     * Arma el usuario a partir de los claims de un token ya verificado, sin volver a parsearlo
      */
-    public UserDetails loadUserFromToken(String token) {
-        try {
-            Claims claims = jwtUtil.extractAllClaims(token);
-            String email = claims.getSubject();
-            String role = claims.get("role", String.class);
-            
-            List<GrantedAuthority> authorities = new ArrayList<>();
-            if (role != null && !role.isEmpty()) {
-                // Asegurar que el rol tenga el prefijo ROLE_
-                String roleWithPrefix = role.startsWith("ROLE_") ? role : "ROLE_" + role;
-                authorities.add(new SimpleGrantedAuthority(roleWithPrefix));
-            } else {
-                authorities.add(new SimpleGrantedAuthority("ROLE_USER"));
-            }
-            
-            return org.springframework.security.core.userdetails.User.builder()
-                    .username(email)
-                    .password("")
-                    .authorities(authorities)
-                    .accountExpired(false)
-                    .accountLocked(false)
-                    .credentialsExpired(false)
-                    .disabled(false)
-                    .build();
-        } catch (Exception e) {
-            log.error("Error loading user from token: {}", e.getMessage());
-            throw new UsernameNotFoundException("Invalid token", e);
+    public UserDetails loadUserFromClaims(Claims claims) {
+        String email = claims.getSubject();
+        String role = claims.get("role", String.class);
+        // Los tokens emitidos antes de incluir el id no traen uid: se resuelve por email (CurrentUserResolver)
+        Long userId = claims.get("uid", Long.class);
+        
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        if (role != null && !role.isEmpty()) {
+            // Asegurar que el rol tenga el prefijo ROLE_
+            String roleWithPrefix = role.startsWith("ROLE_") ? role : "ROLE_" + role;
+            authorities.add(new SimpleGrantedAuthority(roleWithPrefix));
+        } else {
+            authorities.add(new SimpleGrantedAuthority("ROLE_USER"));
         }
+        
+        return new AuthenticatedUser(userId, email, authorities);
     }
 }
 
@@ -20,8 +20,7 @@ import java.io.IOException;
 @Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private final JwtUtil jwtUtil;
-    private final CustomUserDetailsService userDetailsService;
+    private final VerifiedTokenCache verifiedTokenCache;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -36,14 +35,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         try {
             final String jwt = authHeader.substring(7);
-            
-            if (jwtUtil.validateToken(jwt)) {
-                final String userEmail = jwtUtil.extractEmail(jwt);
-                
-                if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                    // Cargar usuario desde el token (incluye rol y otra información)
-                    UserDetails userDetails = this.userDetailsService.loadUserFromToken(jwt);
-                    
+
+            if (SecurityContextHolder.getContext().getAuthentication() == null) {
+                // Verifica el token una sola vez (o lo toma de la caché) y carga el usuario desde sus claims
+                UserDetails userDetails = verifiedTokenCache.authenticate(jwt);
+
+                if (userDetails.getUsername() != null) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             userDetails,
                             null,
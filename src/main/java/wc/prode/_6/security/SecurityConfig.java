@@ -1,5 +1,6 @@
 package wc.prode._6.security;
 
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -38,6 +39,8 @@ public class SecurityConfig {
 						.requestMatchers("/actuator/**").permitAll()
 						// Endpoints de autenticación
 						.requestMatchers("/auth/**").permitAll()
+						// Despachos asíncronos de los streams en vivo: la request original ya pasó la autorización
+						.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
 						// Endpoints públicos de matches (GET solo)
 						.requestMatchers("/matches", "/matches/**").permitAll()
 						// Cualquier otra petición requiere autenticación
@@ -0,0 +1,80 @@
+package wc.prode._6.security;
+
+import io.jsonwebtoken.Claims;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caché acotada de tokens ya verificados: el mismo token se repite en cada request del cliente,
+ * así que la firma HMAC y el parseo se hacen una sola vez y las siguientes requests reutilizan el usuario armado.
+ * Cada entrada vence junto con su token; con jwt.verified-cache-size entradas se descartan primero las vencidas
+ * y, si no alcanza, una parte de las demás.
+ */
+@Component
+@Slf4j
+public class VerifiedTokenCache {
+
+    private final JwtUtil jwtUtil;
+    private final CustomUserDetailsService userDetailsService;
+    private final int maxSize;
+    private final Map<String, VerifiedToken> tokens = new ConcurrentHashMap<>();
+
+    public VerifiedTokenCache(JwtUtil jwtUtil,
+                              CustomUserDetailsService userDetailsService,
+                              @Value("${jwt.verified-cache-size:10000}") int maxSize) {
+        this.jwtUtil = jwtUtil;
+        this.userDetailsService = userDetailsService;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Usuario autenticado por el token. Lanza JwtException si el token es inválido o está vencido
+     */
+    public UserDetails authenticate(String token) {
+        long now = System.currentTimeMillis();
+        VerifiedToken cached = tokens.get(token);
+        if (cached != null) {
+            if (cached.expiresAt() > now) {
+                return cached.userDetails();
+            }
+            tokens.remove(token, cached);
+        }
+
+        Claims claims = jwtUtil.extractAllClaims(token);
+        UserDetails userDetails = userDetailsService.loadUserFromClaims(claims);
+        if (claims.getExpiration() != null) {
+            if (tokens.size() >= maxSize) {
+                evict(now);
+            }
+            tokens.put(token, new VerifiedToken(userDetails, claims.getExpiration().getTime()));
+        }
+        return userDetails;
+    }
+
+    public int size() {
+        return tokens.size();
+    }
+
+    /**
+     * Descarta los tokens vencidos y, si la caché sigue llena, una cuarta parte de las entradas restantes
+     */
+    private void evict(long now) {
+        tokens.values().removeIf(token -> token.expiresAt() <= now);
+        int toRemove = tokens.size() - maxSize * 3 / 4;
+        Iterator<String> keys = tokens.keySet().iterator();
+        while (toRemove-- > 0 && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+        log.debug("Verified token cache evicted down to {} entries", tokens.size());
+    }
+
+    private record VerifiedToken(UserDetails userDetails, long expiresAt) {
+    }
+}
@@ -0,0 +1,11 @@
+package wc.prode._6.service;
+
+import wc.prode._6.dto.response.LeaderboardPositionResponse;
+import wc.prode._6.dto.response.PublicRankingEntryResponse;
+
+import java.util.List;
+
+public interface LeaderboardService {
+    List<PublicRankingEntryResponse> getTop(int limit);
+    LeaderboardPositionResponse getMyPosition(String userEmail);
+}
@@ -0,0 +1,7 @@
+package wc.prode._6.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface LiveUpdateService {
+    SseEmitter subscribe(String userEmail);
+}
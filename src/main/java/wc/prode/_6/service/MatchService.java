@@ -1,6 +1,12 @@
 package wc.prode._6.service;
 
+import wc.prode._6.dto.request.FinalizeLiveMatchesRequest;
+import wc.prode._6.dto.request.MatchOddsRequest;
 import wc.prode._6.dto.request.UpdateMatchResultRequest;
+import wc.prode._6.dto.response.LiveScoreResponse;
+import wc.prode._6.dto.response.MatchConsensusResponse;
+import wc.prode._6.dto.response.MatchOddsResponse;
+import wc.prode._6.dto.response.MatchPredictionStatsResponse;
 import wc.prode._6.dto.response.MatchResponse;
 import wc.prode._6.entity.Phase;
 
@@ -10,6 +16,14 @@ public interface MatchService {
     List<MatchResponse> getAllMatches();
     MatchResponse getMatchById(Long id);
     List<MatchResponse> getMatchesByPhase(Phase phase);
+    List<MatchResponse> getMatchesByGroup(String group);
     MatchResponse updateMatchResult(Long matchId, UpdateMatchResultRequest request);
+    MatchResponse clearMatchResult(Long matchId);
+    LiveScoreResponse updateLiveScore(Long matchId, UpdateMatchResultRequest request);
+    List<LiveScoreResponse> getLiveScores();
+    List<MatchResponse> finalizeLiveMatches(FinalizeLiveMatchesRequest request);
+    MatchOddsResponse updateMatchOdds(Long matchId, MatchOddsRequest request);
+    MatchConsensusResponse getPredictionConsensus(Long matchId, String userEmail);
+    MatchPredictionStatsResponse getPredictionStats(Long matchId);
 }
 
@@ -1,7 +1,21 @@
 package wc.prode._6.service;
 
+import wc.prode._6.dto.response.PointsRecalculationResponse;
+import wc.prode._6.dto.response.PointsRecalculationRunResponse;
+import wc.prode._6.dto.response.UserPointsResponse;
+
+import wc.prode._6.scoring.UserPointsChange;
+
+import java.util.Collection;
+import java.util.List;
+
 public interface PointsService {
     void calculatePointsForMatch(Long matchId);
-    void recalculateAllPoints();
+    List<UserPointsChange> applyMatchResultsDelta(Collection<Long> matchIds);
+    int backfillAwardedPoints();
+    List<Long> rescoreStaleMatches();
+    PointsRecalculationResponse recalculateAllPoints(boolean dryRun);
+    PointsRecalculationRunResponse startPartitionedRecalculation(Integer partitionSize, boolean resume);
+    PointsRecalculationRunResponse getRecalculationRun(Long runId);
+    UserPointsResponse getUserPoints(String userEmail);
 }
-
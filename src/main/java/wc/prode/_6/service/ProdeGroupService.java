@@ -1,13 +1,25 @@
 package wc.prode._6.service;
 
 import wc.prode._6.dto.request.JoinGroupRequest;
+import wc.prode._6.dto.request.WhatIfRequest;
+import wc.prode._6.dto.response.GroupOddsResponse;
 import wc.prode._6.dto.response.ProdeGroupResponse;
+import wc.prode._6.dto.response.ProvisionalRankingEntryResponse;
 import wc.prode._6.dto.response.RankingEntryResponse;
+import wc.prode._6.dto.response.RankingPageResponse;
+import wc.prode._6.simulation.OutcomeModel;
 
 import java.util.List;
 
 public interface ProdeGroupService {
     ProdeGroupResponse joinGroup(String userEmail, JoinGroupRequest request);
     List<RankingEntryResponse> getGroupRanking(String userEmail);
+    List<ProvisionalRankingEntryResponse> getProvisionalGroupRanking(String userEmail);
+    List<ProvisionalRankingEntryResponse> simulateGroupRanking(String userEmail, WhatIfRequest request);
+    GroupOddsResponse getGroupOdds(String userEmail, OutcomeModel model);
+    List<RankingEntryResponse> getGroupRankingTop(String userEmail, int limit);
+    RankingEntryResponse getMyRankingPosition(String userEmail);
+    List<RankingEntryResponse> getRankingAroundMe(String userEmail, int radius);
+    RankingPageResponse getGroupRankingPage(String userEmail, String after, String before, int size, boolean aroundMe);
 }
 
@@ -0,0 +1,9 @@
+package wc.prode._6.service;
+
+import wc.prode._6.dto.response.ScheduleSyncResponse;
+
+import java.io.InputStream;
+
+public interface ScheduleSyncService {
+    ScheduleSyncResponse syncSchedule(InputStream feed);
+}
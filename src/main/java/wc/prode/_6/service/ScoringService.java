@@ -0,0 +1,10 @@
+package wc.prode._6.service;
+
+import wc.prode._6.dto.response.ScoringJobResponse;
+
+import java.util.List;
+
+public interface ScoringService {
+    ScoringJobResponse getJob(Long jobId);
+    List<ScoringJobResponse> getRecentJobs(Long matchId);
+}
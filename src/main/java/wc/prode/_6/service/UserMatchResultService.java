@@ -1,6 +1,7 @@
 package wc.prode._6.service;
 
 import wc.prode._6.dto.request.UserMatchResultRequest;
+import wc.prode._6.dto.response.BatchPredictionResponse;
 import wc.prode._6.dto.response.UserMatchResultResponse;
 
 import java.util.List;
@@ -9,6 +10,7 @@ import java.util.Optional;
 public interface UserMatchResultService {
     List<UserMatchResultResponse> getUserMatchResults(String userEmail);
     UserMatchResultResponse createOrUpdateUserMatchResult(String userEmail, UserMatchResultRequest request);
+    BatchPredictionResponse saveUserMatchResults(String userEmail, List<UserMatchResultRequest> requests);
     void deleteUserMatchResult(String userEmail, Long matchId);
     Optional<UserMatchResultResponse> getUserMatchResultByMatchId(String userEmail, Long matchId);
 }
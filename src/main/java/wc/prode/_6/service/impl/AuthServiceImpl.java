@@ -2,6 +2,7 @@ package wc.prode._6.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import wc.prode._6.dto.request.LoginRequest;
@@ -9,6 +10,8 @@ import wc.prode._6.dto.request.RegisterRequest;
 import wc.prode._6.dto.response.AuthResponse;
 import wc.prode._6.entity.Role;
 import wc.prode._6.entity.User;
+import wc.prode._6.event.UserChangedEvent;
+import wc.prode._6.event.UserRegisteredEvent;
 import wc.prode._6.exception.BadRequestException;
 import wc.prode._6.mapper.UserMapper;
 import wc.prode._6.repository.UserRepository;
@@ -23,6 +26,7 @@ public class AuthServiceImpl implements AuthService {
     private final UserRepository userRepository;
     private final JwtUtil jwtUtil;
     private final UserMapper userMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -41,7 +45,8 @@ public class AuthServiceImpl implements AuthService {
                 .build();
 
         user = userRepository.save(user);
-        String token = jwtUtil.generateToken(user.getEmail(), user.getName(), user.getPictureUrl(), user.getRole().name());
+        eventPublisher.publishEvent(new UserRegisteredEvent(user.getId()));
+        String token = jwtUtil.generateToken(user.getId(), user.getEmail(), user.getName(), user.getPictureUrl(), user.getRole().name());
 
         AuthResponse response = userMapper.toAuthResponse(user);
         response.setToken(token);
@@ -63,7 +68,9 @@ public class AuthServiceImpl implements AuthService {
                             .pictureUrl(request.getPicture())
                             .role(userRole)
                             .build();
-                    return userRepository.save(newUser);
+                    newUser = userRepository.save(newUser);
+                    eventPublisher.publishEvent(new UserRegisteredEvent(newUser.getId()));
+                    return newUser;
                 });
 
         // Verificar si el usuario debe ser admin (por si cambió su nombre)
@@ -85,9 +92,12 @@ public class AuthServiceImpl implements AuthService {
                 }
             }
             user = userRepository.save(user);
+            if (nameOrPictureChanged) {
+                eventPublisher.publishEvent(new UserChangedEvent(user.getId()));
+            }
         }
 
-        String token = jwtUtil.generateToken(user.getEmail(), user.getName(), user.getPictureUrl(), user.getRole().name());
+        String token = jwtUtil.generateToken(user.getId(), user.getEmail(), user.getName(), user.getPictureUrl(), user.getRole().name());
 
         AuthResponse response = userMapper.toAuthResponse(user);
         response.setToken(token);
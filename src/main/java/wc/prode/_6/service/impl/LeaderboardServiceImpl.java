@@ -0,0 +1,61 @@
+package wc.prode._6.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import wc.prode._6.dto.response.LeaderboardPositionResponse;
+import wc.prode._6.dto.response.PublicRankingEntryResponse;
+import wc.prode._6.exception.BadRequestException;
+import wc.prode._6.exception.ResourceNotFoundException;
+import wc.prode._6.ranking.GlobalLeaderboard;
+import wc.prode._6.repository.UserRepository;
+import wc.prode._6.repository.projection.RankedUser;
+import wc.prode._6.security.CurrentUserResolver;
+import wc.prode._6.service.LeaderboardService;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class LeaderboardServiceImpl implements LeaderboardService {
+
+    private final GlobalLeaderboard globalLeaderboard;
+    private final UserRepository userRepository;
+    private final CurrentUserResolver currentUserResolver;
+
+    @Override
+    public List<PublicRankingEntryResponse> getTop(int limit) {
+        if (limit < 1 || limit > globalLeaderboard.getTopSize()) {
+            throw new BadRequestException("Limit must be between 1 and " + globalLeaderboard.getTopSize());
+        }
+
+        return globalLeaderboard.getTop(limit).stream()
+                .map(rankedPosition -> PublicRankingEntryResponse.builder()
+                        .userId(rankedPosition.entry().userId())
+                        .userName(rankedPosition.entry().name())
+                        .pictureUrl(rankedPosition.entry().pictureUrl())
+                        .totalPoints(rankedPosition.entry().totalPoints())
+                        .position(rankedPosition.position())
+                        .build())
+                .toList();
+    }
+
+    /**
+     * Posición global del usuario según el histograma de puntajes (sin ordenar la tabla de usuarios);
+     * el usuario se lee por id con la proyección del ranking, sin cargar la entidad
+     */
+    @Override
+    public LeaderboardPositionResponse getMyPosition(String userEmail) {
+        Long userId = currentUserResolver.resolveUserId(userEmail);
+        RankedUser user = userRepository.findRankedUsersByIds(List.of(userId)).stream()
+                .findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with email: " + userEmail));
+
+        return LeaderboardPositionResponse.builder()
+                .userId(user.getId())
+                .userName(user.getName())
+                .totalPoints(user.getTotalPoints())
+                .position(globalLeaderboard.getPosition(user.getTotalPoints()))
+                .totalUsers(globalLeaderboard.getTotalUsers())
+                .build();
+    }
+}
@@ -0,0 +1,27 @@
+package wc.prode._6.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import wc.prode._6.live.LiveEventBroadcaster;
+import wc.prode._6.ranking.GroupRankingIndex;
+import wc.prode._6.security.CurrentUserResolver;
+import wc.prode._6.service.LiveUpdateService;
+
+@Service
+@RequiredArgsConstructor
+public class LiveUpdateServiceImpl implements LiveUpdateService {
+
+    private final LiveEventBroadcaster broadcaster;
+    private final CurrentUserResolver currentUserResolver;
+    private final GroupRankingIndex groupRankingIndex;
+
+    /**
+     * Stream con los resultados de todos los partidos y los cambios del ranking del grupo del usuario, si tiene uno
+     */
+    @Override
+    public SseEmitter subscribe(String userEmail) {
+        Long userId = currentUserResolver.resolveUserId(userEmail);
+        return broadcaster.subscribe(groupRankingIndex.getGroupId(userId).orElse(null));
+    }
+}
@@ -1,19 +1,45 @@
 package wc.prode._6.service.impl;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import wc.prode._6.catalog.MatchCatalog;
+import wc.prode._6.consensus.ConsensusCounts;
+import wc.prode._6.consensus.PredictionConsensus;
+import wc.prode._6.dto.request.FinalizeLiveMatchesRequest;
+import wc.prode._6.dto.request.MatchOddsRequest;
 import wc.prode._6.dto.request.UpdateMatchResultRequest;
+import wc.prode._6.dto.response.ConsensusResponse;
+import wc.prode._6.dto.response.LiveScoreResponse;
+import wc.prode._6.dto.response.MatchConsensusResponse;
+import wc.prode._6.dto.response.MatchOddsResponse;
+import wc.prode._6.dto.response.MatchPredictionStatsResponse;
 import wc.prode._6.dto.response.MatchResponse;
 import wc.prode._6.entity.Match;
+import wc.prode._6.entity.MatchOdds;
 import wc.prode._6.entity.Phase;
+import wc.prode._6.entity.PredictedResult;
+import wc.prode._6.event.LiveScoreChangedEvent;
+import wc.prode._6.event.MatchOddsChangedEvent;
+import wc.prode._6.event.MatchResultChangedEvent;
+import wc.prode._6.exception.BadRequestException;
 import wc.prode._6.exception.ResourceNotFoundException;
+import wc.prode._6.live.LiveScore;
+import wc.prode._6.live.LiveScoreBoard;
 import wc.prode._6.mapper.MatchMapper;
+import wc.prode._6.ranking.GroupRankingIndex;
+import wc.prode._6.repository.MatchOddsRepository;
 import wc.prode._6.repository.MatchRepository;
+import wc.prode._6.scoring.PredictionMatrix;
+import wc.prode._6.security.CurrentUserResolver;
 import wc.prode._6.service.MatchService;
-import wc.prode._6.service.PointsService;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -21,29 +47,37 @@ public class MatchServiceImpl implements MatchService {
 
     private final MatchRepository matchRepository;
     private final MatchMapper matchMapper;
-    private final PointsService pointsService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PredictionMatrix predictionMatrix;
+    private final MatchCatalog matchCatalog;
+    private final LiveScoreBoard liveScoreBoard;
+    private final MatchOddsRepository matchOddsRepository;
+    private final PredictionConsensus predictionConsensus;
+    private final GroupRankingIndex groupRankingIndex;
+    private final CurrentUserResolver currentUserResolver;
 
     @Override
     public List<MatchResponse> getAllMatches() {
-        List<Match> matches = matchRepository.findAll();
-        return matches.stream()
-                .map(matchMapper::toResponse)
-                .toList();
+        return matchCatalog.current().matches();
     }
 
     @Override
     public MatchResponse getMatchById(Long id) {
-        Match match = matchRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Match not found with id: " + id));
-        return matchMapper.toResponse(match);
+        MatchResponse match = matchCatalog.current().byId().get(id);
+        if (match == null) {
+            throw new ResourceNotFoundException("Match not found with id: " + id);
+        }
+        return match;
     }
 
     @Override
     public List<MatchResponse> getMatchesByPhase(Phase phase) {
-        List<Match> matches = matchRepository.findByPhaseOrderByDateAsc(phase);
-        return matches.stream()
-                .map(matchMapper::toResponse)
-                .toList();
+        return matchCatalog.current().getByPhase(phase);
+    }
+
+    @Override
+    public List<MatchResponse> getMatchesByGroup(String group) {
+        return matchCatalog.current().getByGroup(group);
     }
 
     @Override
@@ -56,10 +90,197 @@ public class MatchServiceImpl implements MatchService {
         match.setAwayScore(request.getAwayScore());
         match = matchRepository.save(match);
 
-        // Calcular puntos automáticamente después de actualizar el resultado
-        pointsService.calculatePointsForMatch(matchId);
+        // La puntuación se encola y se procesa en segundo plano cuando se confirma la transacción
+        eventPublisher.publishEvent(MatchResultChangedEvent.of(matchId,
+                PredictedResult.fromScore(match.getHomeScore(), match.getAwayScore())));
 
         return matchMapper.toResponse(match);
     }
-}
 
+    /**
+     * Borra el resultado oficial de un partido (corrección manual del admin); sus apuestas se vuelven a puntuar
+     */
+    @Override
+    @Transactional
+    public MatchResponse clearMatchResult(Long matchId) {
+        Match match = matchRepository.findById(matchId)
+                .orElseThrow(() -> new ResourceNotFoundException("Match not found with id: " + matchId));
+        if (match.getHomeScore() == null && match.getAwayScore() == null) {
+            throw new BadRequestException("Match has no result");
+        }
+
+        match.setHomeScore(null);
+        match.setAwayScore(null);
+        match = matchRepository.save(match);
+
+        eventPublisher.publishEvent(MatchResultChangedEvent.of(matchId, null));
+        return matchMapper.toResponse(match);
+    }
+
+    /**
+     * Marcador parcial de un partido en juego: alimenta el ranking provisional sin tocar el puntaje oficial
+     */
+    @Override
+    public LiveScoreResponse updateLiveScore(Long matchId, UpdateMatchResultRequest request) {
+        MatchResponse match = matchCatalog.current().byId().get(matchId);
+        if (match == null) {
+            throw new ResourceNotFoundException("Match not found with id: " + matchId);
+        }
+        if (match.getHomeScore() != null || match.getAwayScore() != null) {
+            throw new BadRequestException("Match already has a final result");
+        }
+
+        eventPublisher.publishEvent(new LiveScoreChangedEvent(matchId, request.getHomeScore(), request.getAwayScore()));
+        return LiveScoreResponse.builder()
+                .matchId(matchId)
+                .homeScore(request.getHomeScore())
+                .awayScore(request.getAwayScore())
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+
+    @Override
+    public List<LiveScoreResponse> getLiveScores() {
+        return liveScoreBoard.getAll().stream()
+                .map(score -> LiveScoreResponse.builder()
+                        .matchId(score.matchId())
+                        .homeScore(score.homeScore())
+                        .awayScore(score.awayScore())
+                        .updatedAt(score.updatedAt())
+                        .build())
+                .toList();
+    }
+
+    /**
+     * Cierra los partidos en juego con su marcador parcial como resultado final. Todos los partidos se guardan
+     * en la misma transacción y se puntúan juntos en un único trabajo, que escribe los totales en un solo batch.
+     */
+    @Override
+    @Transactional
+    public List<MatchResponse> finalizeLiveMatches(FinalizeLiveMatchesRequest request) {
+        List<Long> matchIds = request == null || request.getMatchIds() == null || request.getMatchIds().isEmpty()
+                ? liveScoreBoard.getAll().stream().map(LiveScore::matchId).toList()
+                : request.getMatchIds();
+        if (matchIds.isEmpty()) {
+            throw new BadRequestException("There are no matches in progress");
+        }
+
+        Map<Long, PredictedResult> results = new HashMap<>();
+        List<Match> matches = new ArrayList<>();
+        for (Long matchId : matchIds) {
+            LiveScore score = liveScoreBoard.get(matchId)
+                    .orElseThrow(() -> new BadRequestException("Match " + matchId + " is not in progress"));
+            Match match = matchRepository.findById(matchId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Match not found with id: " + matchId));
+            match.setHomeScore(score.homeScore());
+            match.setAwayScore(score.awayScore());
+            matches.add(match);
+            results.put(matchId, score.result());
+        }
+        matchRepository.saveAll(matches);
+
+        eventPublisher.publishEvent(new MatchResultChangedEvent(results));
+        return matches.stream().map(matchMapper::toResponse).toList();
+    }
+
+    /**
+     * Carga las cuotas de mercado del partido; el simulador de Monte Carlo las usa con el modelo MARKET
+     */
+    @Override
+    @Transactional
+    public MatchOddsResponse updateMatchOdds(Long matchId, MatchOddsRequest request) {
+        if (!matchCatalog.current().byId().containsKey(matchId)) {
+            throw new ResourceNotFoundException("Match not found with id: " + matchId);
+        }
+
+        MatchOdds odds = matchOddsRepository.save(MatchOdds.builder()
+                .matchId(matchId)
+                .homeWin(request.getHomeWin())
+                .draw(request.getDraw())
+                .awayWin(request.getAwayWin())
+                .build());
+        eventPublisher.publishEvent(new MatchOddsChangedEvent(matchId));
+
+        double[] probabilities = odds.impliedProbabilities();
+        return MatchOddsResponse.builder()
+                .matchId(matchId)
+                .homeWin(odds.getHomeWin())
+                .draw(odds.getDraw())
+                .awayWin(odds.getAwayWin())
+                .homeWinProbability(probabilities[PredictedResult.HOME_WIN.ordinal()])
+                .drawProbability(probabilities[PredictedResult.DRAW.ordinal()])
+                .awayWinProbability(probabilities[PredictedResult.AWAY_WIN.ordinal()])
+                .build();
+    }
+
+    /**
+     * Distribución de apuestas del partido y cantidad de acertantes, resuelta sobre la matriz de apuestas en memoria
+     */
+    @Override
+    public MatchPredictionStatsResponse getPredictionStats(Long matchId) {
+        if (!matchCatalog.current().byId().containsKey(matchId)) {
+            throw new ResourceNotFoundException("Match not found with id: " + matchId);
+        }
+
+        int[] counts = predictionMatrix.countPredictions(matchId);
+        int homeWin = counts[PredictedResult.HOME_WIN.ordinal()];
+        int draw = counts[PredictedResult.DRAW.ordinal()];
+        int awayWin = counts[PredictedResult.AWAY_WIN.ordinal()];
+        return MatchPredictionStatsResponse.builder()
+                .matchId(matchId)
+                .homeWin(homeWin)
+                .draw(draw)
+                .awayWin(awayWin)
+                .totalPredictions(homeWin + draw + awayWin)
+                .correctPredictions(predictionMatrix.countCorrect(matchId))
+                .build();
+    }
+
+    /**
+     * Cómo apostaron todos (los mismos contadores de la matriz que usa getPredictionStats) y los miembros
+     * del grupo del usuario, leído de los contadores en memoria.
+     * userEmail es null para las consultas anónimas: en ese caso solo se informa el consenso global.
+     */
+    @Override
+    public MatchConsensusResponse getPredictionConsensus(Long matchId, String userEmail) {
+        if (!matchCatalog.current().byId().containsKey(matchId)) {
+            throw new ResourceNotFoundException("Match not found with id: " + matchId);
+        }
+
+        ConsensusResponse group = null;
+        if (userEmail != null) {
+            group = groupRankingIndex.getGroupId(currentUserResolver.resolveUserId(userEmail))
+                    .map(groupId -> toConsensusResponse(predictionConsensus.getGroup(groupId, matchId)))
+                    .orElse(null);
+        }
+        return MatchConsensusResponse.builder()
+                .matchId(matchId)
+                .global(toConsensusResponse(globalConsensus(matchId)))
+                .group(group)
+                .build();
+    }
+
+    private ConsensusCounts globalConsensus(Long matchId) {
+        int[] counts = predictionMatrix.countPredictions(matchId);
+        return new ConsensusCounts(counts[PredictedResult.HOME_WIN.ordinal()], counts[PredictedResult.DRAW.ordinal()],
+                counts[PredictedResult.AWAY_WIN.ordinal()]);
+    }
+
+    private ConsensusResponse toConsensusResponse(ConsensusCounts counts) {
+        long total = counts.total();
+        return ConsensusResponse.builder()
+                .homeWin(counts.homeWin())
+                .draw(counts.draw())
+                .awayWin(counts.awayWin())
+                .total(total)
+                .homeWinPercentage(percentage(counts.homeWin(), total))
+                .drawPercentage(percentage(counts.draw(), total))
+                .awayWinPercentage(percentage(counts.awayWin(), total))
+                .build();
+    }
+
+    // Porcentaje con un decimal; 0 si nadie apostó
+    private static double percentage(long count, long total) {
+        return total == 0 ? 0 : Math.round(count * 1000.0 / total) / 10.0;
+    }
+}
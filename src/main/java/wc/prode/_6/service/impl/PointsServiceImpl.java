@@ -1,30 +1,72 @@
 package wc.prode._6.service.impl;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
+import wc.prode._6.dto.response.PhasePointsResponse;
+import wc.prode._6.dto.response.PointsDifferenceResponse;
+import wc.prode._6.dto.response.PointsRecalculationResponse;
+import wc.prode._6.dto.response.PointsRecalculationRunResponse;
+import wc.prode._6.dto.response.UserPointsResponse;
 import wc.prode._6.entity.Match;
-import wc.prode._6.entity.PredictedResult;
-import wc.prode._6.entity.User;
-import wc.prode._6.entity.UserMatchResult;
+import wc.prode._6.entity.Phase;
+import wc.prode._6.entity.PointsRecalculationRun;
+import wc.prode._6.entity.SeedState;
+import wc.prode._6.event.PointsRecalculatedEvent;
 import wc.prode._6.exception.ResourceNotFoundException;
 import wc.prode._6.repository.MatchRepository;
+import wc.prode._6.repository.PointsRecalculationRunRepository;
+import wc.prode._6.repository.SeedStateRepository;
+import wc.prode._6.repository.UserBracketPredictionRepository;
+import wc.prode._6.repository.UserJdbcRepository;
 import wc.prode._6.repository.UserMatchResultRepository;
 import wc.prode._6.repository.UserRepository;
+import wc.prode._6.repository.projection.UserPointsDelta;
+import wc.prode._6.scoring.BracketScorer;
+import wc.prode._6.scoring.KnockoutBracket;
+import wc.prode._6.scoring.PointsRecalculationJob;
+import wc.prode._6.scoring.UserPointsChange;
+import wc.prode._6.security.CurrentUserResolver;
 import wc.prode._6.service.PointsService;
 
+import java.util.Collection;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static wc.prode._6.scoring.ScoringRules.POINTS_CORRECT_RESULT;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class PointsServiceImpl implements PointsService {
 
+    private static final String AWARDED_POINTS_BACKFILL = "awarded-points-backfill";
+    private static final String AWARDED_POINTS_BACKFILL_VERSION = "1";
+
     private final MatchRepository matchRepository;
     private final UserMatchResultRepository userMatchResultRepository;
     private final UserRepository userRepository;
+    private final UserJdbcRepository userJdbcRepository;
+    private final UserBracketPredictionRepository userBracketPredictionRepository;
+    private final BracketScorer bracketScorer;
+    private final PointsRecalculationRunRepository pointsRecalculationRunRepository;
+    private final SeedStateRepository seedStateRepository;
+    private final PointsRecalculationJob pointsRecalculationJob;
+    private final CurrentUserResolver currentUserResolver;
+    private final ApplicationEventPublisher eventPublisher;
 
+    /**
+     * Modo completo: registra los puntos de cada apuesta y pronóstico de llaves del partido y recalcula el puntaje
+     * de quienes apostaron sumando su registro de puntos
+     */
     @Override
     @Transactional
     public void calculatePointsForMatch(Long matchId) {
@@ -36,80 +78,185 @@ public class PointsServiceImpl implements PointsService {
             return;
         }
 
-        // Obtener todas las apuestas para este partido
-        List<UserMatchResult> bets = userMatchResultRepository.findByMatchId(matchId);
+        userMatchResultRepository.updateAwardedPoints(Set.of(matchId), POINTS_CORRECT_RESULT);
+        bracketScorer.updateLedger(bracketScorer.loadBracket(), Set.of(matchId));
+        userRepository.recalculateTotalPointsForMatches(Set.of(matchId));
+    }
+
+    /**
+     * Modo incremental: aplica a cada usuario solo la diferencia entre los puntos que corresponden al resultado
+     * actual de los partidos y los que ya tenía registrados por esas apuestas, y luego actualiza el registro.
+     * Corrige también las ediciones de un resultado ya puntuado, sin recorrer el historial de cada usuario,
+     * y puntúa varios partidos en la misma pasada. Los partidos de eliminación suman además los puntos de los
+     * pronósticos de llaves: las diferencias de ambos se juntan y cada usuario se actualiza una sola vez.
+     * Antes de leer el registro bloquea las filas de los partidos: dos puntuaciones del mismo partido (en otra
+     * instancia, o la de arranque junto con un trabajo de la cola) se serializan y la segunda, en READ COMMITTED,
+     * lee el registro que dejó la primera en lugar de volver a sumar la misma diferencia.
+     * @return usuarios cuyo puntaje cambió, con su puntaje anterior y el nuevo
+     */
+    @Override
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public List<UserPointsChange> applyMatchResultsDelta(Collection<Long> matchIds) {
+        if (matchIds.isEmpty()) {
+            return List.of();
+        }
 
-        // Obtener todos los usuarios únicos que apostaron
-        Set<User> users = bets.stream()
-                .map(UserMatchResult::getUser)
-                .collect(Collectors.toSet());
+        matchRepository.lockByIds(matchIds);
+        KnockoutBracket bracket = bracketScorer.loadBracket();
+        Map<Long, Long> deltas = userRepository.findAwardedPointsDeltas(matchIds, POINTS_CORRECT_RESULT).stream()
+                .collect(Collectors.toMap(UserPointsDelta::getUserId, UserPointsDelta::getDelta));
+        bracketScorer.findDeltas(bracket, matchIds).forEach((userId, delta) -> deltas.merge(userId, delta, Long::sum));
+        deltas.values().removeIf(delta -> delta == 0);
 
-        // Recalcular puntos de todos los usuarios que apostaron
-        for (User user : users) {
-            int totalPoints = calculateUserTotalPoints(user.getId());
-            user.setTotalPoints(totalPoints);
-            userRepository.save(user);
+        if (!deltas.isEmpty()) {
+            userJdbcRepository.addTotalPoints(deltas);
         }
+        userMatchResultRepository.updateAwardedPoints(matchIds, POINTS_CORRECT_RESULT);
+        bracketScorer.updateLedger(bracket, matchIds);
+        if (deltas.isEmpty()) {
+            return List.of();
+        }
+
+        // El puntaje nuevo se lee con las filas ya bloqueadas por la actualización, así el anterior es exacto
+        return userRepository.findTotalPointsByMatchIds(matchIds).stream()
+                .filter(user -> deltas.containsKey(user.getUserId()))
+                .map(user -> new UserPointsChange(user.getUserId(),
+                        user.getTotalPoints() - deltas.get(user.getUserId()).intValue(), user.getTotalPoints()))
+                .toList();
     }
 
+    /**
+     * Registra los puntos de las apuestas sobre partidos ya puntuados que no figuran en el registro,
+     * para que las correcciones posteriores de esos resultados se apliquen como diferencia.
+     * Solo corre una vez (la marca queda en seed_state): después de la migración, una apuesta puntuada sin
+     * registro es un puntaje que todavía no se sumó, no uno ya pagado.
+     */
     @Override
     @Transactional
-    public void recalculateAllPoints() {
-        List<User> allUsers = userRepository.findAll();
-        for (User user : allUsers) {
-            int totalPoints = calculateUserTotalPoints(user.getId());
-            user.setTotalPoints(totalPoints);
-            userRepository.save(user);
+    public int backfillAwardedPoints() {
+        if (seedStateRepository.existsById(AWARDED_POINTS_BACKFILL)) {
+            return 0;
         }
+        int backfilled = userMatchResultRepository.backfillAwardedPoints(POINTS_CORRECT_RESULT);
+        seedStateRepository.save(SeedState.builder()
+                .name(AWARDED_POINTS_BACKFILL)
+                .checksum(AWARDED_POINTS_BACKFILL_VERSION)
+                .build());
+        return backfilled;
     }
 
     /**
-     * Calcula los puntos totales de un usuario basándose en todas sus apuestas
+     * Vuelve a puntuar, como diferencia, los partidos cuyo registro de puntos no coincide con su resultado
+     * actual: los de un trabajo de puntuación que agotó sus reintentos o que se perdió al terminar el proceso
+     * @return partidos puntuados
      */
-    private int calculateUserTotalPoints(Long userId) {
-        List<UserMatchResult> userBets = userMatchResultRepository.findByUserId(userId);
-        int totalPoints = 0;
-
-        for (UserMatchResult bet : userBets) {
-            Match match = bet.getMatch();
-            
-            // Solo contar puntos si el partido tiene resultado final
-            if (match.getHomeScore() != null && match.getAwayScore() != null) {
-                int points = calculatePointsForBet(bet, match);
-                totalPoints += points;
-            }
+    @Override
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public List<Long> rescoreStaleMatches() {
+        Set<Long> matchIds = new TreeSet<>(
+                userMatchResultRepository.findMatchIdsWithStaleAwardedPoints(POINTS_CORRECT_RESULT));
+        matchIds.addAll(userBracketPredictionRepository.findMatchIdsWithStaleAwardedPoints());
+        if (!matchIds.isEmpty()) {
+            List<UserPointsChange> changes = applyMatchResultsDelta(matchIds);
+            log.warn("Rescored {} matches with stale awarded points: {} ({} users updated)",
+                    matchIds.size(), matchIds, changes.size());
         }
-
-        return totalPoints;
+        return List.copyOf(matchIds);
     }
 
     /**
-     * Calcula los puntos de una apuesta individual
-     * - Resultado correcto: 1 punto
-     * - Resultado incorrecto: 0 puntos
+     * Recalcula el registro de puntos de todas las apuestas y el puntaje de todos los usuarios con sentencias
+     * agregadas, sin cargar usuarios ni apuestas en memoria.
+     * En modo dryRun no escribe nada y solo informa las diferencias contra los puntajes guardados.
      */
-    private int calculatePointsForBet(UserMatchResult bet, Match match) {
-        PredictedResult predictedResult = bet.getPredictedResult();
-        Integer actualHomeScore = match.getHomeScore();
-        Integer actualAwayScore = match.getAwayScore();
-
-        // Determinar resultado real del partido
-        PredictedResult actualResult;
-        if (actualHomeScore > actualAwayScore) {
-            actualResult = PredictedResult.HOME_WIN;
-        } else if (actualHomeScore < actualAwayScore) {
-            actualResult = PredictedResult.AWAY_WIN;
-        } else {
-            actualResult = PredictedResult.DRAW;
-        }
+    @Override
+    @Transactional
+    public PointsRecalculationResponse recalculateAllPoints(boolean dryRun) {
+        long start = System.currentTimeMillis();
 
-        // Si acertó el resultado, da 1 punto
-        if (predictedResult == actualResult) {
-            return 1;
+        List<PointsDifferenceResponse> differences = userRepository.findPointsDifferences(POINTS_CORRECT_RESULT)
+                .stream()
+                .map(diff -> PointsDifferenceResponse.builder()
+                        .userId(diff.getUserId())
+                        .userName(diff.getUserName())
+                        .storedPoints(diff.getStoredPoints())
+                        .calculatedPoints(diff.getCalculatedPoints().intValue())
+                        .difference(diff.getCalculatedPoints().intValue() - diff.getStoredPoints())
+                        .build())
+                .toList();
+
+        if (!dryRun) {
+            userMatchResultRepository.updateAllAwardedPoints(POINTS_CORRECT_RESULT);
+            bracketScorer.rescoreAll();
+            userRepository.recalculateAllTotalPoints();
+            eventPublisher.publishEvent(new PointsRecalculatedEvent());
         }
 
-        // Resultado incorrecto
-        return 0;
+        long durationMs = System.currentTimeMillis() - start;
+        log.info("Points recalculation{} finished in {} ms: {} users with different totals",
+                dryRun ? " (dry run)" : "", durationMs, differences.size());
+
+        return PointsRecalculationResponse.builder()
+                .dryRun(dryRun)
+                .usersChanged(differences.size())
+                .differences(differences)
+                .durationMs(durationMs)
+                .build();
     }
-}
 
+    /**
+     * Recálculo completo particionado por rangos de usuarios, en paralelo y con checkpoints por partición.
+     * Con resume=true retoma la última corrida que no se completó.
+     */
+    @Override
+    public PointsRecalculationRunResponse startPartitionedRecalculation(Integer partitionSize, boolean resume) {
+        PointsRecalculationRun run = pointsRecalculationJob.start(partitionSize, resume);
+        return getRecalculationRun(run.getId());
+    }
+
+    @Override
+    public PointsRecalculationRunResponse getRecalculationRun(Long runId) {
+        PointsRecalculationRun run = pointsRecalculationRunRepository.findById(runId)
+                .orElseThrow(() -> new ResourceNotFoundException("Points recalculation run not found with id: " + runId));
+
+        return PointsRecalculationRunResponse.builder()
+                .id(run.getId())
+                .status(run.getStatus().name())
+                .partitionSize(run.getPartitionSize())
+                .totalPartitions(run.getTotalPartitions())
+                .completedPartitions((int) pointsRecalculationJob.countCompletedPartitions(run.getId()))
+                .startedAt(run.getStartedAt())
+                .finishedAt(run.getFinishedAt())
+                .build();
+    }
+
+    /**
+     * Puntaje del usuario desglosado por fase, sumado desde el registro de puntos por apuesta y por pronóstico de llaves
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public UserPointsResponse getUserPoints(String userEmail) {
+        Long userId = currentUserResolver.resolveUserId(userEmail);
+        int totalPoints = userRepository.findTotalPointsById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with email: " + userEmail));
+
+        // En las fases de eliminación se suman las apuestas 1X2 y los pronósticos de llaves
+        Map<Phase, PhasePointsResponse> byPhase = new EnumMap<>(Phase.class);
+        Stream.concat(userMatchResultRepository.sumAwardedPointsByUserIdGroupByPhase(userId).stream(),
+                        userBracketPredictionRepository.sumAwardedPointsByUserIdGroupByPhase(userId).stream())
+                .forEach(phasePoints -> byPhase.merge(phasePoints.getPhase(), PhasePointsResponse.builder()
+                        .phase(phasePoints.getPhase().name())
+                        .scoredBets(phasePoints.getScoredBets().intValue())
+                        .points(phasePoints.getPoints().intValue())
+                        .build(), (current, added) -> PhasePointsResponse.builder()
+                        .phase(current.getPhase())
+                        .scoredBets(current.getScoredBets() + added.getScoredBets())
+                        .points(current.getPoints() + added.getPoints())
+                        .build()));
+
+        return UserPointsResponse.builder()
+                .totalPoints(totalPoints)
+                .byPhase(List.copyOf(byPhase.values()))
+                .build();
+    }
+}
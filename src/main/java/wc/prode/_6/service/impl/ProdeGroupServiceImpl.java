@@ -1,31 +1,67 @@
 package wc.prode._6.service.impl;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import wc.prode._6.catalog.MatchCatalog;
 import wc.prode._6.dto.request.JoinGroupRequest;
+import wc.prode._6.dto.request.UserMatchResultRequest;
+import wc.prode._6.dto.request.WhatIfRequest;
+import wc.prode._6.dto.response.GroupOddsEntryResponse;
+import wc.prode._6.dto.response.GroupOddsResponse;
+import wc.prode._6.dto.response.MatchResponse;
 import wc.prode._6.dto.response.ProdeGroupResponse;
+import wc.prode._6.dto.response.ProvisionalRankingEntryResponse;
+import wc.prode._6.dto.response.PublicRankingEntryResponse;
 import wc.prode._6.dto.response.RankingEntryResponse;
+import wc.prode._6.dto.response.RankingPageResponse;
+import wc.prode._6.entity.PredictedResult;
 import wc.prode._6.entity.ProdeGroup;
 import wc.prode._6.entity.User;
+import wc.prode._6.event.UserChangedEvent;
 import wc.prode._6.exception.BadRequestException;
 import wc.prode._6.exception.ResourceNotFoundException;
+import wc.prode._6.live.ProvisionalPosition;
+import wc.prode._6.live.ProvisionalRanking;
+import wc.prode._6.ranking.GroupRankingIndex;
+import wc.prode._6.ranking.RankedPosition;
+import wc.prode._6.ranking.RankingCursor;
+import wc.prode._6.ranking.RankingEntry;
 import wc.prode._6.repository.ProdeGroupRepository;
 import wc.prode._6.repository.UserRepository;
+import wc.prode._6.repository.projection.RankingRow;
+import wc.prode._6.security.CurrentUserResolver;
 import wc.prode._6.service.ProdeGroupService;
+import wc.prode._6.simulation.GroupOdds;
+import wc.prode._6.simulation.GroupPredictionTables;
+import wc.prode._6.simulation.MonteCarloSimulator;
+import wc.prode._6.simulation.OutcomeModel;
 
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 public class ProdeGroupServiceImpl implements ProdeGroupService {
 
+    private static final int MAX_RANKING_LIMIT = 100;
+    private static final int MAX_RANKING_RADIUS = 50;
+
     private final ProdeGroupRepository prodeGroupRepository;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final GroupRankingIndex groupRankingIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CurrentUserResolver currentUserResolver;
+    private final ProvisionalRanking provisionalRanking;
+    private final GroupPredictionTables groupPredictionTables;
+    private final MatchCatalog matchCatalog;
+    private final MonteCarloSimulator monteCarloSimulator;
 
     @Override
     @Transactional
@@ -44,6 +80,7 @@ public class ProdeGroupServiceImpl implements ProdeGroupService {
         // Asociar usuario al grupo
         user.setGroup(group);
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId()));
 
         return ProdeGroupResponse.builder()
                 .id(group.getId())
@@ -53,35 +90,232 @@ public class ProdeGroupServiceImpl implements ProdeGroupService {
 
     @Override
     public List<RankingEntryResponse> getGroupRanking(String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with email: " + userEmail));
+        return toResponses(groupRankingIndex.getAll(getGroupId(currentUserResolver.resolveUserId(userEmail))));
+    }
+
+    /**
+     * Ranking del grupo con los marcadores parciales de los partidos en juego; sin partidos en juego coincide
+     * con el oficial
+     */
+    @Override
+    public List<ProvisionalRankingEntryResponse> getProvisionalGroupRanking(String userEmail) {
+        Long groupId = getGroupId(currentUserResolver.resolveUserId(userEmail));
+        return toProvisionalResponses(provisionalRanking.getGroupRanking(groupId));
+    }
 
-        if (user.getGroup() == null) {
+    /**
+     * Ranking del grupo si los partidos indicados terminaran con los resultados supuestos. Se simula en memoria
+     * sobre la tabla de apuestas del grupo; no se guarda nada.
+     */
+    @Override
+    public List<ProvisionalRankingEntryResponse> simulateGroupRanking(String userEmail, WhatIfRequest request) {
+        Long groupId = getGroupId(currentUserResolver.resolveUserId(userEmail));
+        Map<Long, MatchResponse> matches = matchCatalog.current().byId();
+        Map<Long, PredictedResult> results = new HashMap<>();
+        for (UserMatchResultRequest result : request.getResults()) {
+            MatchResponse match = matches.get(result.getMatchId());
+            if (match == null) {
+                throw new ResourceNotFoundException("Match not found with id: " + result.getMatchId());
+            }
+            if (match.getHomeScore() != null || match.getAwayScore() != null) {
+                throw new BadRequestException("Match " + result.getMatchId() + " already has a final result");
+            }
+            results.put(result.getMatchId(), result.getPredictedResult());
+        }
+        return toProvisionalResponses(groupPredictionTables.get(groupId).simulate(results));
+    }
+
+    /**
+     * Probabilidad de cada miembro del grupo de terminar primero o en el podio, simulando los partidos pendientes
+     */
+    @Override
+    public GroupOddsResponse getGroupOdds(String userEmail, OutcomeModel model) {
+        Long groupId = getGroupId(currentUserResolver.resolveUserId(userEmail));
+        GroupOdds odds = monteCarloSimulator.simulate(groupId, model);
+        return GroupOddsResponse.builder()
+                .groupId(groupId)
+                .model(odds.model().name())
+                .iterations(odds.iterations())
+                .pendingMatches(odds.pendingMatches())
+                .entries(odds.members().stream()
+                        .map(member -> GroupOddsEntryResponse.builder()
+                                .userId(member.position().entry().userId())
+                                .userName(member.position().entry().name())
+                                .userEmail(member.position().entry().email())
+                                .pictureUrl(member.position().entry().pictureUrl())
+                                .officialPoints(member.position().entry().totalPoints())
+                                .officialPosition(member.position().position())
+                                .winProbability(member.winProbability())
+                                .top3Probability(member.top3Probability())
+                                .build())
+                        .toList())
+                .build();
+    }
+
+    @Override
+    public List<RankingEntryResponse> getGroupRankingTop(String userEmail, int limit) {
+        if (limit < 1 || limit > MAX_RANKING_LIMIT) {
+            throw new BadRequestException("Limit must be between 1 and " + MAX_RANKING_LIMIT);
+        }
+        return toResponses(groupRankingIndex.getTop(getGroupId(currentUserResolver.resolveUserId(userEmail)), limit));
+    }
+
+    @Override
+    public RankingEntryResponse getMyRankingPosition(String userEmail) {
+        // Solo los usuarios con grupo están en el índice
+        return groupRankingIndex.getPosition(currentUserResolver.resolveUserId(userEmail))
+                .map(this::toResponse)
+                .orElseThrow(() -> new BadRequestException("User is not part of any group"));
+    }
+
+    @Override
+    public List<RankingEntryResponse> getRankingAroundMe(String userEmail, int radius) {
+        if (radius < 0 || radius > MAX_RANKING_RADIUS) {
+            throw new BadRequestException("Radius must be between 0 and " + MAX_RANKING_RADIUS);
+        }
+        List<RankedPosition> around = groupRankingIndex.getAround(currentUserResolver.resolveUserId(userEmail), radius);
+        if (around.isEmpty()) {
             throw new BadRequestException("User is not part of any group");
         }
+        return toResponses(around);
+    }
+
+    /**
+     * Página del ranking del grupo leída de la base y paginada por cursor (búsqueda por clave, sin OFFSET).
+     * Con aroundMe arma directamente la página que contiene al usuario.
+     */
+    @Override
+    public RankingPageResponse getGroupRankingPage(String userEmail, String after, String before, int size,
+                                                   boolean aroundMe) {
+        if (size < 1 || size > MAX_RANKING_LIMIT) {
+            throw new BadRequestException("Size must be between 1 and " + MAX_RANKING_LIMIT);
+        }
+        if (after != null && before != null) {
+            throw new BadRequestException("Only one of after and before can be specified");
+        }
 
-        ProdeGroup group = user.getGroup();
-
-        // Obtener todos los usuarios del grupo usando el repositorio
-        List<User> groupUsers = userRepository.findByGroupId(group.getId())
-                .stream()
-                .sorted(Comparator.comparing(User::getTotalPoints).reversed()
-                        .thenComparing(User::getName))
-                .collect(Collectors.toList());
-
-        // Construir respuesta del ranking
-        List<RankingEntryResponse> ranking = groupUsers.stream()
-                .map(u -> RankingEntryResponse.builder()
-                        .userId(u.getId())
-                        .userName(u.getName())
-                        .userEmail(u.getEmail())
-                        .pictureUrl(u.getPictureUrl())
-                        .totalPoints(u.getTotalPoints())
-                        .position(groupUsers.indexOf(u) + 1)
-                        .build())
-                .collect(Collectors.toList());
+        Long userId = currentUserResolver.resolveUserId(userEmail);
+        Long groupId = getGroupId(userId);
+
+        List<RankingRow> rows;
+        // Miembros ubicados antes de la primera fila de la página; null si hay que contarlos
+        Long rowsBefore = null;
+        if (aroundMe) {
+            // El índice puede ir un paso atrás de la tabla (por ejemplo, justo después de cambiar de grupo)
+            RankingRow me = userRepository.findRankingRow(groupId, userId)
+                    .orElseThrow(() -> new BadRequestException("User is not part of the group ranking yet"));
+            long meRowsBefore = countRowsBefore(groupId, me);
+            int pageOffset = (int) (meRowsBefore % size);
+            rows = new ArrayList<>(pageOffset == 0 ? List.of() : userRepository.findRankingPageBefore(groupId,
+                    me.getTotalPoints(), me.getUserName(), me.getUserId(), pageOffset));
+            Collections.reverse(rows);
+            rowsBefore = meRowsBefore - rows.size();
+            rows.add(me);
+            if (size - pageOffset - 1 > 0) {
+                rows.addAll(userRepository.findRankingPageAfter(groupId, me.getTotalPoints(), me.getUserName(),
+                        me.getUserId(), size - pageOffset - 1));
+            }
+        } else if (after != null) {
+            RankingCursor cursor = RankingCursor.decode(after);
+            rows = userRepository.findRankingPageAfter(groupId, cursor.points(), cursor.name(), cursor.userId(), size);
+        } else if (before != null) {
+            RankingCursor cursor = RankingCursor.decode(before);
+            rows = new ArrayList<>(userRepository.findRankingPageBefore(groupId, cursor.points(), cursor.name(),
+                    cursor.userId(), size));
+            Collections.reverse(rows);
+        } else {
+            rows = userRepository.findRankingFirstPage(groupId, size);
+            rowsBefore = 0L;
+        }
 
-        return ranking;
+        long totalMembers = userRepository.countByGroupId(groupId);
+        List<PublicRankingEntryResponse> entries = new ArrayList<>(rows.size());
+        String previousCursor = null;
+        String nextCursor = null;
+        if (!rows.isEmpty()) {
+            RankingRow first = rows.get(0);
+            RankingRow last = rows.get(rows.size() - 1);
+            if (rowsBefore == null) {
+                rowsBefore = countRowsBefore(groupId, first);
+            }
+            // Posición con empates: la de la primera fila sale de contar los miembros con más puntos; dentro
+            // de la página, una fila con menos puntos que la anterior tiene como posición su número de fila
+            long position = userRepository.countByGroupIdAndTotalPointsGreaterThan(groupId, first.getTotalPoints()) + 1;
+            for (int i = 0; i < rows.size(); i++) {
+                RankingRow row = rows.get(i);
+                if (i > 0 && !row.getTotalPoints().equals(rows.get(i - 1).getTotalPoints())) {
+                    position = rowsBefore + i + 1;
+                }
+                entries.add(PublicRankingEntryResponse.builder()
+                        .userId(row.getUserId())
+                        .userName(row.getUserName())
+                        .pictureUrl(row.getPictureUrl())
+                        .totalPoints(row.getTotalPoints())
+                        .position((int) position)
+                        .build());
+            }
+            if (rowsBefore > 0) {
+                previousCursor = toCursor(first).encode();
+            }
+            if (rowsBefore + rows.size() < totalMembers) {
+                nextCursor = toCursor(last).encode();
+            }
+        }
+
+        return RankingPageResponse.builder()
+                .entries(entries)
+                .previousCursor(previousCursor)
+                .nextCursor(nextCursor)
+                .totalMembers(totalMembers)
+                .build();
+    }
+
+    private long countRowsBefore(Long groupId, RankingRow row) {
+        return userRepository.countRankingRowsBefore(groupId, row.getTotalPoints(), row.getUserName(), row.getUserId());
     }
-}
 
+    private RankingCursor toCursor(RankingRow row) {
+        return new RankingCursor(row.getTotalPoints(), row.getUserName(), row.getUserId());
+    }
+
+    /**
+     * Grupo del usuario tomado del índice de ranking, que se actualiza al unirse a un grupo
+     */
+    private Long getGroupId(Long userId) {
+        return groupRankingIndex.getGroupId(userId)
+                .orElseThrow(() -> new BadRequestException("User is not part of any group"));
+    }
+
+    private List<RankingEntryResponse> toResponses(List<RankedPosition> positions) {
+        return positions.stream()
+                .map(this::toResponse)
+                .toList();
+    }
+
+    private RankingEntryResponse toResponse(RankedPosition rankedPosition) {
+        RankingEntry entry = rankedPosition.entry();
+        return RankingEntryResponse.builder()
+                .userId(entry.userId())
+                .userName(entry.name())
+                .userEmail(entry.email())
+                .pictureUrl(entry.pictureUrl())
+                .totalPoints(entry.totalPoints())
+                .position(rankedPosition.position())
+                .build();
+    }
+
+    private List<ProvisionalRankingEntryResponse> toProvisionalResponses(List<ProvisionalPosition> positions) {
+        return positions.stream()
+                .map(position -> ProvisionalRankingEntryResponse.builder()
+                        .userId(position.entry().userId())
+                        .userName(position.entry().name())
+                        .userEmail(position.entry().email())
+                        .pictureUrl(position.entry().pictureUrl())
+                        .officialPoints(position.entry().totalPoints())
+                        .officialPosition(position.officialPosition())
+                        .provisionalPoints(position.provisionalPoints())
+                        .position(position.position())
+                        .build())
+                .toList();
+    }
+}
@@ -0,0 +1,194 @@
+package wc.prode._6.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import wc.prode._6.dto.response.ScheduleSyncResponse;
+import wc.prode._6.entity.Phase;
+import wc.prode._6.entity.PredictedResult;
+import wc.prode._6.entity.Team;
+import wc.prode._6.event.LiveScoreChangedEvent;
+import wc.prode._6.event.MatchCatalogChangedEvent;
+import wc.prode._6.event.MatchResultChangedEvent;
+import wc.prode._6.exception.BadRequestException;
+import wc.prode._6.ingestion.FeedMatch;
+import wc.prode._6.ingestion.FifaFeedReader;
+import wc.prode._6.live.LiveScoreBoard;
+import wc.prode._6.repository.MatchJdbcRepository;
+import wc.prode._6.repository.TeamRepository;
+import wc.prode._6.repository.projection.MatchScheduleRow;
+import wc.prode._6.service.ScheduleSyncService;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Sincroniza el calendario con el feed de FIFA comparando por IdMatch (external_id) contra la tabla matches.
+ * Solo se escriben las filas nuevas o con cambios (fecha, sede, equipos definidos, marcador), en un batch cada una.
+ * Los partidos sembrados desde los JSON todavía no tienen external_id: se reconocen por fecha y estadio y lo reciben
+ * en la primera sincronización. Los partidos que no vienen en el feed no se tocan, así se puede enviar una fase sola.
+ * El marcador de un partido en juego (MatchStatus en vivo) no se guarda: se publica como marcador parcial.
+ * Un partido que llega sin marcador conserva el resultado guardado: un feed parcial o atrasado nunca borra
+ * un resultado oficial.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ScheduleSyncServiceImpl implements ScheduleSyncService {
+
+    private final FifaFeedReader feedReader;
+    private final MatchJdbcRepository matchJdbcRepository;
+    private final TeamRepository teamRepository;
+    private final LiveScoreBoard liveScoreBoard;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    @Transactional
+    public ScheduleSyncResponse syncSchedule(InputStream feed) {
+        ScheduleDiff diff = new ScheduleDiff(matchJdbcRepository.findScheduleRows());
+        int received;
+        try {
+            received = feedReader.read(feed, diff::apply);
+        } catch (IOException e) {
+            throw new BadRequestException("Invalid FIFA feed: " + e.getMessage());
+        }
+
+        matchJdbcRepository.insertRows(diff.inserts);
+        matchJdbcRepository.updateRows(diff.updates);
+
+        // Todos los marcadores nuevos se puntúan juntos, en un solo trabajo, cuando se confirma la transacción
+        if (!diff.resultChanges.isEmpty()) {
+            Map<Long, PredictedResult> results = new HashMap<>();
+            for (MatchScheduleRow row : diff.resultChanges) {
+                results.put(row.id(), PredictedResult.fromScore(row.homeScore(), row.awayScore()));
+            }
+            eventPublisher.publishEvent(new MatchResultChangedEvent(results));
+        }
+        diff.liveScores.forEach(eventPublisher::publishEvent);
+        if (!diff.inserts.isEmpty() || !diff.updates.isEmpty()) {
+            eventPublisher.publishEvent(new MatchCatalogChangedEvent());
+        }
+
+        log.info("Schedule sync: {} received, {} inserted, {} updated, {} unchanged, {} skipped, {} live scores",
+                received, diff.inserts.size(), diff.updates.size(), diff.unchanged, diff.skipped,
+                diff.liveScores.size());
+        return ScheduleSyncResponse.builder()
+                .received(received)
+                .inserted(diff.inserts.size())
+                .updated(diff.updates.size())
+                .unchanged(diff.unchanged)
+                .skipped(diff.skipped)
+                .resultsChanged(diff.resultChanges.size())
+                .liveScoresChanged(diff.liveScores.size())
+                .build();
+    }
+
+    private Long resolveTeamId(FeedMatch.TeamRef team, Map<String, Long> teamIds) {
+        String name = team != null ? team.name() : Team.PLACEHOLDER_NAME;
+        Long teamId = teamIds.get(name);
+        if (teamId == null) {
+            String countryCode = team != null && team.countryCode() != null ? team.countryCode() : "XX";
+            teamId = teamRepository.save(Team.builder()
+                    .name(name)
+                    .flagUrl("https://flagsapi.com/" + countryCode + "/flat/64.png")
+                    .build()).getId();
+            teamIds.put(name, teamId);
+            log.info("Created team '{}' from FIFA feed", name);
+        }
+        return teamId;
+    }
+
+    /**
+     * Estado actual del calendario indexado por external_id (y por fecha y estadio para las filas sin él),
+     * junto con las filas a escribir que va dejando cada partido del feed
+     */
+    private final class ScheduleDiff {
+        private final Map<String, MatchScheduleRow> byExternalId = new HashMap<>();
+        private final Map<String, MatchScheduleRow> unlinked = new HashMap<>();
+        private final Map<String, Long> teamIds = new HashMap<>();
+        private final Set<String> seen = new HashSet<>();
+        private final List<MatchScheduleRow> inserts = new ArrayList<>();
+        private final List<MatchScheduleRow> updates = new ArrayList<>();
+        private final List<MatchScheduleRow> resultChanges = new ArrayList<>();
+        private final List<LiveScoreChangedEvent> liveScores = new ArrayList<>();
+        private int unchanged;
+        private int skipped;
+
+        private ScheduleDiff(List<MatchScheduleRow> current) {
+            for (MatchScheduleRow row : current) {
+                if (row.externalId() != null) {
+                    byExternalId.put(row.externalId(), row);
+                } else {
+                    unlinked.putIfAbsent(venueKey(row.date(), row.stadium()), row);
+                }
+            }
+            teamRepository.findAll().forEach(team -> teamIds.put(team.getName(), team.getId()));
+        }
+
+        private void apply(FeedMatch match) {
+            if (!seen.add(match.externalId())) {
+                log.warn("Duplicate FIFA match {} in feed, skipping", match.externalId());
+                skipped++;
+                return;
+            }
+            // Igual que al sembrar: en fase de grupos solo se cargan partidos con ambos equipos definidos
+            if (match.phase() == Phase.GROUP && (match.homeTeam() == null || match.awayTeam() == null)) {
+                skipped++;
+                return;
+            }
+
+            MatchScheduleRow current = byExternalId.get(match.externalId());
+            if (current == null) {
+                current = unlinked.remove(venueKey(match.date(), match.stadium()));
+            }
+            // Un partido en juego no toca el marcador oficial: el parcial va al tablero en vivo.
+            // Un partido sin marcador en el feed tampoco: un resultado solo se borra desde el endpoint de admin
+            boolean officialScore = !match.live() && match.homeScore() != null && match.awayScore() != null;
+            Integer homeScore = officialScore ? match.homeScore() : (current != null ? current.homeScore() : null);
+            Integer awayScore = officialScore ? match.awayScore() : (current != null ? current.awayScore() : null);
+            if (match.live() && current != null && current.homeScore() == null && current.awayScore() == null) {
+                trackLiveScore(current.id(), match.homeScore(), match.awayScore());
+            }
+            MatchScheduleRow target = new MatchScheduleRow(current != null ? current.id() : null, match.externalId(),
+                    match.date(), match.city(), match.stadium(), match.phase(), match.group(),
+                    resolveTeamId(match.homeTeam(), teamIds), resolveTeamId(match.awayTeam(), teamIds),
+                    homeScore, awayScore);
+
+            if (current == null) {
+                inserts.add(target);
+            } else if (target.equals(current)) {
+                unchanged++;
+            } else {
+                updates.add(target);
+                if (!target.sameResult(current)) {
+                    resultChanges.add(target);
+                }
+            }
+        }
+
+        private void trackLiveScore(Long matchId, Integer homeScore, Integer awayScore) {
+            if (homeScore == null || awayScore == null) {
+                return;
+            }
+            boolean changed = liveScoreBoard.get(matchId)
+                    .map(score -> !homeScore.equals(score.homeScore()) || !awayScore.equals(score.awayScore()))
+                    .orElse(true);
+            if (changed) {
+                liveScores.add(new LiveScoreChangedEvent(matchId, homeScore, awayScore));
+            }
+        }
+
+        private static String venueKey(LocalDateTime date, String stadium) {
+            return date + "|" + stadium;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package wc.prode._6.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import wc.prode._6.dto.response.ScoringJobResponse;
+import wc.prode._6.exception.ResourceNotFoundException;
+import wc.prode._6.scoring.ScoringJob;
+import wc.prode._6.scoring.ScoringQueue;
+import wc.prode._6.service.ScoringService;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class ScoringServiceImpl implements ScoringService {
+
+    private final ScoringQueue scoringQueue;
+
+    @Override
+    public ScoringJobResponse getJob(Long jobId) {
+        return scoringQueue.getJob(jobId)
+                .map(this::toResponse)
+                .orElseThrow(() -> new ResourceNotFoundException("Scoring job not found with id: " + jobId));
+    }
+
+    @Override
+    public List<ScoringJobResponse> getRecentJobs(Long matchId) {
+        return scoringQueue.getRecentJobs(matchId).stream()
+                .map(this::toResponse)
+                .toList();
+    }
+
+    private ScoringJobResponse toResponse(ScoringJob job) {
+        return ScoringJobResponse.builder()
+                .id(job.getId())
+                .status(job.getStatus().name())
+                .matchIds(job.getMatchIds())
+                .coalescedEvents(job.getCoalescedEvents())
+                .usersUpdated(job.getUsersUpdated())
+                .queuedAt(job.getQueuedAt())
+                .startedAt(job.getStartedAt())
+                .finishedAt(job.getFinishedAt())
+                .durationMs(job.getDurationMs())
+                .error(job.getError())
+                .build();
+    }
+}
@@ -1,6 +1,7 @@
 package wc.prode._6.service.impl;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import wc.prode._6.dto.request.UserBracketPredictionRequest;
@@ -14,8 +15,10 @@ import wc.prode._6.exception.ResourceNotFoundException;
 import wc.prode._6.mapper.UserBracketPredictionMapper;
 import wc.prode._6.repository.MatchRepository;
 import wc.prode._6.repository.TeamRepository;
+import wc.prode._6.repository.UpsertResult;
+import wc.prode._6.repository.UserBracketPredictionJdbcRepository;
 import wc.prode._6.repository.UserBracketPredictionRepository;
-import wc.prode._6.repository.UserRepository;
+import wc.prode._6.security.CurrentUserResolver;
 import wc.prode._6.service.UserBracketService;
 import wc.prode._6.exception.BadRequestException;
 
@@ -25,17 +28,19 @@ import java.util.List;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class UserBracketServiceImpl implements UserBracketService {
 
     private final UserBracketPredictionRepository userBracketPredictionRepository;
-    private final UserRepository userRepository;
+    private final UserBracketPredictionJdbcRepository userBracketPredictionJdbcRepository;
+    private final CurrentUserResolver currentUserResolver;
     private final MatchRepository matchRepository;
     private final TeamRepository teamRepository;
     private final UserBracketPredictionMapper userBracketPredictionMapper;
 
     @Override
     public List<UserBracketPredictionResponse> getUserBracketPredictions(String userEmail) {
-        User user = getUserByEmail(userEmail);
+        User user = currentUserResolver.getReference(userEmail);
         List<UserBracketPrediction> predictions = userBracketPredictionRepository.findByUser(user);
         return predictions.stream()
                 .map(userBracketPredictionMapper::toResponse)
@@ -45,28 +50,31 @@ public class UserBracketServiceImpl implements UserBracketService {
     @Override
     @Transactional
     public UserBracketPredictionResponse createOrUpdatePrediction(String userEmail, UserBracketPredictionRequest request) {
-        User user = getUserByEmail(userEmail);
+        User user = currentUserResolver.getReference(userEmail);
         Match match = matchRepository.findById(request.getMatchId())
                 .orElseThrow(() -> new ResourceNotFoundException("Match not found with id: " + request.getMatchId()));
 
         // Validar que no se pueda apostar menos de 1 hora antes del partido
         validateBettingDeadline(match);
 
-        UserBracketPrediction prediction = userBracketPredictionRepository.findByUserAndMatchId(user, request.getMatchId())
-                .orElse(UserBracketPrediction.builder()
-                        .user(user)
-                        .match(match)
-                        .build());
-
+        Team predictedWinner = null;
         if (request.getPredictedWinnerId() != null) {
-            Team predictedWinner = teamRepository.findById(request.getPredictedWinnerId())
+            predictedWinner = teamRepository.findById(request.getPredictedWinnerId())
                     .orElseThrow(() -> new ResourceNotFoundException("Team not found with id: " + request.getPredictedWinnerId()));
-            prediction.setPredictedWinner(predictedWinner);
-        } else {
-            prediction.setPredictedWinner(null);
         }
 
-        prediction = userBracketPredictionRepository.save(prediction);
+        // Upsert nativo: una sola sentencia, sin carrera contra la clave única (user_id, match_id)
+        UpsertResult upsert = userBracketPredictionJdbcRepository.upsertPrediction(
+                user.getId(), match.getId(), request.getPredictedWinnerId());
+        log.debug("Bracket prediction {} for user {} on match {}", upsert.inserted() ? "created" : "updated",
+                user.getId(), match.getId());
+
+        UserBracketPrediction prediction = UserBracketPrediction.builder()
+                .id(upsert.id())
+                .user(user)
+                .match(match)
+                .predictedWinner(predictedWinner)
+                .build();
         return userBracketPredictionMapper.toResponse(prediction);
     }
 
@@ -82,16 +90,11 @@ public class UserBracketServiceImpl implements UserBracketService {
 
     @Override
     public List<UserBracketPredictionResponse> getUserBracketPredictionsByPhase(String userEmail, Phase phase) {
-        User user = getUserByEmail(userEmail);
+        User user = currentUserResolver.getReference(userEmail);
         List<UserBracketPrediction> predictions = userBracketPredictionRepository.findByUserAndMatchPhase(user, phase);
         return predictions.stream()
                 .map(userBracketPredictionMapper::toResponse)
                 .toList();
     }
-
-    private User getUserByEmail(String email) {
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with email: " + email));
-    }
 }
 
@@ -12,7 +12,7 @@ import wc.prode._6.exception.ResourceNotFoundException;
 import wc.prode._6.mapper.UserFavoriteMatchMapper;
 import wc.prode._6.repository.MatchRepository;
 import wc.prode._6.repository.UserFavoriteMatchRepository;
-import wc.prode._6.repository.UserRepository;
+import wc.prode._6.security.CurrentUserResolver;
 import wc.prode._6.service.UserFavoriteService;
 
 import java.util.List;
@@ -22,13 +22,13 @@ import java.util.List;
 public class UserFavoriteServiceImpl implements UserFavoriteService {
 
     private final UserFavoriteMatchRepository userFavoriteMatchRepository;
-    private final UserRepository userRepository;
+    private final CurrentUserResolver currentUserResolver;
     private final MatchRepository matchRepository;
     private final UserFavoriteMatchMapper userFavoriteMatchMapper;
 
     @Override
     public List<UserFavoriteMatchResponse> getUserFavorites(String userEmail) {
-        User user = getUserByEmail(userEmail);
+        User user = currentUserResolver.getReference(userEmail);
         List<UserFavoriteMatch> favorites = userFavoriteMatchRepository.findByUser(user);
         return favorites.stream()
                 .map(userFavoriteMatchMapper::toResponse)
@@ -38,7 +38,7 @@ public class UserFavoriteServiceImpl implements UserFavoriteService {
     @Override
     @Transactional
     public UserFavoriteMatchResponse addFavorite(String userEmail, Long matchId) {
-        User user = getUserByEmail(userEmail);
+        User user = currentUserResolver.getReference(userEmail);
         Match match = matchRepository.findById(matchId)
                 .orElseThrow(() -> new ResourceNotFoundException("Match not found with id: " + matchId));
 
@@ -58,7 +58,7 @@ public class UserFavoriteServiceImpl implements UserFavoriteService {
     @Override
     @Transactional
     public void removeFavorite(String userEmail, Long matchId) {
-        User user = getUserByEmail(userEmail);
+        User user = currentUserResolver.getReference(userEmail);
         UserFavoriteMatch favorite = userFavoriteMatchRepository.findByUserAndMatchId(user, matchId)
                 .orElseThrow(() -> new ResourceNotFoundException("Favorite match not found"));
         userFavoriteMatchRepository.delete(favorite);
@@ -66,13 +66,8 @@ public class UserFavoriteServiceImpl implements UserFavoriteService {
 
     @Override
     public boolean isFavorite(String userEmail, Long matchId) {
-        User user = getUserByEmail(userEmail);
+        User user = currentUserResolver.getReference(userEmail);
         return userFavoriteMatchRepository.existsByUserAndMatchId(user, matchId);
     }
-
-    private User getUserByEmail(String email) {
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with email: " + email));
-    }
 }
 
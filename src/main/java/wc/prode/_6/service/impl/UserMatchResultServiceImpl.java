@@ -1,38 +1,64 @@
 package wc.prode._6.service.impl;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import wc.prode._6.catalog.MatchCatalog;
+import wc.prode._6.catalog.MatchCatalogSnapshot;
 import wc.prode._6.dto.request.UserMatchResultRequest;
+import wc.prode._6.dto.response.BatchPredictionItemResponse;
+import wc.prode._6.dto.response.BatchPredictionResponse;
+import wc.prode._6.dto.response.MatchResponse;
 import wc.prode._6.dto.response.UserMatchResultResponse;
 import wc.prode._6.entity.Match;
+import wc.prode._6.entity.PredictedResult;
 import wc.prode._6.entity.User;
 import wc.prode._6.entity.UserMatchResult;
+import wc.prode._6.event.PredictionChangedEvent;
 import wc.prode._6.exception.ResourceNotFoundException;
 import wc.prode._6.mapper.UserMatchResultMapper;
 import wc.prode._6.repository.MatchRepository;
+import wc.prode._6.repository.UpsertResult;
+import wc.prode._6.repository.UserMatchResultJdbcRepository;
 import wc.prode._6.repository.UserMatchResultRepository;
-import wc.prode._6.repository.UserRepository;
+import wc.prode._6.security.CurrentUserResolver;
 import wc.prode._6.service.UserMatchResultService;
 import wc.prode._6.exception.BadRequestException;
+import wc.prode._6.repository.projection.PredictionRow;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class UserMatchResultServiceImpl implements UserMatchResultService {
 
+    private static final int MAX_BATCH_SIZE = 200;
+    private static final String BETTING_CLOSED_MESSAGE = "Las apuestas se cierran 1 hora antes del partido. Ya no es posible realizar apuestas para este partido.";
+    private static final String MATCH_HAS_RESULT_MESSAGE = "No se puede modificar la apuesta porque el partido ya tiene un resultado final.";
+
     private final UserMatchResultRepository userMatchResultRepository;
-    private final UserRepository userRepository;
+    private final CurrentUserResolver currentUserResolver;
     private final MatchRepository matchRepository;
+    private final UserMatchResultJdbcRepository userMatchResultJdbcRepository;
+    private final MatchCatalog matchCatalog;
     private final UserMatchResultMapper userMatchResultMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public List<UserMatchResultResponse> getUserMatchResults(String userEmail) {
-        User user = getUserByEmail(userEmail);
+        User user = currentUserResolver.getReference(userEmail);
         List<UserMatchResult> results = userMatchResultRepository.findByUser(user);
         return results.stream()
                 .map(userMatchResultMapper::toResponse)
@@ -42,7 +68,7 @@ public class UserMatchResultServiceImpl implements UserMatchResultService {
     @Override
     @Transactional
     public UserMatchResultResponse createOrUpdateUserMatchResult(String userEmail, UserMatchResultRequest request) {
-        User user = getUserByEmail(userEmail);
+        User user = currentUserResolver.getReference(userEmail);
         Match match = matchRepository.findById(request.getMatchId())
                 .orElseThrow(() -> new ResourceNotFoundException("Match not found with id: " + request.getMatchId()));
 
@@ -52,16 +78,105 @@ public class UserMatchResultServiceImpl implements UserMatchResultService {
         // Validar que el partido no tenga resultado aún
         validateMatchHasNoResult(match);
 
-        UserMatchResult result = userMatchResultRepository.findByUserAndMatchId(user, request.getMatchId())
-                .orElse(UserMatchResult.builder()
-                        .user(user)
-                        .match(match)
-                        .build());
+        // Upsert nativo: una sola sentencia, sin carrera contra la clave única (user_id, match_id), que además
+        // devuelve la apuesta anterior para que el consenso por partido se actualice sin recontar
+        UpsertResult upsert = userMatchResultJdbcRepository.upsertPrediction(
+                user.getId(), match.getId(), request.getPredictedResult());
+        PredictedResult previous = upsert.previous() == null ? null : PredictedResult.valueOf(upsert.previous());
+        log.debug("Prediction {} for user {} on match {}", upsert.inserted() ? "created" : "updated",
+                user.getId(), match.getId());
+
+        // El partido todavía no tiene resultado, así que la apuesta no tiene puntos otorgados
+        UserMatchResult result = UserMatchResult.builder()
+                .id(upsert.id())
+                .user(user)
+                .match(match)
+                .predictedResult(request.getPredictedResult())
+                .build();
+        eventPublisher.publishEvent(new PredictionChangedEvent(user.getId(), match.getId(), result.getPredictedResult(),
+                previous));
+        return userMatchResultMapper.toResponse(result);
+    }
 
-        result.setPredictedResult(request.getPredictedResult());
+    /**
+     * Guarda varias apuestas del usuario en una sola transacción. Plazos y resultados se validan contra el
+     * catálogo en memoria, las apuestas existentes se leen en una consulta y las altas y modificaciones
+     * se escriben en un único batch JDBC de upserts. Cada apuesta informa si se guardó, no cambió o se rechazó.
+     */
+    @Override
+    @Transactional
+    public BatchPredictionResponse saveUserMatchResults(String userEmail, List<UserMatchResultRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new BadRequestException("At least one prediction is required");
+        }
+        if (requests.size() > MAX_BATCH_SIZE) {
+            throw new BadRequestException("A batch can contain at most " + MAX_BATCH_SIZE + " predictions");
+        }
 
-        result = userMatchResultRepository.save(result);
-        return userMatchResultMapper.toResponse(result);
+        Long userId = currentUserResolver.resolveUserId(userEmail);
+        MatchCatalogSnapshot catalog = matchCatalog.current();
+        LocalDateTime now = LocalDateTime.now();
+
+        List<BatchPredictionItemResponse> items = new ArrayList<>(requests.size());
+        Map<Long, PredictedResult> accepted = new HashMap<>();
+        Set<Long> seen = new HashSet<>();
+        for (UserMatchResultRequest request : requests) {
+            String rejection;
+            MatchResponse match = catalog.byId().get(request.getMatchId());
+            if (!seen.add(request.getMatchId())) {
+                rejection = "Duplicate match in batch";
+            } else if (match == null) {
+                rejection = "Match not found with id: " + request.getMatchId();
+            } else if (match.getHomeScore() != null && match.getAwayScore() != null) {
+                rejection = MATCH_HAS_RESULT_MESSAGE;
+            } else if (ChronoUnit.HOURS.between(now, match.getDate()) < 1) {
+                rejection = BETTING_CLOSED_MESSAGE;
+            } else {
+                rejection = null;
+                accepted.put(request.getMatchId(), request.getPredictedResult());
+            }
+            items.add(BatchPredictionItemResponse.builder()
+                    .matchId(request.getMatchId())
+                    .predictedResult(request.getPredictedResult())
+                    .status(rejection == null ? "SAVED" : "REJECTED")
+                    .message(rejection)
+                    .build());
+        }
+
+        // Lectura sin bloqueo (no se bloquean filas que pueden no existir): si otra request cambia una de estas
+        // apuestas antes del batch, el consenso de grupo queda con una diferencia que corrige la conciliación periódica
+        Map<Long, PredictedResult> existing = accepted.isEmpty() ? Map.of() : userMatchResultRepository
+                .findPredictionsByUserIdAndMatchIds(userId, accepted.keySet()).stream()
+                .collect(Collectors.toMap(PredictionRow::getMatchId, PredictionRow::getPredictedResult));
+
+        List<Map.Entry<Long, PredictedResult>> changes = new ArrayList<>();
+        for (BatchPredictionItemResponse item : items) {
+            if (!"SAVED".equals(item.getStatus())) {
+                continue;
+            }
+            PredictedResult previous = existing.get(item.getMatchId());
+            if (previous == item.getPredictedResult()) {
+                item.setStatus("UNCHANGED");
+            } else {
+                changes.add(Map.entry(item.getMatchId(), item.getPredictedResult()));
+            }
+        }
+        userMatchResultJdbcRepository.upsertPredictions(userId, changes);
+
+        items.stream()
+                .filter(item -> "SAVED".equals(item.getStatus()))
+                .forEach(item -> eventPublisher.publishEvent(
+                        new PredictionChangedEvent(userId, item.getMatchId(), item.getPredictedResult(),
+                                existing.get(item.getMatchId()))));
+
+        Map<String, Long> counts = items.stream()
+                .collect(Collectors.groupingBy(BatchPredictionItemResponse::getStatus, Collectors.counting()));
+        return BatchPredictionResponse.builder()
+                .saved(counts.getOrDefault("SAVED", 0L).intValue())
+                .unchanged(counts.getOrDefault("UNCHANGED", 0L).intValue())
+                .rejected(counts.getOrDefault("REJECTED", 0L).intValue())
+                .items(items)
+                .build();
     }
 
     private void validateBettingDeadline(Match match) {
@@ -70,7 +185,7 @@ public class UserMatchResultServiceImpl implements UserMatchResultService {
         long hoursUntilMatch = ChronoUnit.HOURS.between(now, matchDate);
         
         if (hoursUntilMatch < 1) {
-            throw new BadRequestException("Las apuestas se cierran 1 hora antes del partido. Ya no es posible realizar apuestas para este partido.");
+            throw new BadRequestException(BETTING_CLOSED_MESSAGE);
         }
     }
 
@@ -80,14 +195,14 @@ public class UserMatchResultServiceImpl implements UserMatchResultService {
      */
     private void validateMatchHasNoResult(Match match) {
         if (match.getHomeScore() != null && match.getAwayScore() != null) {
-            throw new BadRequestException("No se puede modificar la apuesta porque el partido ya tiene un resultado final.");
+            throw new BadRequestException(MATCH_HAS_RESULT_MESSAGE);
         }
     }
 
     @Override
     @Transactional
     public void deleteUserMatchResult(String userEmail, Long matchId) {
-        User user = getUserByEmail(userEmail);
+        User user = currentUserResolver.getReference(userEmail);
         Match match = matchRepository.findById(matchId)
                 .orElseThrow(() -> new ResourceNotFoundException("Match not found with id: " + matchId));
         
@@ -97,18 +212,15 @@ public class UserMatchResultServiceImpl implements UserMatchResultService {
         UserMatchResult result = userMatchResultRepository.findByUserAndMatchId(user, matchId)
                 .orElseThrow(() -> new ResourceNotFoundException("User match result not found"));
         userMatchResultRepository.delete(result);
+        eventPublisher.publishEvent(new PredictionChangedEvent(user.getId(), matchId, null,
+                result.getPredictedResult()));
     }
 
     @Override
     public Optional<UserMatchResultResponse> getUserMatchResultByMatchId(String userEmail, Long matchId) {
-        User user = getUserByEmail(userEmail);
+        User user = currentUserResolver.getReference(userEmail);
         return userMatchResultRepository.findByUserAndMatchId(user, matchId)
                 .map(userMatchResultMapper::toResponse);
     }
-
-    private User getUserByEmail(String email) {
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with email: " + email));
-    }
 }
 
@@ -7,10 +7,9 @@ import wc.prode._6.dto.request.UserPreferencesRequest;
 import wc.prode._6.dto.response.UserPreferencesResponse;
 import wc.prode._6.entity.User;
 import wc.prode._6.entity.UserPreferences;
-import wc.prode._6.exception.ResourceNotFoundException;
 import wc.prode._6.mapper.UserPreferencesMapper;
 import wc.prode._6.repository.UserPreferencesRepository;
-import wc.prode._6.repository.UserRepository;
+import wc.prode._6.security.CurrentUserResolver;
 import wc.prode._6.service.UserPreferencesService;
 
 @Service
@@ -18,12 +17,12 @@ import wc.prode._6.service.UserPreferencesService;
 public class UserPreferencesServiceImpl implements UserPreferencesService {
 
     private final UserPreferencesRepository userPreferencesRepository;
-    private final UserRepository userRepository;
+    private final CurrentUserResolver currentUserResolver;
     private final UserPreferencesMapper userPreferencesMapper;
 
     @Override
     public UserPreferencesResponse getUserPreferences(String userEmail) {
-        User user = getUserByEmail(userEmail);
+        User user = currentUserResolver.getReference(userEmail);
         UserPreferences preferences = userPreferencesRepository.findByUser(user)
                 .orElseGet(() -> {
                     UserPreferences newPreferences = UserPreferences.builder()
@@ -39,7 +38,7 @@ public class UserPreferencesServiceImpl implements UserPreferencesService {
     @Override
     @Transactional
     public UserPreferencesResponse updateUserPreferences(String userEmail, UserPreferencesRequest request) {
-        User user = getUserByEmail(userEmail);
+        User user = currentUserResolver.getReference(userEmail);
         UserPreferences preferences = userPreferencesRepository.findByUser(user)
                 .orElseGet(() -> UserPreferences.builder()
                         .user(user)
@@ -60,10 +59,5 @@ public class UserPreferencesServiceImpl implements UserPreferencesService {
         preferences = userPreferencesRepository.save(preferences);
         return userPreferencesMapper.toResponse(preferences);
     }
-
-    private User getUserByEmail(String email) {
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with email: " + email));
-    }
 }
 
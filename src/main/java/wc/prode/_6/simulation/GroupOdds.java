@@ -0,0 +1,15 @@
+package wc.prode._6.simulation;
+
+import wc.prode._6.ranking.RankedPosition;
+
+import java.util.List;
+
+/**
+ * Resultado de una simulación de Monte Carlo de un grupo: probabilidad de cada miembro de terminar primero
+ * o entre los tres primeros, en el orden del ranking oficial
+ */
+public record GroupOdds(OutcomeModel model, int iterations, int pendingMatches, List<MemberOdds> members) {
+
+    public record MemberOdds(RankedPosition position, double winProbability, double top3Probability) {
+    }
+}
@@ -0,0 +1,101 @@
+package wc.prode._6.simulation;
+
+import wc.prode._6.entity.PredictedResult;
+import wc.prode._6.live.ProvisionalPosition;
+import wc.prode._6.ranking.RankedPosition;
+import wc.prode._6.ranking.RankingEntry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static wc.prode._6.scoring.ScoringRules.POINTS_CORRECT_RESULT;
+
+/**
+ * Foto de un grupo para simular resultados: el ranking oficial y, por cada partido pendiente, la apuesta de cada
+ * miembro en el orden del ranking. Simular un resultado es recorrer un byte[] sumando puntos, sin leer la base
+ * ni tomar los locks de la matriz. Es inmutable y se comparte entre requests.
+ */
+public final class GroupPredictionTable {
+
+    private final List<RankedPosition> official;
+    private final int[] officialPoints;
+    private final Map<Long, byte[]> pending;
+
+    GroupPredictionTable(List<RankedPosition> official, Map<Long, byte[]> pending) {
+        this.official = official;
+        this.officialPoints = official.stream().mapToInt(position -> position.entry().totalPoints()).toArray();
+        this.pending = Map.copyOf(pending);
+    }
+
+    public int size() {
+        return official.size();
+    }
+
+    public Set<Long> getPendingMatchIds() {
+        return pending.keySet();
+    }
+
+    // Acceso directo para el simulador de Monte Carlo; los arrays devueltos no deben modificarse
+
+    RankedPosition getMember(int index) {
+        return official.get(index);
+    }
+
+    int[] getOfficialPoints() {
+        return officialPoints;
+    }
+
+    byte[] getPredictions(Long matchId) {
+        return pending.get(matchId);
+    }
+
+    /**
+     * Puntos de cada miembro, en el orden del ranking oficial, si los partidos indicados terminaran así.
+     * Los partidos que ya tienen resultado se ignoran.
+     */
+    public int[] simulatePoints(Map<Long, PredictedResult> results) {
+        int[] points = Arrays.copyOf(officialPoints, officialPoints.length);
+        results.forEach((matchId, result) -> {
+            byte[] predictions = pending.get(matchId);
+            if (predictions == null || result == null) {
+                return;
+            }
+            byte outcome = (byte) result.ordinal();
+            for (int i = 0; i < predictions.length; i++) {
+                if (predictions[i] == outcome) {
+                    points[i] += POINTS_CORRECT_RESULT;
+                }
+            }
+        });
+        return points;
+    }
+
+    public List<ProvisionalPosition> simulate(Map<Long, PredictedResult> results) {
+        return rank(simulatePoints(results));
+    }
+
+    /**
+     * Ordena a los miembros por los puntos indicados con el mismo criterio que el ranking oficial
+     */
+    public List<ProvisionalPosition> rank(int[] points) {
+        Integer[] order = new Integer[points.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.<Integer>comparingInt(i -> points[i]).reversed()
+                .thenComparing(i -> official.get(i).entry().name())
+                .thenComparing(i -> official.get(i).entry().userId()));
+
+        List<ProvisionalPosition> ranked = new ArrayList<>(order.length);
+        for (int i = 0; i < order.length; i++) {
+            RankedPosition position = official.get(order[i]);
+            RankingEntry entry = position.entry();
+            ranked.add(new ProvisionalPosition(entry, position.position(), points[order[i]], i + 1));
+        }
+        return List.copyOf(ranked);
+    }
+}
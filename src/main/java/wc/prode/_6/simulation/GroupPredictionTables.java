@@ -0,0 +1,60 @@
+package wc.prode._6.simulation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import wc.prode._6.ranking.GroupRankingIndex;
+import wc.prode._6.ranking.RankedPosition;
+import wc.prode._6.scoring.PredictionMatrix;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tablas de simulación por grupo, armadas a partir del índice de rankings y de la matriz de apuestas.
+ * Cada tabla se arma una vez y se reutiliza hasta que cambia algún resultado o, dentro del grupo, alguna apuesta
+ * o el ranking oficial: las versiones que se comparan son las del grupo, no las globales del índice y la matriz.
+ * La caché guarda simulation.table-cache-size grupos como máximo.
+ */
+@Component
+@Slf4j
+public class GroupPredictionTables {
+
+    private final GroupRankingIndex groupRankingIndex;
+    private final PredictionMatrix predictionMatrix;
+    private final int maxSize;
+    private final Map<Long, CachedTable> cache = new ConcurrentHashMap<>();
+
+    public GroupPredictionTables(GroupRankingIndex groupRankingIndex,
+                                 PredictionMatrix predictionMatrix,
+                                 @Value("${simulation.table-cache-size:1000}") int maxSize) {
+        this.groupRankingIndex = groupRankingIndex;
+        this.predictionMatrix = predictionMatrix;
+        this.maxSize = maxSize;
+    }
+
+    public GroupPredictionTable get(Long groupId) {
+        long groupVersion = groupRankingIndex.getGroupVersion(groupId);
+        CachedTable cached = cache.get(groupId);
+        // Con la misma versión del grupo los miembros son los mismos de la tabla cacheada
+        if (cached != null && cached.groupVersion() == groupVersion
+                && cached.matrixVersion() == predictionMatrix.getVersion(cached.userIds())) {
+            return cached.table();
+        }
+
+        List<RankedPosition> official = groupRankingIndex.getAll(groupId);
+        List<Long> userIds = official.stream().map(position -> position.entry().userId()).toList();
+        long matrixVersion = predictionMatrix.getVersion(userIds);
+        GroupPredictionTable table = new GroupPredictionTable(official, predictionMatrix.getPendingPredictions(userIds));
+        if (cache.size() >= maxSize) {
+            log.debug("Group prediction table cache full ({} entries), clearing", cache.size());
+            cache.clear();
+        }
+        cache.put(groupId, new CachedTable(groupVersion, matrixVersion, userIds, table));
+        return table;
+    }
+
+    private record CachedTable(long groupVersion, long matrixVersion, List<Long> userIds, GroupPredictionTable table) {
+    }
+}
@@ -0,0 +1,271 @@
+package wc.prode._6.simulation;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import wc.prode._6.catalog.MatchCatalog;
+import wc.prode._6.entity.MatchOdds;
+import wc.prode._6.entity.PredictedResult;
+import wc.prode._6.event.MatchOddsChangedEvent;
+import wc.prode._6.repository.MatchOddsRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Collectors;
+
+import static wc.prode._6.scoring.ScoringRules.POINTS_CORRECT_RESULT;
+
+/**
+ * Juega el resto del torneo simulation.monte-carlo.iterations veces sorteando cada partido pendiente con el modelo
+ * indicado y cuenta cuántas veces cada miembro del grupo termina primero o entre los tres primeros.
+ * Las iteraciones se reparten en un ForkJoinPool propio; cada tarea trabaja con arrays primitivos que reserva
+ * una sola vez (puntos y contadores) y, por cada partido y resultado, la lista de miembros que lo apostaron.
+ * El resultado se cachea por grupo y modelo hasta que cambia el catálogo, la tabla del grupo o alguna cuota.
+ */
+@Component
+@Slf4j
+public class MonteCarloSimulator {
+
+    private static final int OUTCOMES = PredictedResult.values().length;
+    // Iteraciones que una tarea corre sin volver a dividirse
+    private static final int BATCH_SIZE = 1000;
+
+    private final GroupPredictionTables groupPredictionTables;
+    private final MatchCatalog matchCatalog;
+    private final MatchOddsRepository matchOddsRepository;
+    private final ForkJoinPool pool;
+    private final int iterations;
+    private final int maxSize;
+    private final Map<CacheKey, CachedOdds> cache = new ConcurrentHashMap<>();
+    // Probabilidades implícitas por partido; null hasta la primera simulación de mercado o tras un cambio de cuotas
+    private volatile Map<Long, double[]> marketProbabilities;
+
+    public MonteCarloSimulator(GroupPredictionTables groupPredictionTables,
+                               MatchCatalog matchCatalog,
+                               MatchOddsRepository matchOddsRepository,
+                               @Value("${simulation.monte-carlo.iterations:10000}") int iterations,
+                               @Value("${simulation.monte-carlo.parallelism:4}") int parallelism,
+                               @Value("${simulation.table-cache-size:1000}") int maxSize) {
+        this.groupPredictionTables = groupPredictionTables;
+        this.matchCatalog = matchCatalog;
+        this.matchOddsRepository = matchOddsRepository;
+        this.iterations = iterations;
+        this.maxSize = maxSize;
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMatchOddsChanged(MatchOddsChangedEvent event) {
+        marketProbabilities = null;
+        cache.clear();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    public GroupOdds simulate(Long groupId, OutcomeModel model) {
+        long catalogVersion = matchCatalog.current().version();
+        GroupPredictionTable table = groupPredictionTables.get(groupId);
+        CacheKey key = new CacheKey(groupId, model);
+        CachedOdds cached = cache.get(key);
+        if (cached != null && cached.catalogVersion() == catalogVersion && cached.table() == table) {
+            return cached.odds();
+        }
+
+        long start = System.currentTimeMillis();
+        GroupOdds odds = run(table, model);
+        log.debug("Simulated group {} ({} members, {} pending matches, {}) {} times in {} ms", groupId, table.size(),
+                odds.pendingMatches(), model, odds.iterations(), System.currentTimeMillis() - start);
+        if (cache.size() >= maxSize) {
+            cache.clear();
+        }
+        cache.put(key, new CachedOdds(catalogVersion, table, odds));
+        return odds;
+    }
+
+    private GroupOdds run(GroupPredictionTable table, OutcomeModel model) {
+        int members = table.size();
+        List<Long> matchIds = new ArrayList<>(table.getPendingMatchIds());
+        if (members == 0) {
+            return new GroupOdds(model, 0, matchIds.size(), List.of());
+        }
+
+        Map<Long, double[]> market = model == OutcomeModel.MARKET ? getMarketProbabilities() : Map.of();
+        double[] thresholds = new double[matchIds.size() * (OUTCOMES - 1)];
+        int[][] hits = new int[matchIds.size() * OUTCOMES][];
+        for (int match = 0; match < matchIds.size(); match++) {
+            double[] probabilities = market.get(matchIds.get(match));
+            double cumulative = 0;
+            for (int outcome = 0; outcome < OUTCOMES - 1; outcome++) {
+                cumulative += probabilities != null ? probabilities[outcome] : 1.0 / OUTCOMES;
+                thresholds[match * (OUTCOMES - 1) + outcome] = cumulative;
+            }
+            byte[] predictions = table.getPredictions(matchIds.get(match));
+            for (int outcome = 0; outcome < OUTCOMES; outcome++) {
+                hits[match * OUTCOMES + outcome] = membersWith(predictions, (byte) outcome);
+            }
+        }
+
+        // Desempate igual que el ranking: por nombre y luego por id
+        Integer[] byName = new Integer[members];
+        for (int i = 0; i < members; i++) {
+            byName[i] = i;
+        }
+        Arrays.sort(byName, Comparator.<Integer, String>comparing(i -> table.getMember(i).entry().name())
+                .thenComparing(i -> table.getMember(i).entry().userId()));
+        int[] tieRank = new int[members];
+        for (int rank = 0; rank < members; rank++) {
+            tieRank[byName[rank]] = rank;
+        }
+
+        // Sin partidos pendientes el resultado es el ranking oficial: alcanza con una iteración
+        int runs = matchIds.isEmpty() ? 1 : iterations;
+        Scenario scenario = new Scenario(table.getOfficialPoints(), tieRank, matchIds.size(), thresholds, hits);
+        int[][] counts = pool.invoke(new SimulationTask(scenario, runs, new SplittableRandom()));
+
+        List<GroupOdds.MemberOdds> odds = new ArrayList<>(members);
+        for (int i = 0; i < members; i++) {
+            odds.add(new GroupOdds.MemberOdds(table.getMember(i),
+                    (double) counts[0][i] / runs, (double) counts[1][i] / runs));
+        }
+        return new GroupOdds(model, runs, matchIds.size(), List.copyOf(odds));
+    }
+
+    private Map<Long, double[]> getMarketProbabilities() {
+        Map<Long, double[]> probabilities = marketProbabilities;
+        if (probabilities == null) {
+            probabilities = matchOddsRepository.findAll().stream()
+                    .collect(Collectors.toUnmodifiableMap(MatchOdds::getMatchId, MatchOdds::impliedProbabilities));
+            marketProbabilities = probabilities;
+        }
+        return probabilities;
+    }
+
+    private static int[] membersWith(byte[] predictions, byte outcome) {
+        int count = 0;
+        for (byte prediction : predictions) {
+            if (prediction == outcome) {
+                count++;
+            }
+        }
+        int[] members = new int[count];
+        int next = 0;
+        for (int i = 0; i < predictions.length; i++) {
+            if (predictions[i] == outcome) {
+                members[next++] = i;
+            }
+        }
+        return members;
+    }
+
+    /**
+     * Datos compartidos (de solo lectura) por todas las tareas: puntos oficiales y desempate por miembro,
+     * umbrales acumulados de probabilidad por partido y miembros que apostaron cada resultado de cada partido
+     */
+    private record Scenario(int[] officialPoints, int[] tieRank, int matches, double[] thresholds, int[][] hits) {
+    }
+
+    /**
+     * Corre runs iteraciones o las divide en dos mitades. Devuelve {primeros puestos, podios} por miembro.
+     */
+    private static final class SimulationTask extends RecursiveTask<int[][]> {
+
+        private final Scenario scenario;
+        private final int runs;
+        private final SplittableRandom random;
+
+        private SimulationTask(Scenario scenario, int runs, SplittableRandom random) {
+            this.scenario = scenario;
+            this.runs = runs;
+            this.random = random;
+        }
+
+        @Override
+        protected int[][] compute() {
+            if (runs <= BATCH_SIZE) {
+                return simulate();
+            }
+            SimulationTask left = new SimulationTask(scenario, runs / 2, random.split());
+            SimulationTask right = new SimulationTask(scenario, runs - runs / 2, random);
+            left.fork();
+            int[][] counts = right.compute();
+            int[][] leftCounts = left.join();
+            for (int i = 0; i < counts[0].length; i++) {
+                counts[0][i] += leftCounts[0][i];
+                counts[1][i] += leftCounts[1][i];
+            }
+            return counts;
+        }
+
+        private int[][] simulate() {
+            int[] official = scenario.officialPoints();
+            double[] thresholds = scenario.thresholds();
+            int[][] hits = scenario.hits();
+            int members = official.length;
+            int[] points = new int[members];
+            int[] wins = new int[members];
+            int[] podiums = new int[members];
+
+            for (int run = 0; run < runs; run++) {
+                System.arraycopy(official, 0, points, 0, members);
+                for (int match = 0; match < scenario.matches(); match++) {
+                    double sample = random.nextDouble();
+                    int outcome = 0;
+                    while (outcome < OUTCOMES - 1 && sample >= thresholds[match * (OUTCOMES - 1) + outcome]) {
+                        outcome++;
+                    }
+                    for (int member : hits[match * OUTCOMES + outcome]) {
+                        points[member] += POINTS_CORRECT_RESULT;
+                    }
+                }
+
+                int first = -1;
+                int second = -1;
+                int third = -1;
+                for (int member = 0; member < members; member++) {
+                    if (first < 0 || ahead(points, member, first)) {
+                        third = second;
+                        second = first;
+                        first = member;
+                    } else if (second < 0 || ahead(points, member, second)) {
+                        third = second;
+                        second = member;
+                    } else if (third < 0 || ahead(points, member, third)) {
+                        third = member;
+                    }
+                }
+                wins[first]++;
+                podiums[first]++;
+                if (second >= 0) {
+                    podiums[second]++;
+                }
+                if (third >= 0) {
+                    podiums[third]++;
+                }
+            }
+            return new int[][]{wins, podiums};
+        }
+
+        private boolean ahead(int[] points, int member, int other) {
+            return points[member] > points[other]
+                    || (points[member] == points[other] && scenario.tieRank()[member] < scenario.tieRank()[other]);
+        }
+    }
+
+    private record CacheKey(Long groupId, OutcomeModel model) {
+    }
+
+    private record CachedOdds(long catalogVersion, GroupPredictionTable table, GroupOdds odds) {
+    }
+}
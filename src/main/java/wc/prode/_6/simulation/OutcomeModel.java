@@ -0,0 +1,9 @@
+package wc.prode._6.simulation;
+
+/**
+ * Probabilidades con las que se sortea el resultado de cada partido pendiente
+ */
+public enum OutcomeModel {
+    UNIFORM,  // Los tres resultados igual de probables
+    MARKET    // Probabilidades implícitas en las cuotas cargadas; uniforme si el partido no tiene cuotas
+}
@@ -0,0 +1,122 @@
+package wc.prode._6.ranking;
+
+import org.junit.jupiter.api.Test;
+import wc.prode._6.event.PointsUpdatedEvent;
+import wc.prode._6.repository.UserRepository;
+import wc.prode._6.repository.projection.PointsBucket;
+import wc.prode._6.scoring.UserPointsChange;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class GlobalLeaderboardTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final GlobalLeaderboard leaderboard = new GlobalLeaderboard(userRepository, 10);
+
+    private static PointsBucket bucket(int points, long users) {
+        return new PointsBucket() {
+            @Override
+            public Integer getPoints() {
+                return points;
+            }
+
+            @Override
+            public Long getUsers() {
+                return users;
+            }
+        };
+    }
+
+    private void update(long userId, int previousPoints, int newPoints) {
+        leaderboard.onPointsUpdated(new PointsUpdatedEvent(List.of(),
+                List.of(new UserPointsChange(userId, previousPoints, newPoints))));
+    }
+
+    @Test
+    void positionIsOnePlusUsersWithMorePoints() {
+        when(userRepository.countUsersByTotalPoints()).thenReturn(List.of(bucket(0, 3), bucket(5, 2), bucket(9, 1)));
+        leaderboard.rebuild();
+
+        assertEquals(6, leaderboard.getTotalUsers());
+        assertEquals(1, leaderboard.getPosition(9));
+        assertEquals(1, leaderboard.getPosition(50));
+        assertEquals(2, leaderboard.getPosition(5));
+        assertEquals(2, leaderboard.getPosition(8));
+        assertEquals(4, leaderboard.getPosition(4));
+        assertEquals(4, leaderboard.getPosition(0));
+    }
+
+    @Test
+    void rebuildGrowsTheTreeForHighScores() {
+        when(userRepository.countUsersByTotalPoints())
+                .thenReturn(List.of(bucket(0, 4), bucket(127, 1), bucket(300, 2), bucket(1000, 1)));
+        leaderboard.rebuild();
+
+        assertEquals(8, leaderboard.getTotalUsers());
+        assertEquals(1, leaderboard.getPosition(1000));
+        assertEquals(2, leaderboard.getPosition(999));
+        assertEquals(2, leaderboard.getPosition(300));
+        assertEquals(4, leaderboard.getPosition(127));
+        assertEquals(5, leaderboard.getPosition(126));
+        assertEquals(5, leaderboard.getPosition(0));
+    }
+
+    @Test
+    void growKeepsTheCountsOfEveryScore() {
+        when(userRepository.countUsersByTotalPoints())
+                .thenReturn(List.of(bucket(0, 2), bucket(1, 1), bucket(63, 1), bucket(64, 1), bucket(126, 1)));
+        leaderboard.rebuild();
+
+        // 126 -> 5000 obliga a crecer el árbol desde 128 posiciones en medio de una actualización
+        update(1L, 126, 5000);
+
+        assertEquals(6, leaderboard.getTotalUsers());
+        assertEquals(1, leaderboard.getPosition(5000));
+        assertEquals(2, leaderboard.getPosition(126));
+        assertEquals(2, leaderboard.getPosition(64));
+        assertEquals(3, leaderboard.getPosition(63));
+        assertEquals(4, leaderboard.getPosition(1));
+        assertEquals(5, leaderboard.getPosition(0));
+
+        update(1L, 5000, 0);
+        assertEquals(1, leaderboard.getPosition(64));
+        assertEquals(4, leaderboard.getPosition(0));
+    }
+
+    @Test
+    void matchesABruteForceCountUnderRandomUpdates() {
+        Random random = new Random(7);
+        int[] points = new int[500];
+        List<PointsBucket> buckets = new ArrayList<>();
+        for (int i = 0; i < points.length; i++) {
+            points[i] = random.nextInt(100);
+            buckets.add(bucket(points[i], 1));
+        }
+        when(userRepository.countUsersByTotalPoints()).thenReturn(buckets);
+        leaderboard.rebuild();
+
+        for (int step = 0; step < 2000; step++) {
+            int user = random.nextInt(points.length);
+            int updated = Math.max(0, points[user] + random.nextInt(400) - 100);
+            update(user, points[user], updated);
+            points[user] = updated;
+        }
+
+        assertEquals(points.length, leaderboard.getTotalUsers());
+        for (int score = 0; score <= 3000; score += 7) {
+            int above = 0;
+            for (int userPoints : points) {
+                if (userPoints > score) {
+                    above++;
+                }
+            }
+            assertEquals(above + 1, leaderboard.getPosition(score), "points " + score);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package wc.prode._6.ranking;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class OrderStatisticTreeTest {
+
+    private static RankingEntry entry(long userId, String name, int points) {
+        return new RankingEntry(userId, name, name + "@x", null, 1L, points);
+    }
+
+    @Test
+    void ranksByPointsThenNameThenId() {
+        OrderStatisticTree<RankingEntry> tree = new OrderStatisticTree<>(RankingEntry.ORDER);
+        RankingEntry low = entry(1L, "Ana", 3);
+        RankingEntry high = entry(2L, "Zoe", 9);
+        RankingEntry tiedByName = entry(3L, "Bea", 6);
+        RankingEntry tiedFirst = entry(4L, "Abel", 6);
+        RankingEntry tiedById = entry(5L, "Bea", 6);
+        List.of(low, high, tiedByName, tiedFirst, tiedById).forEach(tree::insert);
+
+        assertEquals(5, tree.size());
+        assertEquals(List.of(high, tiedFirst, tiedByName, tiedById, low), tree.range(0, 5));
+        assertEquals(0, tree.indexOf(high));
+        assertEquals(1, tree.indexOf(tiedFirst));
+        assertEquals(2, tree.indexOf(tiedByName));
+        assertEquals(3, tree.indexOf(tiedById));
+        assertEquals(4, tree.indexOf(low));
+    }
+
+    @Test
+    void rangeIsClampedToTheTree() {
+        OrderStatisticTree<RankingEntry> tree = new OrderStatisticTree<>(RankingEntry.ORDER);
+        for (int i = 0; i < 10; i++) {
+            tree.insert(entry(i, "U" + i, i));
+        }
+
+        assertEquals(List.of(entry(9, "U9", 9), entry(8, "U8", 8)), tree.range(-3, 2));
+        assertEquals(List.of(entry(1, "U1", 1), entry(0, "U0", 0)), tree.range(8, 100));
+        assertEquals(List.of(), tree.range(10, 20));
+        assertEquals(List.of(), tree.range(5, 5));
+    }
+
+    @Test
+    void removeDropsOnlyTheEqualElement() {
+        OrderStatisticTree<RankingEntry> tree = new OrderStatisticTree<>(RankingEntry.ORDER);
+        RankingEntry first = entry(1L, "Ana", 5);
+        RankingEntry second = entry(2L, "Ana", 5);
+        RankingEntry third = entry(3L, "Ana", 2);
+        List.of(first, second, third).forEach(tree::insert);
+
+        tree.remove(first);
+        assertEquals(2, tree.size());
+        assertEquals(-1, tree.indexOf(first));
+        assertEquals(0, tree.indexOf(second));
+        assertEquals(1, tree.indexOf(third));
+
+        // Mismo usuario con otro puntaje: no es el elemento del árbol
+        tree.remove(second.withTotalPoints(4));
+        assertEquals(2, tree.size());
+
+        tree.remove(second);
+        tree.remove(third);
+        assertEquals(0, tree.size());
+        assertEquals(List.of(), tree.range(0, 10));
+        assertEquals(-1, tree.indexOf(third));
+    }
+
+    @Test
+    void matchesASortedListUnderRandomInsertsAndDeletes() {
+        Random random = new Random(42);
+        OrderStatisticTree<RankingEntry> tree = new OrderStatisticTree<>(RankingEntry.ORDER);
+        List<RankingEntry> expected = new ArrayList<>();
+        for (int step = 0; step < 5000; step++) {
+            if (expected.isEmpty() || random.nextInt(3) > 0) {
+                // Pocos puntajes y nombres distintos para que haya muchos empates
+                RankingEntry added = entry(step, "U" + random.nextInt(5), random.nextInt(20));
+                tree.insert(added);
+                expected.add(added);
+            } else {
+                RankingEntry removed = expected.remove(random.nextInt(expected.size()));
+                tree.remove(removed);
+            }
+        }
+        expected.sort(RankingEntry.ORDER);
+
+        assertEquals(expected.size(), tree.size());
+        assertEquals(expected, tree.range(0, expected.size()));
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(i, tree.indexOf(expected.get(i)));
+        }
+        assertEquals(expected.subList(100, 150), tree.range(100, 150));
+    }
+}
@@ -0,0 +1,125 @@
+package wc.prode._6.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.math.BigInteger;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Dialecto MySQL del upsert nativo sin servidor MySQL: la sentencia generada y la decodificación de la clave
+ * que devuelve el driver (el id si insertó; marca, id y valor anterior si actualizó)
+ */
+class NativeUpsertMySqlTest {
+
+    private static final List<String> PICKS = List.of("HOME_WIN", "DRAW", "AWAY_WIN");
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final List<String> statements = new ArrayList<>();
+
+    private NativeUpsert tracked() {
+        return new NativeUpsert(jdbcTemplate, UpsertDialect.MYSQL, "picks",
+                List.of("user_id", "match_id"), List.of("pick", "updated_at"), "pick", PICKS);
+    }
+
+    /**
+     * Simula el driver: arma la sentencia sobre una conexión falsa y devuelve la clave generada indicada
+     */
+    private void driverReturns(Object generatedKey) throws Exception {
+        Connection connection = mock(Connection.class);
+        when(connection.prepareStatement(anyString(), eq(Statement.RETURN_GENERATED_KEYS))).thenAnswer(invocation -> {
+            statements.add(invocation.getArgument(0));
+            return mock(PreparedStatement.class);
+        });
+        when(jdbcTemplate.update(any(PreparedStatementCreator.class), any(KeyHolder.class))).thenAnswer(invocation -> {
+            invocation.<PreparedStatementCreator>getArgument(0).createPreparedStatement(connection);
+            invocation.<KeyHolder>getArgument(1).getKeyList().add(Map.of("GENERATED_KEY", generatedKey));
+            return 1;
+        });
+    }
+
+    @Test
+    void statementReadsThePreviousValueInTheSameAssignment() throws Exception {
+        driverReturns(BigInteger.valueOf(7));
+        tracked().upsert(1L, 10L, "DRAW", null);
+
+        assertEquals("INSERT INTO picks (user_id, match_id, pick, updated_at) VALUES (?, ?, ?, ?) " +
+                "ON DUPLICATE KEY UPDATE pick = IF(LAST_INSERT_ID(" + NativeUpsert.UPDATED_FLAG + " + id * 4 + " +
+                "FIELD(pick, 'HOME_WIN', 'DRAW', 'AWAY_WIN')) IS NULL, NULL, VALUES(pick)), " +
+                "updated_at = VALUES(updated_at)", statements.get(0));
+    }
+
+    @Test
+    void plainKeyMeansInserted() throws Exception {
+        driverReturns(BigInteger.valueOf(7));
+        UpsertResult result = tracked().upsert(1L, 10L, "DRAW", null);
+
+        assertTrue(result.inserted());
+        assertEquals(7L, result.id());
+        assertNull(result.previous());
+    }
+
+    @Test
+    void flaggedKeyCarriesIdAndPreviousValue() throws Exception {
+        driverReturns(BigInteger.valueOf(NativeUpsert.UPDATED_FLAG + 7 * 4 + 3));
+        UpsertResult result = tracked().upsert(1L, 10L, "DRAW", null);
+
+        assertFalse(result.inserted());
+        assertEquals(7L, result.id());
+        assertEquals("AWAY_WIN", result.previous());
+    }
+
+    @Test
+    void flaggedKeyWithoutCodeMeansPreviousNull() throws Exception {
+        // FIELD devuelve 0 para un valor null; también cubre una fila actualizada con los mismos valores
+        driverReturns(NativeUpsert.UPDATED_FLAG + 123_456_789L * 4);
+        UpsertResult result = tracked().upsert(1L, 10L, "DRAW", null);
+
+        assertFalse(result.inserted());
+        assertEquals(123_456_789L, result.id());
+        assertNull(result.previous());
+    }
+
+    @Test
+    void untrackedUpsertStillReportsIdAndUpdate() throws Exception {
+        driverReturns(NativeUpsert.UPDATED_FLAG + 42);
+        NativeUpsert untracked = new NativeUpsert(jdbcTemplate, UpsertDialect.MYSQL, "picks",
+                List.of("user_id", "match_id"), List.of("pick"));
+        UpsertResult result = untracked.upsert(1L, 10L, "DRAW");
+
+        assertFalse(result.inserted());
+        assertEquals(42L, result.id());
+        assertNull(result.previous());
+        assertEquals("INSERT INTO picks (user_id, match_id, pick) VALUES (?, ?, ?) ON DUPLICATE KEY UPDATE " +
+                "pick = IF(LAST_INSERT_ID(" + NativeUpsert.UPDATED_FLAG + " + id * 1 + 0) IS NULL, NULL, " +
+                "VALUES(pick))", statements.get(0));
+    }
+
+    @Test
+    void batchUsesAPlainUpsert() {
+        tracked().batchUpsert(List.<Object[]>of(new Object[]{1L, 10L, "DRAW", null}));
+
+        verify(jdbcTemplate).batchUpdate(eq("INSERT INTO picks (user_id, match_id, pick, updated_at) " +
+                "VALUES (?, ?, ?, ?) ON DUPLICATE KEY UPDATE pick = VALUES(pick), updated_at = VALUES(updated_at)"),
+                anyList());
+    }
+}
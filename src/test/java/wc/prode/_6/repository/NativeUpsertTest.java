@@ -0,0 +1,109 @@
+package wc.prode._6.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NativeUpsertTest {
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private NativeUpsert upsert;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new SingleConnectionDataSource("jdbc:h2:mem:native-upsert;MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+                "sa", "", true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE picks (id BIGINT AUTO_INCREMENT PRIMARY KEY, user_id BIGINT NOT NULL, " +
+                "match_id BIGINT NOT NULL, pick VARCHAR(20), UNIQUE (user_id, match_id))");
+        upsert = new NativeUpsert(jdbcTemplate, UpsertDialect.detect(jdbcTemplate), "picks",
+                List.of("user_id", "match_id"), List.of("pick"), "pick", List.of("HOME_WIN", "DRAW", "AWAY_WIN"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP TABLE picks");
+        dataSource.destroy();
+    }
+
+    private String pickOf(long userId, long matchId) {
+        return jdbcTemplate.queryForObject("SELECT pick FROM picks WHERE user_id = ? AND match_id = ?",
+                String.class, userId, matchId);
+    }
+
+    @Test
+    void detectsH2() {
+        assertEquals(UpsertDialect.H2, UpsertDialect.detect(jdbcTemplate));
+    }
+
+    @Test
+    void upsertInsertsAndThenUpdatesTheSameRow() {
+        UpsertResult inserted = upsert.upsert(1L, 10L, "HOME_WIN");
+        assertTrue(inserted.inserted());
+        assertEquals(jdbcTemplate.queryForObject("SELECT id FROM picks WHERE user_id = 1 AND match_id = 10",
+                Long.class), inserted.id());
+
+        assertNull(inserted.previous());
+
+        UpsertResult updated = upsert.upsert(1L, 10L, "DRAW");
+        assertFalse(updated.inserted());
+        assertEquals("HOME_WIN", updated.previous());
+        assertEquals(inserted.id(), updated.id());
+        assertEquals("DRAW", pickOf(1L, 10L));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM picks", Integer.class));
+    }
+
+    @Test
+    void upsertWithoutTrackedColumnReportsNoPrevious() {
+        NativeUpsert untracked = new NativeUpsert(jdbcTemplate, UpsertDialect.H2, "picks",
+                List.of("user_id", "match_id"), List.of("pick"));
+        untracked.upsert(1L, 10L, "HOME_WIN");
+
+        UpsertResult updated = untracked.upsert(1L, 10L, "DRAW");
+        assertFalse(updated.inserted());
+        assertNull(updated.previous());
+        assertEquals("DRAW", pickOf(1L, 10L));
+    }
+
+    @Test
+    void upsertKeepsOtherKeysApart() {
+        UpsertResult first = upsert.upsert(1L, 10L, "HOME_WIN");
+        UpsertResult otherMatch = upsert.upsert(1L, 11L, "DRAW");
+        UpsertResult otherUser = upsert.upsert(2L, 10L, "AWAY_WIN");
+
+        assertTrue(otherMatch.inserted());
+        assertTrue(otherUser.inserted());
+        assertEquals(3, List.of(first.id(), otherMatch.id(), otherUser.id()).stream().distinct().count());
+        assertEquals("HOME_WIN", pickOf(1L, 10L));
+    }
+
+    @Test
+    void batchUpsertMixesInsertsAndUpdates() {
+        UpsertResult existing = upsert.upsert(1L, 10L, "HOME_WIN");
+
+        upsert.batchUpsert(List.of(
+                new Object[]{1L, 10L, "AWAY_WIN"},
+                new Object[]{1L, 11L, "DRAW"},
+                new Object[]{2L, 10L, "HOME_WIN"}));
+        upsert.batchUpsert(List.of());
+
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList("SELECT id, user_id, match_id, pick FROM picks " +
+                "ORDER BY user_id, match_id");
+        assertEquals(3, rows.size());
+        assertEquals(existing.id(), ((Number) rows.get(0).get("id")).longValue());
+        assertEquals("AWAY_WIN", rows.get(0).get("pick"));
+        assertEquals("DRAW", pickOf(1L, 11L));
+        assertEquals("HOME_WIN", pickOf(2L, 10L));
+    }
+}
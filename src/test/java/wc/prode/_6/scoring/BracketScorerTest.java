@@ -0,0 +1,115 @@
+package wc.prode._6.scoring;
+
+import org.junit.jupiter.api.Test;
+import wc.prode._6.entity.Match;
+import wc.prode._6.entity.Phase;
+import wc.prode._6.repository.MatchRepository;
+import wc.prode._6.repository.UserBracketPredictionRepository;
+import wc.prode._6.repository.projection.UserPointsDelta;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static wc.prode._6.scoring.KnockoutBracketTest.match;
+
+class BracketScorerTest {
+
+    private final MatchRepository matchRepository = mock(MatchRepository.class);
+    private final UserBracketPredictionRepository bracketPredictionRepository = mock(UserBracketPredictionRepository.class);
+    // Puntos distintos en cada fase para que no se confundan entre sí
+    private final BracketScorer scorer = new BracketScorer(matchRepository, bracketPredictionRepository,
+            1, 2, 4, 8, 16, 32);
+
+    private static UserPointsDelta delta(long userId, long delta) {
+        return new UserPointsDelta() {
+            @Override
+            public Long getUserId() {
+                return userId;
+            }
+
+            @Override
+            public Long getDelta() {
+                return delta;
+            }
+        };
+    }
+
+    @Test
+    void eachPhaseScoresItsConfiguredPoints() {
+        assertEquals(0, scorer.getPoints(Phase.GROUP));
+        assertEquals(1, scorer.getPoints(Phase.ROUND_OF_32));
+        assertEquals(2, scorer.getPoints(Phase.ROUND_OF_16));
+        assertEquals(4, scorer.getPoints(Phase.QUARTER_FINAL));
+        assertEquals(8, scorer.getPoints(Phase.SEMI_FINAL));
+        assertEquals(16, scorer.getPoints(Phase.THIRD_PLACE));
+        assertEquals(32, scorer.getPoints(Phase.FINAL));
+    }
+
+    @Test
+    void findDeltasAsksForTheWinnerAndThePointsOfTheMatchPhase() {
+        KnockoutBracket bracket = KnockoutBracket.of(List.of(
+                match(1, Phase.ROUND_OF_32, 10, 11, 1, 0),
+                match(2, Phase.QUARTER_FINAL, 12, 13, 0, 2),
+                match(3, Phase.FINAL, 14, 15, 3, 1)));
+        when(bracketPredictionRepository.findAwardedPointsDeltas(1L, 10L, 1)).thenReturn(List.of(delta(100, 1)));
+        when(bracketPredictionRepository.findAwardedPointsDeltas(2L, 13L, 4)).thenReturn(List.of(delta(100, 4)));
+        when(bracketPredictionRepository.findAwardedPointsDeltas(3L, 14L, 32))
+                .thenReturn(List.of(delta(100, 32), delta(200, 32)));
+
+        Map<Long, Long> deltas = scorer.findDeltas(bracket, List.of(1L, 2L, 3L));
+
+        // Las diferencias de varios partidos se juntan por usuario
+        assertEquals(Map.of(100L, 37L, 200L, 32L), deltas);
+    }
+
+    @Test
+    void aMatchThatIsNoLongerDecidedTakesBackItsPoints() {
+        KnockoutBracket bracket = KnockoutBracket.of(List.of(match(1, Phase.SEMI_FINAL, 10, 11, 1, 1)));
+        when(bracketPredictionRepository.findAwardedPointsDeltas(1L, -1L, 0)).thenReturn(List.of(delta(100, -8)));
+
+        assertEquals(Map.of(100L, -8L), scorer.findDeltas(bracket, List.of(1L)));
+    }
+
+    @Test
+    void matchesOutsideTheBracketAreIgnored() {
+        KnockoutBracket bracket = KnockoutBracket.of(List.of(match(1, Phase.ROUND_OF_16, 10, 11, 1, 0)));
+
+        assertEquals(Map.of(), scorer.findDeltas(bracket, List.of(99L)));
+        verify(bracketPredictionRepository, never()).findAwardedPointsDeltas(anyLong(), anyLong(), anyInt());
+    }
+
+    @Test
+    void updateLedgerScoresDecidedMatchesWithThePhasePoints() {
+        KnockoutBracket bracket = KnockoutBracket.of(List.of(
+                match(1, Phase.ROUND_OF_16, 10, 11, 2, 0),
+                match(2, Phase.THIRD_PLACE, 12, 13, 0, 1)));
+
+        scorer.updateLedger(bracket, List.of(1L, 2L));
+
+        verify(bracketPredictionRepository).scoreMatch(1L, 10L, 2);
+        verify(bracketPredictionRepository).scoreMatch(2L, 13L, 16);
+    }
+
+    @Test
+    void updateLedgerResetsAnUndecidedMatchExceptForEliminatedTeams() {
+        Match roundOf16 = match(1, Phase.ROUND_OF_16, 10, 11, 2, 0);
+        Match quarterFinal = match(2, Phase.QUARTER_FINAL, 10, 12, 1, 1);
+        KnockoutBracket bracket = KnockoutBracket.of(List.of(roundOf16, quarterFinal));
+
+        scorer.updateLedger(bracket, List.of(2L));
+
+        verify(bracketPredictionRepository, never()).scoreMatch(eq(2L), anyLong(), anyInt());
+        verify(bracketPredictionRepository).clearAllAwardedPoints(List.of(2L), Set.of(11L));
+        // Quien eligió al eliminado en octavos ya no puede sumar en cuartos
+        verify(bracketPredictionRepository).markEliminated(List.of(2L), Set.of(11L));
+    }
+}
@@ -0,0 +1,90 @@
+package wc.prode._6.scoring;
+
+import org.junit.jupiter.api.Test;
+import wc.prode._6.entity.Match;
+import wc.prode._6.entity.Phase;
+import wc.prode._6.entity.Team;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KnockoutBracketTest {
+
+    static Match match(long id, Phase phase, long homeTeamId, long awayTeamId, Integer homeScore, Integer awayScore) {
+        return Match.builder()
+                .id(id)
+                .phase(phase)
+                .homeTeam(Team.builder().id(homeTeamId).build())
+                .awayTeam(Team.builder().id(awayTeamId).build())
+                .homeScore(homeScore)
+                .awayScore(awayScore)
+                .build();
+    }
+
+    @Test
+    void aMatchIsDecidedOnlyWithAScoreThatIsNotADraw() {
+        KnockoutBracket bracket = KnockoutBracket.of(List.of(
+                match(1, Phase.ROUND_OF_16, 10, 11, 2, 1),
+                match(2, Phase.ROUND_OF_16, 12, 13, 0, 3),
+                match(3, Phase.ROUND_OF_16, 14, 15, 1, 1),
+                match(4, Phase.ROUND_OF_16, 16, 17, null, null)));
+
+        assertEquals(10L, bracket.getWinner(1L));
+        assertEquals(13L, bracket.getWinner(2L));
+        assertNull(bracket.getWinner(3L));
+        assertNull(bracket.getWinner(4L));
+        assertEquals(List.of(3L, 4L), bracket.getUndecidedMatchIds(Phase.ROUND_OF_16));
+        assertTrue(bracket.getUndecidedMatchIds(Phase.QUARTER_FINAL).isEmpty());
+    }
+
+    @Test
+    void theLoserIsEliminatedOnlyFromLaterPhases() {
+        KnockoutBracket bracket = KnockoutBracket.of(List.of(
+                match(1, Phase.ROUND_OF_16, 10, 11, 2, 1),
+                match(2, Phase.QUARTER_FINAL, 10, 12, null, null)));
+
+        assertFalse(bracket.isEliminated(11L, Phase.ROUND_OF_32));
+        assertFalse(bracket.isEliminated(11L, Phase.ROUND_OF_16));
+        assertTrue(bracket.isEliminated(11L, Phase.QUARTER_FINAL));
+        assertTrue(bracket.isEliminated(11L, Phase.SEMI_FINAL));
+        assertTrue(bracket.isEliminated(11L, Phase.THIRD_PLACE));
+        assertTrue(bracket.isEliminated(11L, Phase.FINAL));
+        for (Phase phase : Phase.values()) {
+            assertFalse(bracket.isEliminated(10L, phase), phase.name());
+        }
+        assertEquals(Set.of(11L), bracket.getEliminated(Phase.QUARTER_FINAL));
+    }
+
+    @Test
+    void semiFinalLoserPlaysTheThirdPlaceAndTheWinnerDoesNot() {
+        KnockoutBracket bracket = KnockoutBracket.of(List.of(
+                match(1, Phase.SEMI_FINAL, 10, 11, 1, 0),
+                match(2, Phase.SEMI_FINAL, 12, 13, 2, 4)));
+
+        assertFalse(bracket.isEliminated(11L, Phase.THIRD_PLACE));
+        assertFalse(bracket.isEliminated(12L, Phase.THIRD_PLACE));
+        assertTrue(bracket.isEliminated(11L, Phase.FINAL));
+        assertTrue(bracket.isEliminated(12L, Phase.FINAL));
+
+        assertTrue(bracket.isEliminated(10L, Phase.THIRD_PLACE));
+        assertTrue(bracket.isEliminated(13L, Phase.THIRD_PLACE));
+        assertFalse(bracket.isEliminated(10L, Phase.FINAL));
+        assertFalse(bracket.isEliminated(13L, Phase.FINAL));
+    }
+
+    @Test
+    void anUndecidedMatchEliminatesNobody() {
+        KnockoutBracket bracket = KnockoutBracket.of(List.of(
+                match(1, Phase.QUARTER_FINAL, 10, 11, 1, 1),
+                match(2, Phase.SEMI_FINAL, 12, 13, null, null)));
+
+        for (Phase phase : Phase.values()) {
+            assertTrue(bracket.getEliminated(phase).isEmpty(), phase.name());
+        }
+    }
+}
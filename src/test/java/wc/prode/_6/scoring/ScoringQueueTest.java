@@ -0,0 +1,107 @@
+package wc.prode._6.scoring;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import wc.prode._6.event.PointsUpdatedEvent;
+import wc.prode._6.service.PointsService;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ScoringQueueTest {
+
+    private static final List<UserPointsChange> CHANGES = List.of(new UserPointsChange(1L, 0, 1));
+
+    private final PointsService pointsService = mock(PointsService.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    // Un solo worker: mientras corre un trabajo, el siguiente espera en cola
+    private final ScoringQueue queue = new ScoringQueue(pointsService, eventPublisher, 1, 3, 10);
+
+    @AfterEach
+    void tearDown() {
+        queue.shutdown();
+    }
+
+    private static void awaitFinished(ScoringJob job) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!job.isFinished()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Scoring job " + job.getId() + " did not finish: " + job.getStatus());
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    void eventsArrivingWhileAJobWaitsAreScoredInTheSamePass() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(pointsService.applyMatchResultsDelta(List.of(1L))).thenAnswer(invocation -> {
+            running.countDown();
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            return CHANGES;
+        });
+        when(pointsService.applyMatchResultsDelta(List.of(2L, 3L))).thenReturn(CHANGES);
+
+        ScoringJob first = queue.enqueue(List.of(1L));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        ScoringJob second = queue.enqueue(List.of(3L));
+        ScoringJob coalesced = queue.enqueue(List.of(2L, 3L));
+        release.countDown();
+        awaitFinished(first);
+        awaitFinished(second);
+
+        assertNotSame(first, second);
+        assertSame(second, coalesced);
+        assertEquals(List.of(2L, 3L), second.getMatchIds());
+        assertEquals(2, second.getCoalescedEvents());
+        assertEquals(ScoringJobStatus.COMPLETED, second.getStatus());
+        verify(pointsService, times(1)).applyMatchResultsDelta(List.of(2L, 3L));
+        verify(eventPublisher, times(2)).publishEvent(any(PointsUpdatedEvent.class));
+    }
+
+    @Test
+    void aFailedJobIsRetriedUntilItSucceeds() throws Exception {
+        when(pointsService.applyMatchResultsDelta(List.of(5L)))
+                .thenThrow(new IllegalStateException("deadlock"))
+                .thenThrow(new IllegalStateException("deadlock"))
+                .thenReturn(CHANGES);
+
+        ScoringJob job = queue.enqueue(List.of(5L));
+        awaitFinished(job);
+
+        assertEquals(ScoringJobStatus.COMPLETED, job.getStatus());
+        assertEquals(3, job.getAttempts());
+        assertEquals(1, job.getUsersUpdated());
+        verify(pointsService, times(3)).applyMatchResultsDelta(List.of(5L));
+        verify(eventPublisher, times(1)).publishEvent(any(PointsUpdatedEvent.class));
+    }
+
+    @Test
+    void aJobFailsAfterTheLastAttempt() throws Exception {
+        when(pointsService.applyMatchResultsDelta(List.of(5L))).thenThrow(new IllegalStateException("database down"));
+
+        ScoringJob job = queue.enqueue(List.of(5L));
+        awaitFinished(job);
+
+        assertEquals(ScoringJobStatus.FAILED, job.getStatus());
+        assertEquals(3, job.getAttempts());
+        assertEquals("database down", job.getError());
+        verify(pointsService, times(3)).applyMatchResultsDelta(List.of(5L));
+        verify(eventPublisher, never()).publishEvent(any(PointsUpdatedEvent.class));
+    }
+}
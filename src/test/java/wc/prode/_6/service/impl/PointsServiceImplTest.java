@@ -0,0 +1,167 @@
+package wc.prode._6.service.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import wc.prode._6.entity.Match;
+import wc.prode._6.entity.Phase;
+import wc.prode._6.entity.PredictedResult;
+import wc.prode._6.entity.User;
+import wc.prode._6.entity.UserMatchResult;
+import wc.prode._6.repository.MatchRepository;
+import wc.prode._6.repository.UserMatchResultRepository;
+import wc.prode._6.repository.UserRepository;
+import wc.prode._6.scoring.UserPointsChange;
+import wc.prode._6.service.PointsService;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class PointsServiceImplTest {
+
+    @Autowired
+    private PointsService pointsService;
+    @Autowired
+    private MatchRepository matchRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private UserMatchResultRepository userMatchResultRepository;
+
+    private final List<User> users = new ArrayList<>();
+    private final List<UserMatchResult> bets = new ArrayList<>();
+    private Match match;
+    private Match otherMatch;
+
+    @BeforeEach
+    void setUp() {
+        List<Match> groupMatches = matchRepository.findByPhase(Phase.GROUP);
+        match = setResult(groupMatches.get(groupMatches.size() - 1), null, null);
+        otherMatch = setResult(groupMatches.get(groupMatches.size() - 2), null, null);
+        pointsService.applyMatchResultsDelta(Set.of(match.getId(), otherMatch.getId()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        userMatchResultRepository.deleteAll(bets);
+        userRepository.deleteAll(users);
+        setResult(match, null, null);
+        setResult(otherMatch, null, null);
+    }
+
+    private Match setResult(Match target, Integer homeScore, Integer awayScore) {
+        target.setHomeScore(homeScore);
+        target.setAwayScore(awayScore);
+        return matchRepository.save(target);
+    }
+
+    private User user(String name, int totalPoints) {
+        User user = userRepository.save(User.builder()
+                .email(name + "-" + System.nanoTime() + "@points.test")
+                .name(name)
+                .totalPoints(totalPoints)
+                .build());
+        users.add(user);
+        return user;
+    }
+
+    private UserMatchResult bet(User user, Match target, PredictedResult predictedResult) {
+        UserMatchResult bet = userMatchResultRepository.save(UserMatchResult.builder()
+                .user(user)
+                .match(target)
+                .predictedResult(predictedResult)
+                .build());
+        bets.add(bet);
+        return bet;
+    }
+
+    private int totalPoints(User user) {
+        return userRepository.findTotalPointsById(user.getId()).orElseThrow();
+    }
+
+    private Integer awardedPoints(UserMatchResult bet) {
+        return userMatchResultRepository.findById(bet.getId()).orElseThrow().getAwardedPoints();
+    }
+
+    private List<UserPointsChange> score(Match target, Integer homeScore, Integer awayScore) {
+        setResult(target, homeScore, awayScore);
+        return pointsService.applyMatchResultsDelta(Set.of(target.getId())).stream()
+                .sorted(Comparator.comparing(UserPointsChange::userId))
+                .toList();
+    }
+
+    @Test
+    void scoringEditingAndClearingAResultAppliesOnlyTheDifference() {
+        // Los puntos previos (de otros partidos) no se recalculan: solo se suma o resta la diferencia
+        User home = user("home", 10);
+        User draw = user("draw", 4);
+        User away = user("away", 0);
+        UserMatchResult homeBet = bet(home, match, PredictedResult.HOME_WIN);
+        UserMatchResult drawBet = bet(draw, match, PredictedResult.DRAW);
+        UserMatchResult awayBet = bet(away, match, PredictedResult.AWAY_WIN);
+
+        assertEquals(List.of(new UserPointsChange(home.getId(), 10, 11)), score(match, 2, 1));
+        assertEquals(11, totalPoints(home));
+        assertEquals(4, totalPoints(draw));
+        assertEquals(0, totalPoints(away));
+        assertEquals(1, awardedPoints(homeBet));
+        assertEquals(0, awardedPoints(drawBet));
+        assertEquals(0, awardedPoints(awayBet));
+
+        // Volver a puntuar el mismo resultado no cambia nada
+        assertTrue(score(match, 2, 1).isEmpty());
+        assertEquals(11, totalPoints(home));
+
+        // Editar un resultado ya puntuado le quita el punto a quien dejó de acertar y se lo da al nuevo
+        assertEquals(List.of(new UserPointsChange(home.getId(), 11, 10), new UserPointsChange(draw.getId(), 4, 5)),
+                score(match, 1, 1));
+        assertEquals(0, awardedPoints(homeBet));
+        assertEquals(1, awardedPoints(drawBet));
+
+        assertEquals(List.of(new UserPointsChange(draw.getId(), 5, 4), new UserPointsChange(away.getId(), 0, 1)),
+                score(match, 0, 3));
+        assertEquals(10, totalPoints(home));
+        assertEquals(4, totalPoints(draw));
+        assertEquals(1, totalPoints(away));
+
+        // Borrar el resultado descuenta los puntos que se habían dado
+        assertEquals(List.of(new UserPointsChange(away.getId(), 1, 0)), score(match, null, null));
+        assertEquals(10, totalPoints(home));
+        assertEquals(4, totalPoints(draw));
+        assertEquals(0, totalPoints(away));
+        // Sin resultado las apuestas vuelven a quedar sin puntuar
+        assertNull(awardedPoints(homeBet));
+        assertNull(awardedPoints(drawBet));
+        assertNull(awardedPoints(awayBet));
+    }
+
+    @Test
+    void scoresSeveralMatchesInOnePassUpdatingEachUserOnce() {
+        User both = user("both", 3);
+        User one = user("one", 0);
+        bet(both, match, PredictedResult.HOME_WIN);
+        bet(both, otherMatch, PredictedResult.AWAY_WIN);
+        bet(one, match, PredictedResult.DRAW);
+        bet(one, otherMatch, PredictedResult.AWAY_WIN);
+        setResult(match, 1, 0);
+        setResult(otherMatch, 0, 2);
+
+        List<UserPointsChange> changes = pointsService.applyMatchResultsDelta(Set.of(match.getId(), otherMatch.getId()))
+                .stream()
+                .sorted(Comparator.comparing(UserPointsChange::userId))
+                .toList();
+
+        assertEquals(List.of(new UserPointsChange(both.getId(), 3, 5), new UserPointsChange(one.getId(), 0, 1)), changes);
+        assertEquals(5, totalPoints(both));
+        assertEquals(1, totalPoints(one));
+    }
+}